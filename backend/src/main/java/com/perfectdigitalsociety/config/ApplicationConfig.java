@@ -70,4 +70,35 @@ public class ApplicationConfig {
         executor.initialize();
         return executor;
     }
+    
+    /**
+     * Delivery of buffered message stream events to subscribers
+     */
+    @Bean(name = "messageStreamExecutor")
+    public Executor messageStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(10000); // at most one pending delivery per subscriber
+        executor.setThreadNamePrefix("PDS-Stream-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Batch balance recalculation worker pool
+     */
+    @Bean(name = "recalculationTaskExecutor")
+    public Executor recalculationTaskExecutor(BalanceConfig balanceConfig) {
+        int threads = Math.max(1, balanceConfig.getRecalculationThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("PDS-Recalc-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.perfectdigitalsociety.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.balance")
+@Data
+public class BalanceConfig {
+    
+    private int bulkChunkSize = 5000; // users per set-based update statement
+    
+    private int impactQueueCapacity = 10000; // pending messages before callers apply impacts themselves
+    
+    private long rebalanceDebounceMillis = 5000; // window in which rebalance triggers collapse into one run
+    
+    private int trendBufferSize = 1024; // recent balance samples kept in memory
+    
+    private int trendSlopeSamples = 20; // samples used for slope and volatility
+    
+    private String journalPath = "data/balance-events.journal"; // memory-mapped balance event journal
+    
+    private long journalSizeBytes = 64L * 1024 * 1024;
+    
+    private int journalDrainBatchSize = 500; // events per batch insert
+    
+    private boolean journalForceOnAppend = true; // wait for a group commit flush per append; without it an OS crash can lose committed events
+    
+    private int recalculationPartitionSize = 2000; // user id range per recalculation partition
+    
+    private int recalculationThreads = 4; // recalculation worker pool size
+}
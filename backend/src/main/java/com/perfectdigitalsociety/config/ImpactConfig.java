@@ -0,0 +1,15 @@
+package com.perfectdigitalsociety.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.impact")
+@Data
+public class ImpactConfig {
+    
+    private String dictionaryPath = "data/impact-dictionary.json"; // built-in keywords are used while the file is absent
+    
+    private long dictionaryCheckMillis = 30000; // how often the dictionary file is checked for changes
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.perfectdigitalsociety.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.messages")
+@Data
+public class MessageConfig {
+    
+    private int feedCacheSize = 500; // newest visible messages kept pre-mapped for the first feed pages
+    private long flagFlushMillis = 5000; // aggregation window for flag counts and flag penalties
+    private long moderationLeaseSeconds = 300; // how long claimed moderation items stay with their moderator
+    private int streamBufferSize = 256; // undelivered events per subscriber before it is evicted as too slow
+    private int streamReplaySize = 1000; // recent events kept for Last-Event-ID resume
+    private long streamHeartbeatMillis = 15000;
+    private long streamTimeoutMillis = 1800000; // clients reconnect and resume afterwards
+}
\ No newline at end of file
@@ -1,7 +1,16 @@
 package com.perfectdigitalsociety.config;
 
+import com.perfectdigitalsociety.service.BalanceEventJournal;
+import com.perfectdigitalsociety.service.BalanceImpactQueue;
 import com.perfectdigitalsociety.service.BalanceService;
 import com.perfectdigitalsociety.service.CommunityService;
+import com.perfectdigitalsociety.service.FlagAggregator;
+import com.perfectdigitalsociety.service.MessageEventBroadcaster;
+import com.perfectdigitalsociety.service.MessageImpactAnalyzer;
+import com.perfectdigitalsociety.service.MetricRecorder;
+import com.perfectdigitalsociety.service.RebalanceCoordinator;
+import com.perfectdigitalsociety.service.ScoreStore;
+import com.perfectdigitalsociety.service.SystemBalanceSnapshotHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
@@ -12,21 +21,29 @@ import org.springframework.scheduling.annotation.Scheduled;
 @Slf4j
 public class SchedulingConfig {
     
+    // Bounds one drain run under steady event traffic; the next run continues where it stopped
+    private static final int MAX_JOURNAL_DRAIN_BATCHES = 20;
+    
     private final BalanceService balanceService;
     private final CommunityService communityService;
+    private final ScoreStore scoreStore;
+    private final SystemBalanceSnapshotHolder systemBalanceSnapshotHolder;
+    private final BalanceImpactQueue balanceImpactQueue;
+    private final RebalanceCoordinator rebalanceCoordinator;
+    private final MetricRecorder metricRecorder;
+    private final BalanceEventJournal balanceEventJournal;
+    private final MessageImpactAnalyzer messageImpactAnalyzer;
+    private final FlagAggregator flagAggregator;
+    private final MessageEventBroadcaster messageEventBroadcaster;
     
     /**
-     * Automatic balance rebalancing every hour
+     * Automatic balance rebalancing every hour, run on the balance executor so the
+     * scheduler thread stays free for the short periodic jobs
      */
     @Scheduled(fixedRate = 3600000) // 1 hour
     public void performAutomaticRebalancing() {
-        log.info("Starting scheduled automatic rebalancing");
-        try {
-            balanceService.performAutomaticRebalancing();
-            log.info("Scheduled automatic rebalancing completed successfully");
-        } catch (Exception e) {
-            log.error("Error during scheduled automatic rebalancing", e);
-        }
+        log.info("Triggering scheduled automatic rebalancing");
+        rebalanceCoordinator.submit("Scheduled hourly rebalancing");
     }
     
     /**
@@ -64,10 +81,103 @@ public class SchedulingConfig {
     public void systemHealthCheck() {
         log.debug("Performing system health check");
         try {
-            balanceService.calculateSystemBalance();
+            systemBalanceSnapshotHolder.refresh();
             log.debug("System health check completed successfully");
         } catch (Exception e) {
             log.error("Error during system health check", e);
         }
     }
+    
+    /**
+     * Reconcile the in-memory scores, score distribution and incremental system balance totals
+     * with the database every 10 minutes
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void reconcileSystemBalanceTotals() {
+        log.debug("Reconciling system balance totals");
+        try {
+            scoreStore.reconcile();
+            log.debug("System balance totals reconciled successfully");
+        } catch (Exception e) {
+            log.error("Error during system balance totals reconciliation", e);
+        }
+    }
+    
+    /**
+     * Re-queue message impacts that were never applied every 5 minutes
+     */
+    @Scheduled(fixedRate = 300000, initialDelay = 300000) // 5 minutes
+    public void recoverPendingBalanceImpacts() {
+        log.debug("Recovering pending balance impacts");
+        try {
+            balanceImpactQueue.recoverPendingImpacts();
+            log.debug("Pending balance impacts recovered successfully");
+        } catch (Exception e) {
+            log.error("Error during pending balance impact recovery", e);
+        }
+    }
+    
+    /**
+     * Persist buffered system metrics in batches (every 10 seconds by default)
+     */
+    @Scheduled(fixedRateString = "${app.balance.metric-flush-millis:10000}")
+    public void flushSystemMetrics() {
+        try {
+            metricRecorder.flush();
+        } catch (Exception e) {
+            log.error("Error during system metrics flush", e);
+        }
+    }
+    
+    /**
+     * Drain journaled balance events into the database (every second by default),
+     * at most a bounded number of batches per run
+     */
+    @Scheduled(fixedDelayString = "${app.balance.journal-drain-millis:1000}")
+    public void drainBalanceEventJournal() {
+        try {
+            int batches = 0;
+            while (batches++ < MAX_JOURNAL_DRAIN_BATCHES && balanceEventJournal.drain() > 0) {
+                // Keep draining while batches come back non-empty
+            }
+        } catch (Exception e) {
+            log.error("Error during balance event journal drain", e);
+        }
+    }
+    
+    /**
+     * Write aggregated message flag counts and flag penalties (every 5 seconds by default)
+     */
+    @Scheduled(fixedDelayString = "${app.messages.flag-flush-millis:5000}")
+    public void flushMessageFlags() {
+        try {
+            flagAggregator.flush();
+        } catch (Exception e) {
+            log.error("Error during message flag flush", e);
+        }
+    }
+    
+    /**
+     * Keep message stream connections alive and drop dead ones (every 15 seconds by default)
+     */
+    @Scheduled(fixedDelayString = "${app.messages.stream-heartbeat-millis:15000}")
+    public void sendMessageStreamHeartbeats() {
+        try {
+            messageEventBroadcaster.heartbeat();
+        } catch (Exception e) {
+            log.error("Error sending message stream heartbeats", e);
+        }
+    }
+    
+    /**
+     * Pick up changes to the impact keyword dictionary file (every 30 seconds by default)
+     */
+    @Scheduled(fixedDelayString = "${app.impact.dictionary-check-millis:30000}")
+    public void reloadImpactDictionary() {
+        try {
+            messageImpactAnalyzer.reloadIfChanged();
+        } catch (Exception e) {
+            log.error("Error during impact dictionary reload, keeping the current one", e);
+        }
+    }
 }
\ No newline at end of file
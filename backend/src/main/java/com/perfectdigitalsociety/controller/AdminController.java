@@ -2,12 +2,21 @@ package com.perfectdigitalsociety.controller;
 
 import com.perfectdigitalsociety.dto.response.AdminUserResponse;
 import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.dto.response.FeedCacheStatsResponse;
+import com.perfectdigitalsociety.dto.response.ImpactDictionaryResponse;
+import com.perfectdigitalsociety.dto.response.ImpactQueueStatsResponse;
+import com.perfectdigitalsociety.dto.response.RebalanceSimulationResponse;
+import com.perfectdigitalsociety.dto.response.RebalanceStatsResponse;
+import com.perfectdigitalsociety.dto.response.RecalculationStatusResponse;
+import com.perfectdigitalsociety.dto.response.SearchIndexStatsResponse;
 import com.perfectdigitalsociety.dto.response.StatusResponse;
 import com.perfectdigitalsociety.dto.response.SystemMetricsResponse;
 import com.perfectdigitalsociety.dto.request.AdjustBalanceRequest;
+import com.perfectdigitalsociety.dto.request.SimulateRebalanceRequest;
 import com.perfectdigitalsociety.dto.request.UpdateStatusRequest;
 import com.perfectdigitalsociety.entity.User;
 import com.perfectdigitalsociety.service.AdminService;
+import com.perfectdigitalsociety.service.DataExporter;
 import com.perfectdigitalsociety.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,12 +29,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -39,6 +54,7 @@ public class AdminController {
     
     private final AdminService adminService;
     private final UserService userService;
+    private final DataExporter dataExporter;
     
     /**
      * Get all users (admin only)
@@ -384,6 +400,292 @@ public class AdminController {
         }
     }
     
+    /**
+     * Get balance impact queue statistics (admin only)
+     * GET /api/admin/balance/impact-queue
+     */
+    @GetMapping("/balance/impact-queue")
+    public ResponseEntity<ImpactQueueStatsResponse> getImpactQueueStats(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Get impact queue statistics request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized access to impact queue statistics", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            ImpactQueueStatsResponse stats = adminService.getImpactQueueStats(adminId);
+            return ResponseEntity.ok(stats);
+            
+        } catch (Exception e) {
+            log.error("Failed to get impact queue statistics for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get automatic rebalancing statistics (admin only)
+     * GET /api/admin/balance/rebalance-stats
+     */
+    @GetMapping("/balance/rebalance-stats")
+    public ResponseEntity<RebalanceStatsResponse> getRebalanceStats(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Get rebalancing statistics request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized access to rebalancing statistics", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            RebalanceStatsResponse stats = adminService.getRebalanceStats(adminId);
+            return ResponseEntity.ok(stats);
+            
+        } catch (Exception e) {
+            log.error("Failed to get rebalancing statistics for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Simulate a rebalancing policy without applying it (admin only)
+     * POST /api/admin/balance/simulate
+     */
+    @PostMapping("/balance/simulate")
+    public ResponseEntity<RebalanceSimulationResponse> simulateRebalance(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody SimulateRebalanceRequest request) {
+        
+        log.info("Rebalance simulation request from admin: {} - Mode: {}", userDetails.getUsername(), request.getMode());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized rebalance simulation", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            RebalanceSimulationResponse response = adminService.simulateRebalance(adminId, request);
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid rebalance simulation mode: {}", request.getMode());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Failed to simulate rebalance for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Start, or with resume=true continue the last unfinished, batch recalculation of all user balances (admin only)
+     * POST /api/admin/balance/recalculate
+     */
+    @PostMapping("/balance/recalculate")
+    public ResponseEntity<RecalculationStatusResponse> startBalanceRecalculation(@AuthenticationPrincipal UserDetails userDetails,
+                                                                                  @RequestParam(defaultValue = "false") boolean resume) {
+        log.info("Balance recalculation request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized balance recalculation", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            RecalculationStatusResponse status = adminService.startBalanceRecalculation(adminId, resume);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+            
+        } catch (IllegalStateException e) {
+            log.warn("Balance recalculation already running: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Failed to start balance recalculation for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get batch recalculation progress and throughput (admin only)
+     * GET /api/admin/balance/recalculate
+     */
+    @GetMapping("/balance/recalculate")
+    public ResponseEntity<RecalculationStatusResponse> getBalanceRecalculationStatus(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Get balance recalculation status request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized access to balance recalculation status", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            RecalculationStatusResponse status = adminService.getBalanceRecalculationStatus(adminId);
+            return ResponseEntity.ok(status);
+            
+        } catch (Exception e) {
+            log.error("Failed to get balance recalculation status for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Recompile the message impact keyword dictionary from its source (admin only)
+     * POST /api/admin/impact-dictionary/reload
+     */
+    @PostMapping("/impact-dictionary/reload")
+    public ResponseEntity<ImpactDictionaryResponse> reloadImpactDictionary(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Impact dictionary reload request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized impact dictionary reload", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            ImpactDictionaryResponse dictionary = adminService.reloadImpactDictionary(adminId);
+            return ResponseEntity.ok(dictionary);
+            
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Invalid impact dictionary, keeping the current one: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Failed to reload impact dictionary for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get the active message impact keyword dictionary (admin only)
+     * GET /api/admin/impact-dictionary
+     */
+    @GetMapping("/impact-dictionary")
+    public ResponseEntity<ImpactDictionaryResponse> getImpactDictionary(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Get impact dictionary request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized access to impact dictionary", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            ImpactDictionaryResponse dictionary = adminService.getImpactDictionary(adminId);
+            return ResponseEntity.ok(dictionary);
+            
+        } catch (Exception e) {
+            log.error("Failed to get impact dictionary for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get message feed cache hit ratio and rebuild time (admin only)
+     * GET /api/admin/feed-cache
+     */
+    @GetMapping("/feed-cache")
+    public ResponseEntity<FeedCacheStatsResponse> getFeedCacheStats(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Get feed cache stats request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized access to feed cache stats", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            FeedCacheStatsResponse stats = adminService.getFeedCacheStats(adminId);
+            return ResponseEntity.ok(stats);
+            
+        } catch (Exception e) {
+            log.error("Failed to get feed cache stats for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Rebuild the message search index from the messages table (admin only)
+     * POST /api/admin/search-index/rebuild
+     */
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<SearchIndexStatsResponse> rebuildSearchIndex(@AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Search index rebuild request from admin: {}", userDetails.getUsername());
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized search index rebuild", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            SearchIndexStatsResponse stats = adminService.rebuildSearchIndex(adminId);
+            return ResponseEntity.ok(stats);
+            
+        } catch (IllegalStateException e) {
+            log.warn("Search index rebuild already running: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Failed to rebuild search index for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Stream all messages as NDJSON, optionally limited to a creation date range (admin only)
+     * GET /api/admin/export/messages
+     */
+    @GetMapping(value = "/export/messages", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Message export request from admin: {} ({} - {})", userDetails.getUsername(), from, to);
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized message export", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            StreamingResponseBody body = output -> dataExporter.exportMessages(from, to, output);
+            return ndjsonResponse("messages.ndjson", body);
+            
+        } catch (Exception e) {
+            log.error("Failed to start message export for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Stream all balance events as NDJSON, optionally limited to a creation date range (admin only)
+     * GET /api/admin/export/balance-events
+     */
+    @GetMapping(value = "/export/balance-events", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBalanceEvents(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Balance event export request from admin: {} ({} - {})", userDetails.getUsername(), from, to);
+        
+        try {
+            Long adminId = getCurrentUserId(userDetails.getUsername());
+            if (!hasAdminRights(adminId)) {
+                log.warn("User {} attempted unauthorized balance event export", userDetails.getUsername());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            StreamingResponseBody body = output -> dataExporter.exportBalanceEvents(from, to, output);
+            return ndjsonResponse("balance-events.ndjson", body);
+            
+        } catch (Exception e) {
+            log.error("Failed to start balance event export for admin: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     // Helper methods
     private Long getCurrentUserId(String username) {
         return userService.getUserByUsername(username).getId();
@@ -392,4 +694,11 @@ public class AdminController {
     private boolean hasAdminRights(Long userId) {
         return userService.hasAdminRights(userId);
     }
+    
+    private ResponseEntity<StreamingResponseBody> ndjsonResponse(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
 }
\ No newline at end of file
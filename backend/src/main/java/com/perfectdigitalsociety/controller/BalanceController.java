@@ -2,20 +2,30 @@ package com.perfectdigitalsociety.controller;
 
 import com.perfectdigitalsociety.dto.request.TriggerBalanceRequest;
 import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.dto.response.BalanceTrendBucketResponse;
+import com.perfectdigitalsociety.dto.response.CursorPage;
+import com.perfectdigitalsociety.dto.response.ScoreDistributionResponse;
 import com.perfectdigitalsociety.dto.response.SystemBalanceResponse;
 import com.perfectdigitalsociety.dto.response.UserBalanceResponse;
 import com.perfectdigitalsociety.service.BalanceService;
+import com.perfectdigitalsociety.service.RebalanceCoordinator;
+import com.perfectdigitalsociety.service.SystemBalanceSnapshotHolder;
 import com.perfectdigitalsociety.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/balance")
@@ -24,24 +34,43 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class BalanceController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final BalanceService balanceService;
     private final UserService userService;
+    private final SystemBalanceSnapshotHolder systemBalanceSnapshotHolder;
+    private final RebalanceCoordinator rebalanceCoordinator;
     
     /**
      * Get current system balance
      * GET /api/balance/current
      */
     @GetMapping("/current")
-    public ResponseEntity<SystemBalanceResponse> getCurrentSystemBalance() {
-        log.info("Get current system balance request");
+    public ResponseEntity<SystemBalanceResponse> getCurrentSystemBalance(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Get current system balance request");
         
         try {
-            SystemBalanceResponse response = balanceService.calculateSystemBalance();
-            log.info("System balance retrieved - Freedom: {}, Security: {}, Balance Score: {}", 
+            SystemBalanceSnapshotHolder.Snapshot snapshot = systemBalanceSnapshotHolder.current();
+            
+            // Unchanged since the client's last poll
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+            }
+            
+            SystemBalanceResponse response = snapshot.toResponse();
+            log.debug("System balance retrieved - Version: {}, Freedom: {}, Security: {}, Balance Score: {}", 
+                    response.getVersion(),
                     response.getCurrentFreedomLevel(), 
                     response.getCurrentSecurityLevel(), 
                     response.getBalanceScore());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(response);
         } catch (Exception e) {
             log.error("Failed to get current system balance", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -145,19 +174,15 @@ public class BalanceController {
      */
     @GetMapping("/trends")
     public ResponseEntity<List<BalanceEventResponse>> getBalanceTrends(
-            @RequestParam(defaultValue = "24") int hours) {
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "500") int limit) {
         
         log.info("Get balance trends request for last {} hours", hours);
         
         try {
-            // This would implement trend analysis over time
-            List<BalanceEventResponse> recentEvents = balanceService.getBalanceHistory(100);
-            
-            // Filter events from last X hours
-            List<BalanceEventResponse> trendEvents = recentEvents.stream()
-                .filter(event -> event.getCreatedAt().isAfter(
-                    java.time.LocalDateTime.now().minusHours(hours)))
-                .toList();
+            // Time-range query on created_at instead of filtering a fixed number of recent events
+            List<BalanceEventResponse> trendEvents = balanceService.getBalanceEventsSince(
+                LocalDateTime.now().minusHours(hours), limit);
             
             log.info("Retrieved {} trend events for last {} hours", trendEvents.size(), hours);
             return ResponseEntity.ok(trendEvents);
@@ -167,6 +192,83 @@ public class BalanceController {
         }
     }
     
+    /**
+     * Get balance trends aggregated per time bucket
+     * GET /api/balance/trends/buckets
+     */
+    @GetMapping("/trends/buckets")
+    public ResponseEntity<List<BalanceTrendBucketResponse>> getBalanceTrendBuckets(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "HOUR") String bucket) {
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        log.info("Get balance trend buckets request from {} to {} per {}", start, end, bucket);
+        
+        try {
+            List<BalanceTrendBucketResponse> buckets = balanceService.getBalanceTrendBuckets(start, end, bucket);
+            log.info("Retrieved {} balance trend buckets", buckets.size());
+            return ResponseEntity.ok(buckets);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid balance trend request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Failed to get balance trend buckets", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get balance events in a time range, keyset paginated via the X-Next-Cursor header
+     * GET /api/balance/events/range
+     */
+    @GetMapping("/events/range")
+    public ResponseEntity<List<BalanceEventResponse>> getBalanceEventsInRange(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        log.info("Get balance events request from {} to {} with limit: {}", start, end, limit);
+        
+        try {
+            CursorPage<BalanceEventResponse> page = balanceService.getBalanceEventsInRange(start, end, cursor, limit);
+            
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid balance events request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Failed to get balance events in range", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get score distributions of active users
+     * GET /api/balance/distribution
+     */
+    @GetMapping("/distribution")
+    public ResponseEntity<ScoreDistributionResponse> getScoreDistribution() {
+        log.info("Get score distribution request");
+        
+        try {
+            ScoreDistributionResponse response = balanceService.getScoreDistribution();
+            log.info("Score distribution retrieved for {} active users", response.getActiveUsers());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Failed to get score distribution", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Get system balance statistics
      * GET /api/balance/statistics
@@ -203,15 +305,14 @@ public class BalanceController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            // Trigger automatic rebalancing
-            balanceService.performAutomaticRebalancing();
-            
-            // Return latest balance event
-            List<BalanceEventResponse> events = balanceService.getBalanceHistory(1);
-            BalanceEventResponse latestEvent = events.isEmpty() ?  null : events.get(0);
+            // Trigger automatic rebalancing (collapses into a follow-up run if one is in progress)
+            Optional<BalanceEventResponse> event =
+                rebalanceCoordinator.runNow("Manual rebalancing by " + userDetails.getUsername());
             
+            // Return the event this run recorded; events reach the table only after the journal drains
             log.info("Automatic rebalancing triggered successfully by admin: {}", userDetails.getUsername());
-            return ResponseEntity.ok(latestEvent);
+            return event.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
             
         } catch (Exception e) {
             log.error("Failed to trigger automatic rebalancing for user: {}", userDetails.getUsername(), e);
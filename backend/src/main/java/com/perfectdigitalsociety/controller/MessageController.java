@@ -1,10 +1,18 @@
 package com.perfectdigitalsociety.controller;
 
+import com.perfectdigitalsociety.dto.request.BulkModerationRequest;
 import com.perfectdigitalsociety.dto.request.CreateMessageRequest;
 import com.perfectdigitalsociety.dto.request.FlagRequest;
 import com.perfectdigitalsociety.dto.request.UpdateMessageRequest;
+import com.perfectdigitalsociety.dto.response.BulkModerationResponse;
+import com.perfectdigitalsociety.dto.response.CursorPage;
 import com.perfectdigitalsociety.dto.response.MessageResponse;
+import com.perfectdigitalsociety.dto.response.ModerationClaimResponse;
 import com.perfectdigitalsociety.dto.response.StatusResponse;
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.exception.MessageNotFoundException;
+import com.perfectdigitalsociety.exception.UnauthorizedException;
+import com.perfectdigitalsociety.service.MessageEventBroadcaster;
 import com.perfectdigitalsociety.service.MessageService;
 import com.perfectdigitalsociety.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,10 +27,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -34,8 +44,11 @@ import java.util.List;
 @Tag(name = "Message Management", description = "Mesaj yönetimi endpoint'leri - mesaj oluşturma, güncelleme, silme ve moderasyon işlemleri")
 public class MessageController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final MessageService messageService;
     private final UserService userService;
+    private final MessageEventBroadcaster messageEventBroadcaster;
     
     /**
      * Get all messages
@@ -59,13 +72,18 @@ public class MessageController {
         )
     })
     @GetMapping
-    public ResponseEntity<List<MessageResponse>> getAllMessages() {
+    public ResponseEntity<List<MessageResponse>> getAllMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Get all messages request");
         
         try {
-            List<MessageResponse> messages = messageService.getAllVisibleMessages();
-            log.info("Retrieved {} messages", messages.size());
-            return ResponseEntity.ok(messages);
+            CursorPage<MessageResponse> page = messageService.getVisibleMessages(cursor, limit);
+            log.info("Retrieved {} messages", page.getItems().size());
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid messages request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Failed to get messages", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -96,6 +114,40 @@ public class MessageController {
         }
     }
     
+    /**
+     * Search visible messages; every term must match, best match first
+     * GET /api/messages/search
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MessageResponse>> searchMessages(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Search messages request for: {}", q);
+        
+        try {
+            CursorPage<MessageResponse> page = messageService.searchMessages(q, cursor, limit);
+            log.info("Found {} messages for: {}", page.getItems().size(), q);
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Failed to search messages for: {}", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Stream message changes as Server-Sent Events; reconnecting clients resume after Last-Event-ID
+     * GET /api/messages/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Message stream subscription, last event ID: {}", lastEventId);
+        return messageEventBroadcaster.subscribe(lastEventId);
+    }
+    
     /**
      * Get specific message by ID
      * GET /api/messages/{id}
@@ -192,13 +244,19 @@ public class MessageController {
      * GET /api/messages/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<MessageResponse>> getUserMessages(@PathVariable Long userId) {
+    public ResponseEntity<List<MessageResponse>> getUserMessages(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Get user messages request for user ID: {}", userId);
         
         try {
-            List<MessageResponse> messages = messageService.getUserMessages(userId);
-            log.info("Retrieved {} messages for user ID: {}", messages.size(), userId);
-            return ResponseEntity.ok(messages);
+            CursorPage<MessageResponse> page = messageService.getUserMessages(userId, cursor, limit);
+            log.info("Retrieved {} messages for user ID: {}", page.getItems().size(), userId);
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid user messages request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Failed to get messages for user ID: {}", userId, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -210,14 +268,20 @@ public class MessageController {
      * GET /api/messages/my-messages
      */
     @GetMapping("/my-messages")
-    public ResponseEntity<List<MessageResponse>> getCurrentUserMessages(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<MessageResponse>> getCurrentUserMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Get current user messages request for: {}", userDetails.getUsername());
         
         try {
             Long userId = getCurrentUserId(userDetails.getUsername());
-            List<MessageResponse> messages = messageService.getUserMessages(userId);
-            log.info("Retrieved {} messages for user: {}", messages.size(), userDetails.getUsername());
-            return ResponseEntity.ok(messages);
+            CursorPage<MessageResponse> page = messageService.getUserMessages(userId, cursor, limit);
+            log.info("Retrieved {} messages for user: {}", page.getItems().size(), userDetails.getUsername());
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid messages request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Failed to get messages for user: {}", userDetails.getUsername(), e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -229,7 +293,10 @@ public class MessageController {
      * GET /api/messages/flagged
      */
     @GetMapping("/flagged")
-    public ResponseEntity<List<MessageResponse>> getFlaggedMessages(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<MessageResponse>> getFlaggedMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Get flagged messages request from user: {}", userDetails.getUsername());
         
         try {
@@ -239,9 +306,12 @@ public class MessageController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            List<MessageResponse> messages = messageService.getFlaggedMessages();
-            log.info("Retrieved {} flagged messages", messages.size());
-            return ResponseEntity.ok(messages);
+            CursorPage<MessageResponse> page = messageService.getFlaggedMessages(cursor, limit);
+            log.info("Retrieved {} flagged messages", page.getItems().size());
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid flagged messages request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Failed to get flagged messages for user: {}", userDetails.getUsername(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -253,7 +323,10 @@ public class MessageController {
      * GET /api/messages/pending
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<MessageResponse>> getPendingModerationMessages(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<MessageResponse>> getPendingModerationMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Get pending moderation messages request from user: {}", userDetails.getUsername());
         
         try {
@@ -263,15 +336,94 @@ public class MessageController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            List<MessageResponse> messages = messageService.getPendingModerationMessages();
-            log.info("Retrieved {} pending moderation messages", messages.size());
-            return ResponseEntity.ok(messages);
+            CursorPage<MessageResponse> page = messageService.getPendingModerationMessages(cursor, limit);
+            log.info("Retrieved {} pending moderation messages", page.getItems().size());
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid pending moderation messages request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Failed to get pending moderation messages for user: {}", userDetails.getUsername(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Claim a batch of messages from the moderation queue (for moderators)
+     * POST /api/messages/moderation/claim
+     */
+    @PostMapping("/moderation/claim")
+    public ResponseEntity<ModerationClaimResponse> claimModerationBatch(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Claim moderation batch request from user: {}", userDetails.getUsername());
+        
+        try {
+            Long userId = getCurrentUserId(userDetails.getUsername());
+            ModerationClaimResponse response = messageService.claimModerationBatch(userId, limit);
+            log.info("Claimed {} messages for moderation", response.getMessages().size());
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            log.error("Failed to claim moderation batch for user: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Apply many moderation decisions in one request (for moderators)
+     * POST /api/messages/moderation/bulk
+     */
+    @PostMapping("/moderation/bulk")
+    public ResponseEntity<BulkModerationResponse> moderateMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody BulkModerationRequest request) {
+        log.info("Bulk moderation request with {} decisions from user: {}", request.getDecisions().size(), userDetails.getUsername());
+        
+        try {
+            Long userId = getCurrentUserId(userDetails.getUsername());
+            BulkModerationResponse response = messageService.moderateMessages(userId, request.getDecisions());
+            log.info("Bulk moderation applied to {} of {} messages", response.getApplied(), response.getRequested());
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            log.error("Failed bulk moderation for user: {}", userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Moderate message (for moderators)
+     * POST /api/messages/{id}/moderate
+     */
+    @PostMapping("/{id}/moderate")
+    public ResponseEntity<MessageResponse> moderateMessage(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam Message.ModerationStatus status) {
+        log.info("Moderate message request for ID: {} from user: {} with status: {}", id, userDetails.getUsername(), status);
+        
+        try {
+            Long userId = getCurrentUserId(userDetails.getUsername());
+            MessageResponse response = messageService.moderateMessage(id, userId, status);
+            log.info("Message moderated successfully: {}", id);
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (MessageNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            // Claimed by another moderator
+            log.warn("Moderation of message ID: {} rejected: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Failed to moderate message ID: {} for user: {}", id, userDetails.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
     // Helper methods
     private Long getCurrentUserId(String username) {
         return userService.getUserByUsername(username).getId();
@@ -280,4 +432,13 @@ public class MessageController {
     private boolean hasModeratorRights(Long userId) {
         return userService.hasModeratorRights(userId);
     }
+    
+    // List bodies stay unchanged; the cursor for the next page travels in a header
+    private ResponseEntity<List<MessageResponse>> pageResponse(CursorPage<MessageResponse> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.perfectdigitalsociety.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationRequest {
+    
+    @NotEmpty(message = "At least one decision is required")
+    @Size(max = 500, message = "At most 500 decisions per request")
+    private List<@Valid ModerationDecision> decisions;
+}
\ No newline at end of file
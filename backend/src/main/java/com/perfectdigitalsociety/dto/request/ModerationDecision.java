@@ -0,0 +1,19 @@
+package com.perfectdigitalsociety.dto.request;
+
+import com.perfectdigitalsociety.entity.Message;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationDecision {
+    
+    @NotNull(message = "Message ID is required")
+    private Long messageId;
+    
+    @NotNull(message = "Moderation status is required")
+    private Message.ModerationStatus status;
+}
\ No newline at end of file
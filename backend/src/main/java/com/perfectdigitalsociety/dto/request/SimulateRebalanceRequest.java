@@ -0,0 +1,43 @@
+package com.perfectdigitalsociety.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulateRebalanceRequest {
+    
+    @NotBlank(message = "Simulation mode is required")
+    private String mode; // AUTOMATIC, EMERGENCY_REBALANCE, CUSTOM
+    
+    @Min(value = -100, message = "Freedom adjustment must be at least -100")
+    @Max(value = 100, message = "Freedom adjustment must not exceed 100")
+    private Integer freedomAdjustment; // CUSTOM only
+    
+    @Min(value = -100, message = "Security adjustment must be at least -100")
+    @Max(value = 100, message = "Security adjustment must not exceed 100")
+    private Integer securityAdjustment; // CUSTOM only
+    
+    @Min(value = 0, message = "Reset score must be at least 0")
+    @Max(value = 100, message = "Reset score must not exceed 100")
+    private Integer resetFreedomScore; // EMERGENCY_REBALANCE, defaults to 50
+    
+    @Min(value = 0, message = "Reset score must be at least 0")
+    @Max(value = 100, message = "Reset score must not exceed 100")
+    private Integer resetSecurityScore; // EMERGENCY_REBALANCE, defaults to 50
+    
+    @DecimalMin(value = "0.0", message = "Minimum balance score must be at least 0")
+    @DecimalMax(value = "1.0", message = "Minimum balance score must not exceed 1")
+    private Double minBalanceScore; // AUTOMATIC threshold, defaults to 0.7
+    
+    @Min(value = 0, message = "Maximum level gap must be at least 0")
+    @Max(value = 100, message = "Maximum level gap must not exceed 100")
+    private Integer maxLevelGap; // AUTOMATIC threshold, defaults to 30
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceTrendBucketResponse {
+    
+    private LocalDateTime bucketStart;
+    private Long eventCount;
+    private Double averageFreedomLevel; // average new freedom level of events in the bucket
+    private Double averageSecurityLevel; // average new security level of events in the bucket
+    private Map<String, Long> eventsByTriggerType;
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationResponse {
+    
+    private Integer requested;
+    private Integer applied;
+    private Integer unchanged; // already had the requested status
+    private Integer failed; // not found, claimed by another moderator or duplicate
+    private Integer adjustedAuthors; // authors who received one net balance adjustment
+    private List<ModerationOutcomeResponse> outcomes; // in request order
+}
\ No newline at end of file
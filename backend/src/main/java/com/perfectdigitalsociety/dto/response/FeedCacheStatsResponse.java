@@ -0,0 +1,22 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedCacheStatsResponse {
+    
+    private Integer cachedMessages;
+    private Integer capacity;
+    private Long hits;
+    private Long misses;
+    private Double hitRatio;
+    private Long rebuilds;
+    private Long lastRebuildMillis;
+    private LocalDateTime lastRebuiltAt;
+}
\ No newline at end of file
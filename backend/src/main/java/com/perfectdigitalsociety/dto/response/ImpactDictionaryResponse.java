@@ -0,0 +1,22 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImpactDictionaryResponse {
+    
+    private String source; // dictionary file path, or BUILT_IN
+    private Integer freedomKeywords;
+    private Integer securityKeywords;
+    private Integer freedomCap;
+    private Integer securityCap;
+    private Integer automatonStates;
+    private Long compileMillis;
+    private LocalDateTime loadedAt;
+}
\ No newline at end of file
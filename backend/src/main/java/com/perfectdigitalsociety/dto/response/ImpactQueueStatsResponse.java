@@ -0,0 +1,22 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImpactQueueStatsResponse {
+    
+    private Integer pendingUsers;
+    private Integer pendingMessages;
+    private Integer capacity;
+    private Integer highWatermark;
+    private Long enqueued;
+    private Long coalesced;
+    private Long callerRuns;
+    private Long appliedBatches;
+    private Long failedBatches;
+    private Long recovered;
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationClaimResponse {
+    
+    private List<MessageResponse> messages; // highest priority first
+    private LocalDateTime leaseExpiresAt; // unmoderated messages return to the queue afterwards
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationOutcomeResponse {
+    
+    private Long messageId;
+    private String status; // requested moderation status
+    private String result; // APPLIED, UNCHANGED, NOT_FOUND, CLAIMED_BY_OTHER, DUPLICATE
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceSimulationResponse {
+    
+    private String mode;
+    private Boolean rebalancingNeeded;
+    private Integer freedomAdjustment;
+    private Integer securityAdjustment;
+    private Long activeUsers;
+    private Long affectedUsers;
+    private Integer currentFreedomLevel;
+    private Integer currentSecurityLevel;
+    private Double currentBalanceScore;
+    private Integer projectedFreedomLevel;
+    private Integer projectedSecurityLevel;
+    private Double projectedBalanceScore;
+    private List<Long> projectedFreedomDistribution; // user count per score 0..100
+    private List<Long> projectedSecurityDistribution; // user count per score 0..100
+    private Long elapsedMillis;
+}
\ No newline at end of file
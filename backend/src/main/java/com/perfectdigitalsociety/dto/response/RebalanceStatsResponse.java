@@ -0,0 +1,18 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceStatsResponse {
+    
+    private Long triggered;
+    private Long coalesced;
+    private Long executed;
+    private Long failed;
+    private Boolean running;
+    private Boolean scheduled;
+}
\ No newline at end of file
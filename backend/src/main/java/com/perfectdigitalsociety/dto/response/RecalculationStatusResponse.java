@@ -0,0 +1,26 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationStatusResponse {
+    
+    private Long runId;
+    private String status; // RUNNING, COMPLETED, FAILED or IDLE when no run exists
+    private Boolean running;
+    private Integer totalPartitions;
+    private Integer completedPartitions;
+    private Long processedUsers;
+    private Long updatedUsers;
+    private Long conflicts; // users changed concurrently and left untouched
+    private Double usersPerSecond;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreDistributionResponse {
+    
+    private Long activeUsers;
+    private List<Long> freedomDistribution; // user count per score 0..100
+    private List<Long> securityDistribution; // user count per score 0..100
+    private List<Long> reputationDistribution; // user count per score 0..100, last bucket is 100+
+    private Integer freedomMedian;
+    private Integer securityMedian;
+    private Integer reputationMedian;
+    private LocalDateTime lastUpdated;
+}
\ No newline at end of file
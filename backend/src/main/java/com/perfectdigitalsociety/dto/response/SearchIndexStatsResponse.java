@@ -0,0 +1,18 @@
+package com.perfectdigitalsociety.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsResponse {
+    
+    private Integer indexedMessages;
+    private Integer terms;
+    private Long lastRebuildMillis;
+    private LocalDateTime lastRebuiltAt;
+}
\ No newline at end of file
@@ -16,4 +16,9 @@ public class SystemBalanceResponse {
     private Double balanceScore;
     private LocalDateTime lastUpdated;
     private String trend;
+    private Double freedomSlope;
+    private Double securitySlope;
+    private Double freedomVolatility;
+    private Double securityVolatility;
+    private Long version;
 }
\ No newline at end of file
@@ -17,5 +17,8 @@ public class UserBalanceResponse {
     private Integer securityScore;
     private Integer reputationScore;
     private Double balanceRatio;
+    private Double freedomPercentile; // percentile rank among active users
+    private Double securityPercentile;
+    private Double reputationPercentile;
     private LocalDateTime lastUpdated;
 }
\ No newline at end of file
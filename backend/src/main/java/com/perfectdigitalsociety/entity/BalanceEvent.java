@@ -10,7 +10,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "balance_events")
+@Table(name = "balance_events", indexes = {
+    @Index(name = "idx_balance_events_created_at_id", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +49,9 @@ public class BalanceEvent {
     @Column(name = "affected_users", columnDefinition = "TEXT")
     private String affectedUsers; // JSON array as string
     
+    @Column(name = "journal_sequence", unique = true)
+    private Long journalSequence; // set when written through the event journal
+    
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -11,11 +12,16 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_messages_user_created_at_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_messages_status_created_at_id", columnList = "moderation_status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate // entity saves must not overwrite flag_count, which is incremented in place by FlagAggregator
 public class Message {
     
     @Id
@@ -39,6 +45,9 @@ public class Message {
     @Column(name = "security_impact")
     private Integer securityImpact = 0;
     
+    @Column(name = "impact_applied")
+    private Boolean impactApplied = true; // false while the balance impact is queued
+    
     @Column(name = "flag_count")
     private Integer flagCount = 0;
     
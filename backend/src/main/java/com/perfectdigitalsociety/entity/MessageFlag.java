@@ -0,0 +1,36 @@
+package com.perfectdigitalsociety.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "message_flags",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"message_id", "user_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageFlag {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // flagging user, at most one flag per message
+    
+    @Column(nullable = false, length = 100)
+    private String reason;
+    
+    @Column(length = 500)
+    private String description;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
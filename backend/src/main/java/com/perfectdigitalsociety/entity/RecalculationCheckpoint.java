@@ -0,0 +1,39 @@
+package com.perfectdigitalsociety.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recalculation_checkpoints",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "partition_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+    
+    @Column(name = "partition_start", nullable = false)
+    private Long partitionStart; // first user id of the completed partition
+    
+    @Column(name = "partition_end", nullable = false)
+    private Long partitionEnd;
+    
+    @Column(name = "processed_users", nullable = false)
+    private Integer processedUsers;
+    
+    @Column(name = "updated_users", nullable = false)
+    private Integer updatedUsers;
+    
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
\ No newline at end of file
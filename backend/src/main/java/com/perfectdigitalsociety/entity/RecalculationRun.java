@@ -0,0 +1,64 @@
+package com.perfectdigitalsociety.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recalculation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+    
+    @Column(name = "min_user_id", nullable = false)
+    private Long minUserId;
+    
+    @Column(name = "max_user_id", nullable = false)
+    private Long maxUserId;
+    
+    @Column(name = "partition_size", nullable = false)
+    private Integer partitionSize;
+    
+    @Column(name = "total_partitions", nullable = false)
+    private Integer totalPartitions;
+    
+    @Column(name = "completed_partitions")
+    private Integer completedPartitions = 0;
+    
+    @Column(name = "processed_users")
+    private Long processedUsers = 0L;
+    
+    @Column(name = "updated_users")
+    private Long updatedUsers = 0L;
+    
+    @Column(name = "attempts")
+    private Integer attempts = 1; // executions of this run, including resumes
+    
+    @Column(name = "triggered_by", length = 100)
+    private String triggeredBy;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
\ No newline at end of file
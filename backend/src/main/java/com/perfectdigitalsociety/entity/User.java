@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -18,6 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate // only write changed columns, scores are also updated atomically in UserScoreRepository
 @Schema(description = "Kullanıcı varlığı - Sistemdeki tüm kullanıcıları temsil eder")
 public class User {
     
@@ -67,6 +69,11 @@ public class User {
     @Schema(description = "Hesap aktif durumu", example = "true")
     private Boolean isActive = true;
     
+    // Incremented by every statement that writes scores or activation, see UserScoreRepository
+    @Column(name = "score_version", nullable = false, columnDefinition = "bigint not null default 0")
+    @Schema(description = "Skor değişikliklerinin sürüm sayacı", hidden = true)
+    private Long scoreVersion = 0L;
+    
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     @Schema(description = "Hesap oluşturulma tarihi", example = "2024-01-15T10:30:00")
@@ -2,6 +2,7 @@ package com.perfectdigitalsociety.mapper;
 
 import com.perfectdigitalsociety.dto.response.MessageResponse;
 import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.repository.MessageRepository;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -23,6 +24,11 @@ public interface MessageMapper {
     @Mapping(target = "moderationStatus", expression = "java(message.getModerationStatus().toString())")
     MessageResponse toMessageResponse(Message message);
     
+    /**
+     * Convert a message listing row to MessageResponse DTO
+     */
+    MessageResponse toMessageResponse(MessageRepository.MessageView message);
+    
     /**
      * Convert list of Message entities to list of MessageResponse DTOs
      */
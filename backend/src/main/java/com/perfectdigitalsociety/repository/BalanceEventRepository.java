@@ -2,13 +2,17 @@ package com.perfectdigitalsociety.repository;
 
 import com.perfectdigitalsociety.entity.BalanceEvent;
 import com.perfectdigitalsociety.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BalanceEventRepository extends JpaRepository<BalanceEvent, Long> {
@@ -50,6 +54,28 @@ public interface BalanceEventRepository extends JpaRepository<BalanceEvent, Long
     @Query("SELECT be FROM BalanceEvent be ORDER BY be.createdAt DESC LIMIT :limit")
     List<BalanceEvent> findMostRecentEvents(@Param("limit") int limit);
     
+    @Query("SELECT be FROM BalanceEvent be LEFT JOIN FETCH be.triggeredBy WHERE be.createdAt >= :since " +
+           "ORDER BY be.createdAt DESC, be.id DESC LIMIT :limit")
+    List<BalanceEvent> findEventsSince(@Param("since") LocalDateTime since, @Param("limit") int limit);
+    
+    // Keyset pagination over (createdAt, id); the first page starts after (from, 0)
+    @Query("SELECT be FROM BalanceEvent be LEFT JOIN FETCH be.triggeredBy WHERE be.createdAt < :to " +
+           "AND (be.createdAt > :afterCreatedAt OR (be.createdAt = :afterCreatedAt AND be.id > :afterId)) " +
+           "ORDER BY be.createdAt, be.id LIMIT :limit")
+    List<BalanceEvent> findPageInRange(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") long afterId,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("limit") int limit);
+    
+    // Export: read-only rows streamed through a server-side cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT be FROM BalanceEvent be LEFT JOIN FETCH be.triggeredBy " +
+           "WHERE be.createdAt >= :from AND be.createdAt < :to ORDER BY be.createdAt, be.id")
+    Stream<BalanceEvent> streamByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     @Query("SELECT COUNT(be) FROM BalanceEvent be WHERE be.triggerType = :type")
     Long countByTriggerType(@Param("type") BalanceEvent.TriggerType type);
     
@@ -0,0 +1,75 @@
+package com.perfectdigitalsociety.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Time-bucketed aggregates over balance_events, computed by the database
+ * with date_trunc over the created_at index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceTrendRepository {
+    
+    private static final String BUCKETS_SQL =
+        "SELECT date_trunc(?, created_at) AS bucket_start, trigger_type, COUNT(*) AS event_count, " +
+        "SUM(new_freedom_level) AS freedom_sum, COUNT(new_freedom_level) AS freedom_count, " +
+        "SUM(new_security_level) AS security_sum, COUNT(new_security_level) AS security_count " +
+        "FROM balance_events WHERE created_at >= ? AND created_at < ? " +
+        "GROUP BY 1, 2 ORDER BY 1, 2";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Event counts and level sums per bucket and trigger type within [from, to)
+     */
+    public List<BucketRow> findBuckets(BucketUnit unit, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(BUCKETS_SQL, (rs, rowNum) -> new BucketRow(
+                rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getString("trigger_type"),
+                rs.getLong("event_count"),
+                rs.getLong("freedom_sum"),
+                rs.getLong("freedom_count"),
+                rs.getLong("security_sum"),
+                rs.getLong("security_count")),
+            unit.getField(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+    
+    /**
+     * Aggregates of one trigger type within one bucket
+     */
+    public record BucketRow(LocalDateTime bucketStart, String triggerType, long eventCount,
+                            long freedomSum, long freedomCount, long securitySum, long securityCount) {
+    }
+    
+    /**
+     * Supported bucket sizes, named after the date_trunc field
+     */
+    public enum BucketUnit {
+        MINUTE("minute", Duration.ofMinutes(1)),
+        HOUR("hour", Duration.ofHours(1)),
+        DAY("day", Duration.ofDays(1));
+        
+        private final String field;
+        private final Duration duration;
+        
+        BucketUnit(String field, Duration duration) {
+            this.field = field;
+            this.duration = duration;
+        }
+        
+        public String getField() {
+            return field;
+        }
+        
+        public Duration getDuration() {
+            return duration;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.perfectdigitalsociety.repository;
+
+import com.perfectdigitalsociety.entity.MessageFlag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MessageFlagRepository extends JpaRepository<MessageFlag, Long> {
+    
+    // Records the flag unless the user already flagged the message; returns 1 for a new flag, 0 for a repeat
+    @Modifying
+    @Query(value = "INSERT INTO message_flags (message_id, user_id, reason, description, created_at) " +
+                   "VALUES (:messageId, :userId, :reason, :description, :createdAt) " +
+                   "ON CONFLICT (message_id, user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("messageId") Long messageId,
+                       @Param("userId") Long userId,
+                       @Param("reason") String reason,
+                       @Param("description") String description,
+                       @Param("createdAt") LocalDateTime createdAt);
+}
\ No newline at end of file
@@ -2,13 +2,21 @@ package com.perfectdigitalsociety.repository;
 
 import com.perfectdigitalsociety.entity.Message;
 import com.perfectdigitalsociety.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -28,6 +36,12 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.flagCount > 0 ORDER BY m.flagCount DESC")
     List<Message> findAllFlaggedMessages();
     
+    // Flagged messages whose moderation would still change if they were set to the given status and visibility
+    @Query("SELECT m.id FROM Message m WHERE m.flagCount > 0 " +
+           "AND (m.moderationStatus <> :status OR m.isVisible <> :visible) ORDER BY m.id")
+    List<Long> findFlaggedMessageIdsNotIn(@Param("status") Message.ModerationStatus status,
+                                          @Param("visible") boolean visible);
+    
     @Query("SELECT m FROM Message m WHERE m.flagCount >= :threshold")
     List<Message> findMessagesByFlagThreshold(@Param("threshold") Integer threshold);
     
@@ -46,6 +60,134 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.user.id = :userId AND m.isVisible = true ORDER BY m.createdAt DESC")
     List<Message> findVisibleMessagesByUser(@Param("userId") Long userId);
     
+    // Read-side listings: response-shaped rows joined to users in a single statement
+    
+    /**
+     * Message row with its author's id and username
+     */
+    interface MessageView {
+        String SELECT = "SELECT m.id AS id, u.id AS userId, u.username AS username, m.content AS content, " +
+                        "m.messageType AS messageType, m.freedomImpact AS freedomImpact, " +
+                        "m.securityImpact AS securityImpact, m.flagCount AS flagCount, m.isVisible AS isVisible, " +
+                        "m.moderationStatus AS moderationStatus, m.createdAt AS createdAt, m.updatedAt AS updatedAt " +
+                        "FROM Message m JOIN m.user u ";
+        
+        Long getId();
+        Long getUserId();
+        String getUsername();
+        String getContent();
+        Message.MessageType getMessageType();
+        Integer getFreedomImpact();
+        Integer getSecurityImpact();
+        Integer getFlagCount();
+        Boolean getIsVisible();
+        Message.ModerationStatus getModerationStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+    
+    // Keyset pages, newest first, continuing strictly before (beforeCreatedAt, beforeId)
+    @Query(MessageView.SELECT + "WHERE m.isVisible = true " +
+           "AND (m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC LIMIT :limit")
+    List<MessageView> findVisiblePage(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                  @Param("beforeId") long beforeId,
+                                  @Param("limit") int limit);
+    
+    @Query(MessageView.SELECT + "WHERE u.id = :userId AND m.isVisible = true " +
+           "AND (m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC LIMIT :limit")
+    List<MessageView> findVisiblePageByUser(@Param("userId") Long userId,
+                                        @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                        @Param("beforeId") long beforeId,
+                                        @Param("limit") int limit);
+    
+    @Query(MessageView.SELECT + "WHERE m.flagCount > 0 " +
+           "AND (m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC LIMIT :limit")
+    List<MessageView> findFlaggedPage(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                  @Param("beforeId") long beforeId,
+                                  @Param("limit") int limit);
+    
+    @Query(MessageView.SELECT + "WHERE m.moderationStatus = :status " +
+           "AND (m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC LIMIT :limit")
+    List<MessageView> findPageByModerationStatus(@Param("status") Message.ModerationStatus status,
+                                             @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                             @Param("beforeId") long beforeId,
+                                             @Param("limit") int limit);
+    
+    @Query(MessageView.SELECT + "WHERE m.id IN :ids")
+    List<MessageView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Set-based moderation of many messages; only moderation columns are written, and only on rows whose
+    // moderation changes. A concurrent request waits for the row lock and then finds nothing left to change.
+    @Query(value = "UPDATE messages SET moderation_status = :status, is_visible = :visible, updated_at = :updatedAt " +
+                   "WHERE id IN (:ids) AND (moderation_status IS DISTINCT FROM :status OR is_visible IS DISTINCT FROM :visible) " +
+                   "RETURNING id AS \"id\", user_id AS \"userId\"",
+           nativeQuery = true)
+    List<ModeratedRow> updateModerationStatus(@Param("ids") Collection<Long> ids,
+                                              @Param("status") String status,
+                                              @Param("visible") boolean visible,
+                                              @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Export: read-only rows streamed through a server-side cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Message m JOIN FETCH m.user WHERE m.createdAt >= :from AND m.createdAt < :to " +
+           "ORDER BY m.createdAt, m.id")
+    Stream<Message> streamByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Search index rebuild, loaded in id-range chunks
+    @Query("SELECT MIN(m.id) AS minId, MAX(m.id) AS maxId FROM Message m")
+    IdRange getMessageIdRange();
+    
+    @Query("SELECT m.id AS id, m.content AS content FROM Message m " +
+           "WHERE m.isVisible = true AND m.id BETWEEN :fromId AND :toId")
+    List<SearchRow> findSearchRowsInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    /**
+     * Lowest and highest message id
+     */
+    interface IdRange {
+        Long getMinId();
+        Long getMaxId();
+    }
+    
+    /**
+     * Content of a visible message to index
+     */
+    interface SearchRow {
+        Long getId();
+        String getContent();
+    }
+    
+    @Query("SELECT m.id AS id, m.flagCount AS flagCount, u.reputationScore AS authorReputation, m.createdAt AS createdAt " +
+           "FROM Message m JOIN m.user u " +
+           "WHERE m.moderationStatus = 'PENDING' AND m.isVisible = true AND m.id > :afterId " +
+           "ORDER BY m.id LIMIT :limit")
+    List<ModerationRow> findModerationRowsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+    
+    /**
+     * Message whose moderation was changed, with its author
+     */
+    interface ModeratedRow {
+        Long getId();
+        Long getUserId();
+    }
+    
+    /**
+     * Priority inputs of a message awaiting moderation
+     */
+    interface ModerationRow {
+        Long getId();
+        Integer getFlagCount();
+        Integer getAuthorReputation();
+        LocalDateTime getCreatedAt();
+    }
+    
     @Query("SELECT m FROM Message m WHERE m.content LIKE %:keyword% AND m.isVisible = true")
     List<Message> findByContentContaining(@Param("keyword") String keyword);
     
@@ -55,9 +197,41 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.user.id = :userId")
     Long countMessagesByUser(@Param("userId") Long userId);
     
+    @Query("SELECT m.user.id AS userId, COUNT(m) AS messageCount FROM Message m " +
+           "WHERE m.user.id BETWEEN :fromId AND :toId GROUP BY m.user.id")
+    List<UserMessageCount> countMessagesByUserInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    /**
+     * Number of messages written by a user
+     */
+    interface UserMessageCount {
+        Long getUserId();
+        Long getMessageCount();
+    }
+    
     @Query("SELECT COUNT(m) FROM Message m WHERE m.flagCount > 0")
     Long countFlaggedMessages();
     
+    @Query("SELECT m.user.id FROM Message m GROUP BY m.user.id HAVING SUM(m.flagCount) > COUNT(m) * 0.5")
+    List<Long> findUserIdsWithHighFlagRate();
+    
+    // Balance impact queue
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Message m WHERE m.id IN :ids AND m.impactApplied = false")
+    List<Message> findUnappliedImpactsForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT m.id AS id, m.user.id AS userId FROM Message m " +
+           "WHERE m.impactApplied = false AND m.id > :afterId ORDER BY m.id")
+    List<PendingImpactRow> findPendingImpacts(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Message whose balance impact has not been applied yet
+     */
+    interface PendingImpactRow {
+        Long getId();
+        Long getUserId();
+    }
+    
     @Query("SELECT SUM(m.freedomImpact) FROM Message m WHERE m.user.id = :userId")
     Integer getTotalFreedomImpactByUser(@Param("userId") Long userId);
     
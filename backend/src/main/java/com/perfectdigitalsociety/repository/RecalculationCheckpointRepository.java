@@ -0,0 +1,29 @@
+package com.perfectdigitalsociety.repository;
+
+import com.perfectdigitalsociety.entity.RecalculationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecalculationCheckpointRepository extends JpaRepository<RecalculationCheckpoint, Long> {
+    
+    @Query("SELECT c.partitionStart FROM RecalculationCheckpoint c WHERE c.runId = :runId")
+    List<Long> findPartitionStartsByRunId(@Param("runId") Long runId);
+    
+    @Query("SELECT COUNT(c) AS partitions, COALESCE(SUM(c.processedUsers), 0L) AS processedUsers, " +
+           "COALESCE(SUM(c.updatedUsers), 0L) AS updatedUsers FROM RecalculationCheckpoint c WHERE c.runId = :runId")
+    CheckpointTotals getTotalsByRunId(@Param("runId") Long runId);
+    
+    /**
+     * Progress of a run summed over its completed partitions
+     */
+    interface CheckpointTotals {
+        Long getPartitions();
+        Long getProcessedUsers();
+        Long getUpdatedUsers();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.perfectdigitalsociety.repository;
+
+import com.perfectdigitalsociety.entity.RecalculationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RecalculationRunRepository extends JpaRepository<RecalculationRun, Long> {
+    
+    Optional<RecalculationRun> findFirstByOrderByIdDesc();
+}
\ No newline at end of file
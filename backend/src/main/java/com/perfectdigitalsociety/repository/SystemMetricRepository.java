@@ -35,6 +35,9 @@ public interface SystemMetricRepository extends JpaRepository<SystemMetric, Long
     @Query("SELECT sm FROM SystemMetric sm WHERE sm.metricName = :name ORDER BY sm.recordedAt DESC LIMIT 1")
     Optional<SystemMetric> findLatestByMetricName(@Param("name") String metricName);
     
+    @Query("SELECT sm FROM SystemMetric sm WHERE sm.metricName = :name ORDER BY sm.recordedAt DESC LIMIT :limit")
+    List<SystemMetric> findRecentByMetricName(@Param("name") String metricName, @Param("limit") int limit);
+    
     @Query("SELECT sm FROM SystemMetric sm WHERE sm.metricType = :type ORDER BY sm.recordedAt DESC LIMIT 1")
     Optional<SystemMetric> findLatestByMetricType(@Param("type") SystemMetric.MetricType type);
     
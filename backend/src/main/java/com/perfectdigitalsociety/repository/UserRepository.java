@@ -1,12 +1,16 @@
 package com.perfectdigitalsociety.repository;
 
 import com.perfectdigitalsociety.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,7 +60,112 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT AVG(u.reputationScore) FROM User u WHERE u.isActive = true")
     Double getAverageReputationScore();
     
+    @Query("SELECT MIN(u.id) AS minId, MAX(u.id) AS maxId FROM User u")
+    IdRange getUserIdRange();
+    
+    // Set-based score updates, applied in id-range chunks; only rows that actually change are written.
+    // The new scores and score version of the changed rows are returned so in-memory copies can take
+    // them as committed.
+    String SCORE_ROW_RETURNING = "RETURNING id AS \"id\", freedom_score AS \"freedomScore\", " +
+                                 "security_score AS \"securityScore\", reputation_score AS \"reputationScore\", " +
+                                 "is_active AS \"active\", score_version AS \"scoreVersion\"";
+    
+    @Query(value = "UPDATE users SET " +
+                   "freedom_score = LEAST(100, GREATEST(0, freedom_score + :freedomDelta)), " +
+                   "security_score = LEAST(100, GREATEST(0, security_score + :securityDelta)), " +
+                   "score_version = score_version + 1 " +
+                   "WHERE is_active = true AND id BETWEEN :fromId AND :toId " +
+                   "AND (freedom_score IS DISTINCT FROM LEAST(100, GREATEST(0, freedom_score + :freedomDelta)) " +
+                   "OR security_score IS DISTINCT FROM LEAST(100, GREATEST(0, security_score + :securityDelta))) " +
+                   SCORE_ROW_RETURNING,
+           nativeQuery = true)
+    List<ScoreRow> adjustActiveScoresInRange(@Param("freedomDelta") int freedomDelta,
+                                             @Param("securityDelta") int securityDelta,
+                                             @Param("fromId") long fromId,
+                                             @Param("toId") long toId);
+    
+    @Query(value = "UPDATE users SET freedom_score = :freedomScore, security_score = :securityScore, " +
+                   "score_version = score_version + 1 " +
+                   "WHERE is_active = true AND id BETWEEN :fromId AND :toId " +
+                   "AND (freedom_score IS DISTINCT FROM :freedomScore OR security_score IS DISTINCT FROM :securityScore) " +
+                   SCORE_ROW_RETURNING,
+           nativeQuery = true)
+    List<ScoreRow> resetActiveScoresInRange(@Param("freedomScore") int freedomScore,
+                                            @Param("securityScore") int securityScore,
+                                            @Param("fromId") long fromId,
+                                            @Param("toId") long toId);
+    
+    @Query(value = "UPDATE users SET freedom_score = :freedomScore, security_score = :securityScore, " +
+                   "reputation_score = :reputationScore, score_version = score_version + 1 " +
+                   "WHERE id BETWEEN :fromId AND :toId " +
+                   "AND (freedom_score IS DISTINCT FROM :freedomScore OR security_score IS DISTINCT FROM :securityScore " +
+                   "OR reputation_score IS DISTINCT FROM :reputationScore) " +
+                   SCORE_ROW_RETURNING,
+           nativeQuery = true)
+    List<ScoreRow> resetAllScoresInRange(@Param("freedomScore") int freedomScore,
+                                         @Param("securityScore") int securityScore,
+                                         @Param("reputationScore") int reputationScore,
+                                         @Param("fromId") long fromId,
+                                         @Param("toId") long toId);
+    
+    /**
+     * Stamp scores or activation written through the entity with a new score version, in the
+     * writing transaction; the rows keep their lock until it ends, so the result is what commits
+     */
+    @Transactional
+    @Query(value = "UPDATE users SET score_version = score_version + 1 WHERE id IN :ids " + SCORE_ROW_RETURNING,
+           nativeQuery = true)
+    List<ScoreRow> stampScoreVersions(@Param("ids") Collection<Long> ids);
+    
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u.id AS id, u.freedomScore AS freedomScore, u.securityScore AS securityScore, " +
+           "u.reputationScore AS reputationScore, u.isActive AS active, u.scoreVersion AS scoreVersion " +
+           "FROM User u WHERE u.id BETWEEN :fromId AND :toId")
+    List<ScoreRow> findScoreRowsInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    /**
+     * Scores of a single user without loading the entity
+     */
+    interface ScoreRow {
+        Long getId();
+        Integer getFreedomScore();
+        Integer getSecurityScore();
+        Integer getReputationScore();
+        Boolean getActive();
+        Long getScoreVersion();
+    }
+    
+    @Query("SELECT u.id AS id, u.freedomScore AS freedomScore, u.securityScore AS securityScore, " +
+           "u.reputationScore AS reputationScore, u.isActive AS active, u.scoreVersion AS scoreVersion, " +
+           "u.createdAt AS createdAt " +
+           "FROM User u WHERE u.id BETWEEN :fromId AND :toId")
+    List<RecalculationRow> findRecalculationRowsInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    /**
+     * Recalculation inputs of the given users, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id AS id, u.freedomScore AS freedomScore, u.securityScore AS securityScore, " +
+           "u.reputationScore AS reputationScore, u.isActive AS active, u.scoreVersion AS scoreVersion, " +
+           "u.createdAt AS createdAt " +
+           "FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<RecalculationRow> findRecalculationRowsForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Inputs of a balance recalculation without loading the entity
+     */
+    interface RecalculationRow extends ScoreRow {
+        LocalDateTime getCreatedAt();
+    }
+    
+    /**
+     * Lowest and highest user id
+     */
+    interface IdRange {
+        Long getMinId();
+        Long getMaxId();
+    }
 }
\ No newline at end of file
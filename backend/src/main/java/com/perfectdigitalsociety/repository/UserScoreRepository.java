@@ -0,0 +1,116 @@
+package com.perfectdigitalsociety.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Atomic score mutations executed as single clamped UPDATE statements.
+ * The row is locked only for the duration of the statement and the previous and
+ * new scores are returned from the same statement, so concurrent changes to the
+ * same user are never lost and no read-modify-write happens in the application.
+ * Every write increments the row's score version; row locks order the writes to a
+ * row, so a higher version is always the later committed state of that user.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserScoreRepository {
+    
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE users u SET " +
+        "freedom_score = LEAST(100, GREATEST(0, COALESCE(u.freedom_score, 0) + ?)), " +
+        "security_score = LEAST(100, GREATEST(0, COALESCE(u.security_score, 0) + ?)), " +
+        "score_version = u.score_version + 1 " +
+        "FROM (SELECT id, freedom_score, security_score FROM users WHERE id = ? FOR UPDATE) previous " +
+        "WHERE u.id = previous.id " +
+        "RETURNING u.id, previous.freedom_score AS previous_freedom, previous.security_score AS previous_security, " +
+        "u.freedom_score, u.security_score, u.reputation_score, u.is_active, u.score_version";
+    
+    // Same as APPLY_DELTA_SQL for many users at once; rows are locked in id order to avoid deadlocks
+    private static final String APPLY_DELTAS_SQL =
+        "UPDATE users u SET " +
+        "freedom_score = LEAST(100, GREATEST(0, COALESCE(u.freedom_score, 0) + d.freedom_delta)), " +
+        "security_score = LEAST(100, GREATEST(0, COALESCE(u.security_score, 0) + d.security_delta)), " +
+        "score_version = u.score_version + 1 " +
+        "FROM unnest(?::bigint[], ?::int[], ?::int[]) AS d(id, freedom_delta, security_delta), " +
+        "(SELECT id, freedom_score, security_score FROM users WHERE id = ANY(?::bigint[]) ORDER BY id FOR UPDATE) previous " +
+        "WHERE u.id = d.id AND u.id = previous.id " +
+        "RETURNING u.id, previous.freedom_score AS previous_freedom, previous.security_score AS previous_security, " +
+        "u.freedom_score, u.security_score, u.reputation_score, u.is_active, u.score_version";
+    
+    // Compare-and-set of recalculated scores; matches nothing if the scores changed since they were read
+    private static final String REPLACE_SCORES_SQL =
+        "UPDATE users SET freedom_score = ?, security_score = ?, reputation_score = ?, " +
+        "score_version = score_version + 1 WHERE id = ? AND score_version = ? " +
+        "AND freedom_score IS NOT DISTINCT FROM ? AND security_score IS NOT DISTINCT FROM ? " +
+        "AND reputation_score IS NOT DISTINCT FROM ?";
+    
+    private static final RowMapper<ScoreChange> SCORE_CHANGE_MAPPER = (rs, rowNum) -> new ScoreChange(
+        rs.getLong("id"),
+        rs.getInt("previous_freedom"),
+        rs.getInt("previous_security"),
+        rs.getInt("freedom_score"),
+        rs.getInt("security_score"),
+        rs.getInt("reputation_score"),
+        rs.getBoolean("is_active"),
+        rs.getLong("score_version"));
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Add clamped deltas to a user's freedom and security scores
+     * @return previous and new scores, empty if the user does not exist
+     */
+    public Optional<ScoreChange> applyDelta(long userId, int freedomDelta, int securityDelta) {
+        List<ScoreChange> changes = jdbcTemplate.query(APPLY_DELTA_SQL, SCORE_CHANGE_MAPPER,
+            freedomDelta, securityDelta, userId);
+        return changes.stream().findFirst();
+    }
+    
+    /**
+     * Add clamped deltas to the scores of many users in a single statement; user ids must be distinct
+     * @return previous and new scores of the users that exist
+     */
+    public List<ScoreChange> applyDeltas(Long[] userIds, Integer[] freedomDeltas, Integer[] securityDeltas) {
+        if (userIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_DELTAS_SQL);
+            Array ids = connection.createArrayOf("bigint", userIds);
+            statement.setArray(1, ids);
+            statement.setArray(2, connection.createArrayOf("integer", freedomDeltas));
+            statement.setArray(3, connection.createArrayOf("integer", securityDeltas));
+            statement.setArray(4, ids);
+            return statement;
+        }, SCORE_CHANGE_MAPPER);
+    }
+    
+    /**
+     * Replace a user's scores only if they are still the version the new scores were calculated from;
+     * the written scores then have the next score version
+     * @return false if the scores changed concurrently and nothing was written
+     */
+    public boolean replaceScores(UserRepository.ScoreRow expected, int freedom, int security, int reputation) {
+        return jdbcTemplate.update(REPLACE_SCORES_SQL, freedom, security, reputation, expected.getId(),
+            expected.getScoreVersion(),
+            new SqlParameterValue(Types.INTEGER, expected.getFreedomScore()),
+            new SqlParameterValue(Types.INTEGER, expected.getSecurityScore()),
+            new SqlParameterValue(Types.INTEGER, expected.getReputationScore())) > 0;
+    }
+    
+    /**
+     * Scores of a user before and after an atomic update
+     */
+    public record ScoreChange(long userId, int previousFreedom, int previousSecurity,
+                              int newFreedom, int newSecurity, int reputation, boolean active, long version) {
+    }
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.perfectdigitalsociety.service;
 
 import com.perfectdigitalsociety.dto.request.AdjustBalanceRequest;
+import com.perfectdigitalsociety.dto.request.ModerationDecision;
+import com.perfectdigitalsociety.dto.request.SimulateRebalanceRequest;
 import com.perfectdigitalsociety.dto.request.UpdateStatusRequest;
 import com.perfectdigitalsociety.dto.response.*;
+import com.perfectdigitalsociety.entity.BalanceEvent;
+import com.perfectdigitalsociety.entity.Message;
 import com.perfectdigitalsociety.entity.SystemMetric;
 import com.perfectdigitalsociety.entity.User;
 import com.perfectdigitalsociety.exception.UnauthorizedException;
@@ -15,11 +19,15 @@ import com.perfectdigitalsociety.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +35,8 @@ import java.util.List;
 @Transactional
 public class AdminService {
     
+    private static final int MASS_MODERATION_BATCH_SIZE = 500;
+    
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
     private final BalanceEventRepository balanceEventRepository;
@@ -34,6 +44,18 @@ public class AdminService {
     private final UserMapper userMapper;
     private final BalanceService balanceService;
     private final CommunityService communityService;
+    private final SystemBalanceAggregator systemBalanceAggregator;
+    private final BulkScoreUpdater bulkScoreUpdater;
+    private final ScoreStore scoreStore;
+    private final BalanceImpactQueue balanceImpactQueue;
+    private final RebalanceCoordinator rebalanceCoordinator;
+    private final BalanceEventJournal balanceEventJournal;
+    private final RebalanceSimulator rebalanceSimulator;
+    private final BalanceRecalculationJob balanceRecalculationJob;
+    private final MessageImpactAnalyzer messageImpactAnalyzer;
+    private final MessageSearchIndex messageSearchIndex;
+    private final MessageFeedCache messageFeedCache;
+    private final MessageService messageService;
     
     // Business Logic Methods as specified in documentation
     
@@ -70,8 +92,9 @@ public class AdminService {
         SystemBalanceResponse systemBalance = balanceService.calculateSystemBalance();
         
         // Calculate average user balance
-        Double avgFreedom = userRepository.getAverageFreedomScore();
-        Double avgSecurity = userRepository.getAverageSecurityScore();
+        ScoreStore.ActiveStats activeStats = scoreStore.activeStats();
+        Double avgFreedom = activeStats.averageFreedom();
+        Double avgSecurity = activeStats.averageSecurity();
         Double averageUserBalance = (avgFreedom != null && avgSecurity != null) ? 
             (avgFreedom + avgSecurity) / 2 : 50.0;
         
@@ -105,8 +128,11 @@ public class AdminService {
     }
     
     /**
-     * Emergency actions (admin function)
+     * Emergency actions (admin function).
+     * Runs without a transaction: bulk score updates commit chunk by chunk and mass moderation
+     * batch by batch, and an outer transaction would pin a second connection for the whole run.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StatusResponse emergencyActions(Long adminId, String action, String reason) {
         log.info("Admin ID: {} triggering emergency action: {} with reason: {}", adminId, action, reason);
 
@@ -115,7 +141,7 @@ public class AdminService {
         switch (action.toUpperCase()) {
             case "SYSTEM_LOCKDOWN" -> performSystemLockdown(reason);
             case "EMERGENCY_REBALANCE" -> performEmergencyRebalance(reason);
-            case "MASS_MODERATION" -> performMassModeration(reason);
+            case "MASS_MODERATION" -> performMassModeration(adminId, reason);
             case "RESET_SYSTEM_BALANCE" -> performSystemBalanceReset(reason);
             default -> throw new IllegalArgumentException("Unknown emergency action: " + action);
         }
@@ -165,6 +191,7 @@ public class AdminService {
         }
         
         userRepository.save(user);
+        scoreStore.update(user);
         
         return new StatusResponse(true, "User status updated successfully", LocalDateTime.now());
     }
@@ -192,13 +219,91 @@ public class AdminService {
         
         validateAdminAccess(adminId);
         
-        return userRepository.findAll()
+        return userRepository.findAllById(findSuspiciousUserIds())
             .stream()
-            .filter(this::isSuspiciousUser)
             .map(this::toAdminUserResponse)
             .toList();
     }
     
+    public ImpactQueueStatsResponse getImpactQueueStats(Long adminId) {
+        log.info("Admin ID: {} requesting balance impact queue statistics", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return balanceImpactQueue.getStats();
+    }
+    
+    public RebalanceStatsResponse getRebalanceStats(Long adminId) {
+        log.info("Admin ID: {} requesting rebalancing statistics", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return rebalanceCoordinator.getStats();
+    }
+    
+    @Transactional(readOnly = true)
+    public RebalanceSimulationResponse simulateRebalance(Long adminId, SimulateRebalanceRequest request) {
+        log.info("Admin ID: {} simulating rebalance - Mode: {}", adminId, request.getMode());
+        
+        validateAdminAccess(adminId);
+        
+        return rebalanceSimulator.simulate(request);
+    }
+    
+    public RecalculationStatusResponse startBalanceRecalculation(Long adminId, boolean resume) {
+        log.info("Admin ID: {} starting balance recalculation of all users", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return balanceRecalculationJob.start("admin:" + adminId, resume);
+    }
+    
+    @Transactional(readOnly = true)
+    public RecalculationStatusResponse getBalanceRecalculationStatus(Long adminId) {
+        log.info("Admin ID: {} requesting balance recalculation status", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return balanceRecalculationJob.getStatus();
+    }
+    
+    public ImpactDictionaryResponse reloadImpactDictionary(Long adminId) throws IOException {
+        log.info("Admin ID: {} reloading impact dictionary", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return messageImpactAnalyzer.reload();
+    }
+    
+    @Transactional(readOnly = true)
+    public ImpactDictionaryResponse getImpactDictionary(Long adminId) {
+        log.info("Admin ID: {} requesting impact dictionary info", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return messageImpactAnalyzer.getDictionaryInfo();
+    }
+    
+    @Transactional(readOnly = true)
+    public FeedCacheStatsResponse getFeedCacheStats(Long adminId) {
+        log.info("Admin ID: {} requesting feed cache stats", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        return messageFeedCache.getStats();
+    }
+    
+    public SearchIndexStatsResponse rebuildSearchIndex(Long adminId) {
+        log.info("Admin ID: {} rebuilding message search index", adminId);
+        
+        validateAdminAccess(adminId);
+        
+        MessageSearchIndex.Stats stats = messageSearchIndex.rebuild();
+        return new SearchIndexStatsResponse(stats.documents(), stats.terms(), stats.lastRebuildMillis(), stats.lastRebuiltAt());
+    }
+    
+    // No transaction: the rebalancing run commits its bulk score update chunk by chunk
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void performSystemMaintenance(Long adminId) {
         log.info("Admin ID: {} performing system maintenance", adminId);
 
@@ -213,7 +318,7 @@ public class AdminService {
         communityService.evaluateRuleEffectiveness();
         
         // Perform automatic rebalancing
-        balanceService.performAutomaticRebalancing();
+        rebalanceCoordinator.runNow("System maintenance");
         
         log.info("System maintenance completed");
     }
@@ -289,19 +394,17 @@ public class AdminService {
         return toAdminUserResponse(user);
     }
 
-    private boolean isSuspiciousUser(User user) {
-        // Define criteria for suspicious users
-        if (!user.getIsActive()) return false;
-
-        Long messageCount = messageRepository.countMessagesByUser(user.getId());
-        Integer totalFlags = user.getMessages() != null ? 
-            user.getMessages().stream().mapToInt(message -> message.getFlagCount()).sum() : 0;
+    private Set<Long> findSuspiciousUserIds() {
+        // Suspicious if extreme scores (scanned in the score store)
+        Set<Long> userIds = new TreeSet<>(scoreStore.findActiveUserIds((freedom, security, reputation) ->
+            freedom < 10 || security < 10 || reputation < -50));
         
-        // Suspicious if high flag rate or extreme scores
-        return (messageCount > 0 && totalFlags > messageCount * 0.5) || 
-               user.getFreedomScore() < 10 || 
-               user.getSecurityScore() < 10 ||
-               user.getReputationScore() < -50;
+        // ...or high flag rate among active users
+        messageRepository.findUserIdsWithHighFlagRate().stream()
+            .filter(userId -> scoreStore.get(userId).map(ScoreStore.Scores::active).orElse(false))
+            .forEach(userIds::add);
+        
+        return userIds;
     }
     
     private void performSystemLockdown(String reason) {
@@ -315,7 +418,9 @@ public class AdminService {
             user.setIsActive(false);
         }
         
+        // Saved in one transaction of its own; the score store follows once it has committed
         userRepository.saveAll(nonAdminUsers);
+        scoreStore.update(nonAdminUsers);
 
         // Log the emergency action
         balanceService.adjustBalance(1L, 0, 0, "EMERGENCY: System lockdown - " + reason);
@@ -324,42 +429,59 @@ public class AdminService {
     private void performEmergencyRebalance(String reason) {
         log.warn("EMERGENCY REBALANCE initiated: {}", reason);
         
-        // Reset all user scores to default
-        List<User> allUsers = userRepository.findAllActiveUsers();
-        for (User user : allUsers) {
-            user.setFreedomScore(50);
-            user.setSecurityScore(50);
-        }
-        
-        userRepository.saveAll(allUsers);
+        // Reset all active user scores to default
+        SystemBalanceAggregator.Totals previousTotals = systemBalanceAggregator.getTotals();
+        int affectedCount = bulkScoreUpdater.resetActiveScores(50, 50);
+        recordEmergencyEvent("EMERGENCY: Rebalance - " + reason, previousTotals, affectedCount);
 
         // Trigger system rebalancing
-        balanceService.performAutomaticRebalancing();
+        rebalanceCoordinator.runNow("Emergency rebalance");
     }
     
-    private void performMassModeration(String reason) {
+    private void performMassModeration(Long adminId, String reason) {
         log.warn("MASS MODERATION initiated: {}", reason);
         
-        // Hide all flagged messages
-        messageRepository.findAllFlaggedMessages()
-            .forEach(message -> {
-                message.setIsVisible(false);
-                message.setModerationStatus(com.perfectdigitalsociety.entity.Message.ModerationStatus.REJECTED);
-            });
+        // Reject and hide all flagged messages through bulk moderation, so caches, search, the
+        // moderation queue and live subscribers follow; as an emergency it overrides moderators'
+        // claims and, as before, leaves author balances unchanged
+        List<ModerationDecision> decisions = messageRepository
+            .findFlaggedMessageIdsNotIn(Message.ModerationStatus.REJECTED, false)
+            .stream()
+            .map(messageId -> new ModerationDecision(messageId, Message.ModerationStatus.REJECTED))
+            .toList();
+        
+        int applied = 0;
+        for (int from = 0; from < decisions.size(); from += MASS_MODERATION_BATCH_SIZE) {
+            List<ModerationDecision> batch = decisions.subList(from, Math.min(decisions.size(), from + MASS_MODERATION_BATCH_SIZE));
+            applied += messageService.moderateMessages(adminId, batch, true).getApplied();
+        }
+        
+        log.warn("MASS MODERATION completed - {} of {} flagged messages rejected", applied, decisions.size());
     }
     
     private void performSystemBalanceReset(String reason) {
         log.warn("SYSTEM BALANCE RESET initiated: {}", reason);
         
         // Reset system to default balanced state
-        List<User> allUsers = userRepository.findAll();
-        for (User user : allUsers) {
-            user.setFreedomScore(50);
-            user.setSecurityScore(50);
-            user.setReputationScore(0);
-        }
-        
-        userRepository.saveAll(allUsers);
+        SystemBalanceAggregator.Totals previousTotals = systemBalanceAggregator.getTotals();
+        int affectedCount = bulkScoreUpdater.resetAllScores(50, 50, 0);
+        recordEmergencyEvent("EMERGENCY: System balance reset - " + reason, previousTotals, affectedCount);
+    }
+    
+    private void recordEmergencyEvent(String description, SystemBalanceAggregator.Totals previousTotals, int affectedCount) {
+        SystemBalanceAggregator.Totals newTotals = systemBalanceAggregator.getTotals();
+        
+        BalanceEvent event = new BalanceEvent();
+        event.setTriggerType(BalanceEvent.TriggerType.ADMIN_MANUAL);
+        event.setEventDescription(BulkScoreUpdater.describeAffected(description, affectedCount));
+        event.setPreviousFreedomLevel((int) Math.round(previousTotals.averageFreedom()));
+        event.setNewFreedomLevel((int) Math.round(newTotals.averageFreedom()));
+        event.setPreviousSecurityLevel((int) Math.round(previousTotals.averageSecurity()));
+        event.setNewSecurityLevel((int) Math.round(newTotals.averageSecurity()));
+        event.setAffectedUsers("all");
+        balanceEventJournal.record(event);
+        
+        log.warn("{} - {} users affected", description, affectedCount);
     }
 
     public User getUserById(Long adminId, Long userId) {
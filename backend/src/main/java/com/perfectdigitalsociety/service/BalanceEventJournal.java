@@ -0,0 +1,663 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.entity.BalanceEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind journal for balance events.
+ * Events are appended to a memory-mapped, append-only file inside the caller's
+ * transaction, before it commits, and a background drainer inserts them into
+ * balance_events in JDBC batches. A record starts out pending and is marked
+ * committed or aborted by the transaction's completion callback, without a database
+ * round trip; only committed records are drained. The drainer skips records whose
+ * transaction is still open and marks the ones it inserted as drained, so a long
+ * transaction does not hold back later events; the drained position is the low-water
+ * mark before the oldest record not yet drained or aborted, and only the space before
+ * it is reclaimed by compaction. A record still pending after a crash has lost its
+ * outcome and is dropped: the window is between the database commit and the callback.
+ *
+ * Each record carries its event id, reserved from the balance_events id sequence,
+ * so ids are unique across nodes and journal files and the id returned to the
+ * caller is the id of the row. Replaying a partially drained tail after a crash
+ * finds its own rows already there; any other conflict fails the drain.
+ *
+ * Appends reach the file through the page cache. With journal-force-on-append, a recording
+ * thread waits until its record is on disk; a single flusher thread forces the dirty range
+ * for all records appended since its last flush (group commit), outside the journal's
+ * monitor. Status changes are not waited for: a lost committed status drops the record
+ * as above, a lost drained status only replays rows the drain skips as already inserted.
+ * Without the setting, events of committed transactions can be lost if the operating
+ * system crashes.
+ *
+ * File layout: a fixed header (magic, version, write position, drained position)
+ * followed by records of [length][sequence][status][payload][crc32].
+ */
+@Component
+@Slf4j
+public class BalanceEventJournal {
+
+    private static final int MAGIC = 0x42454A31; // "BEJ1"
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 64;
+    private static final int WRITE_POSITION_OFFSET = 8;
+    private static final int DRAINED_POSITION_OFFSET = 16;
+    private static final int SEQUENCE_OFFSET = 4;
+    private static final int STATUS_OFFSET = 12;
+    private static final int PAYLOAD_OFFSET = 13;
+    private static final int RECORD_OVERHEAD = PAYLOAD_OFFSET + 4; // header fields and crc
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int ID_BLOCK_SIZE = 100;
+
+    // Record status, the only byte written after the record is published (not covered by the crc)
+    private static final byte PENDING = 0;
+    private static final byte COMMITTED = 1;
+    private static final byte ABORTED = 2;
+    private static final byte DRAINED = 3;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO balance_events (id, trigger_type, event_description, previous_freedom_level, new_freedom_level, " +
+        "previous_security_level, new_security_level, triggered_by, affected_users, created_at, journal_sequence) " +
+        "OVERRIDING SYSTEM VALUE VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+
+    // Event ids come from the table's own sequence, shared with rows inserted through JPA
+    private static final String RESERVE_IDS_SQL =
+        "SELECT nextval(pg_get_serial_sequence('balance_events', 'id')) FROM generate_series(1, ?)";
+
+    // Rows holding a conflicting id that were not written by replaying the same journal record
+    private static final String FOREIGN_CONFLICTS_SQL =
+        "SELECT id FROM balance_events WHERE id = ANY(?) AND journal_sequence IS DISTINCT FROM id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceConfig balanceConfig;
+    private final TransactionTemplate drainTransaction;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Queue<Long> reservedIds = new ConcurrentLinkedQueue<>();
+
+    // Guarded by this
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long writePosition;
+    private long drainedPosition;
+    private long compactedBytes; // total shift of compactions; logical position = file position + compactedBytes
+    private int dirtyFrom = Integer.MAX_VALUE; // lowest file position written since the last flush
+    private long appendSequence; // number of appends, the flush sequence callers wait for
+    private boolean flusherRunning;
+
+    private final Object flushed = new Object();
+    private long flushedSequence; // guarded by flushed
+    private Thread flusher;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BalanceEventJournal(JdbcTemplate jdbcTemplate,
+                               BalanceConfig balanceConfig,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceConfig = balanceConfig;
+        this.drainTransaction = new TransactionTemplate(transactionManager);
+        this.drainTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Map the journal file, creating it if needed, validate the undrained tail and start the
+     * group commit flusher when appends have to reach the disk
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        openFile();
+        if (balanceConfig.isJournalForceOnAppend()) {
+            flusherRunning = true;
+            flusher = new Thread(this::flushLoop, "balance-journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path path = Path.of(balanceConfig.getJournalPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), Math.max(HEADER_SIZE * 2L, balanceConfig.getJournalSizeBytes()));
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (buffer.getInt(0) != MAGIC) {
+            writePosition = HEADER_SIZE;
+            drainedPosition = HEADER_SIZE;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            writeHeader();
+            log.info("Created balance event journal at {} ({} bytes)", path, size);
+            return;
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Balance event journal " + path + " has format version " +
+                    buffer.getInt(4) + ", expected " + FORMAT_VERSION + "; drain it with the version that wrote it");
+        }
+
+        writePosition = buffer.getLong(WRITE_POSITION_OFFSET);
+        drainedPosition = buffer.getLong(DRAINED_POSITION_OFFSET);
+
+        // Drop a torn or corrupt tail
+        long position = drainedPosition;
+        int undrained = 0;
+        int recovered = 0;
+        while (position < writePosition) {
+            int recordSize = validRecordSize(position);
+            if (recordSize < 0) {
+                log.warn("Balance event journal truncated at offset {} ({} bytes discarded)",
+                        position, writePosition - position);
+                writePosition = position;
+                writeHeader();
+                break;
+            }
+            if (buffer.get((int) position + STATUS_OFFSET) == PENDING) {
+                log.error("Dropping balance event {} whose transaction outcome was lost in an unclean shutdown",
+                        buffer.getLong((int) position + SEQUENCE_OFFSET));
+                buffer.put((int) position + STATUS_OFFSET, ABORTED);
+                recovered++;
+            }
+            position += recordSize;
+            undrained++;
+        }
+
+        log.info("Opened balance event journal at {} - {} undrained events, {} dropped after an unclean shutdown",
+                path, undrained, recovered);
+    }
+
+    /**
+     * Replay any undrained tail once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        int total = 0;
+        int batch;
+        do {
+            batch = drain();
+            total += batch;
+        } while (batch > 0);
+
+        if (total > 0) {
+            log.info("Replayed {} balance events from journal", total);
+        }
+    }
+
+    /**
+     * Record a balance event as part of the current transaction: it is journaled before the
+     * transaction commits and drained only if it commits. Falls back to inserting the row in
+     * the current transaction when the journal is full.
+     * @return id of the event, which is also set on it
+     */
+    public long record(BalanceEvent event) {
+        if (event.getCreatedAt() == null) {
+            event.setCreatedAt(LocalDateTime.now());
+        }
+
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        long id = reserveId();
+        event.setId(id);
+        event.setJournalSequence(id);
+
+        Appended appended = append(id, inTransaction ? PENDING : COMMITTED, event);
+        if (appended == null) {
+            log.warn("Balance event journal full, inserting event {} synchronously", id);
+            jdbcTemplate.update(INSERT_SQL, ps -> bindInsert(ps, id, event,
+                    event.getTriggeredBy() != null ? event.getTriggeredBy().getId() : null));
+            return id;
+        }
+        awaitFlush(appended.flushSequence());
+
+        if (inTransaction) {
+            TransactionHooks.afterCompletion(committed -> resolve(appended.position(), committed ? COMMITTED : ABORTED));
+        }
+        return id;
+    }
+
+    /**
+     * Insert the committed events of the next batch into balance_events, skipping aborted ones
+     * and records whose transaction is still open, then move the drained position up to the
+     * oldest record that is neither drained nor aborted.
+     * @return number of events inserted plus records the drained position moved past
+     */
+    public int drain() {
+        if (!drainLock.tryLock()) {
+            return 0;
+        }
+
+        try {
+            List<JournalRecord> committed = readBatch(balanceConfig.getJournalDrainBatchSize());
+            if (!committed.isEmpty()) {
+                drainTransaction.executeWithoutResult(status -> insert(committed));
+            }
+
+            int released;
+            synchronized (this) {
+                for (JournalRecord record : committed) {
+                    buffer.put((int) (record.position() - compactedBytes) + STATUS_OFFSET, DRAINED);
+                }
+                released = advanceDrainedPosition();
+            }
+
+            drained.addAndGet(committed.size());
+            return committed.size() + released;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Size of the undrained part of the journal
+     */
+    public synchronized long pendingBytes() {
+        return writePosition - drainedPosition;
+    }
+
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    public long getDrainedCount() {
+        return drained.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        try {
+            replay();
+        } catch (Exception e) {
+            log.warn("Could not drain balance event journal on shutdown, tail will be replayed on next start", e);
+        }
+
+        Thread stopped;
+        synchronized (this) {
+            flusherRunning = false;
+            notifyAll();
+            stopped = flusher;
+        }
+        if (stopped != null) {
+            stopped.join();
+        }
+
+        synchronized (this) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    // Private helper methods
+
+    // Append a record with the given initial status; null if the journal is full
+    private synchronized Appended append(long id, byte status, BalanceEvent event) {
+        byte[] payload = encode(event);
+        int recordSize = RECORD_OVERHEAD + payload.length;
+
+        if (writePosition + recordSize > buffer.capacity()) {
+            compact();
+            if (writePosition + recordSize > buffer.capacity()) {
+                rejected.incrementAndGet();
+                return null;
+            }
+        }
+
+        int position = (int) writePosition;
+        buffer.putInt(position, payload.length);
+        buffer.putLong(position + SEQUENCE_OFFSET, id);
+        buffer.put(position + STATUS_OFFSET, status);
+        buffer.put(position + PAYLOAD_OFFSET, payload);
+        buffer.putInt(position + PAYLOAD_OFFSET + payload.length, checksum(id, payload));
+
+        // Publish the record only after it is completely written
+        writePosition += recordSize;
+        writeHeader();
+        markDirty(position);
+
+        appended.incrementAndGet();
+        return new Appended(position + compactedBytes, ++appendSequence);
+    }
+
+    // Mark the record at a logical position committed or aborted; pending records are never drained or compacted away
+    private synchronized void resolve(long logicalPosition, byte status) {
+        int position = (int) (logicalPosition - compactedBytes);
+        buffer.put(position + STATUS_OFFSET, status);
+        markDirty(position);
+    }
+
+    private void markDirty(int position) {
+        dirtyFrom = Math.min(dirtyFrom, position);
+        if (flusherRunning) {
+            notifyAll();
+        }
+    }
+
+    // Wait until the flusher has forced the append with the given sequence to disk
+    private void awaitFlush(long sequence) {
+        if (!balanceConfig.isJournalForceOnAppend()) {
+            return;
+        }
+        synchronized (flushed) {
+            while (flushedSequence < sequence) {
+                try {
+                    flushed.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Group commit: force everything written since the last flush, then release the callers waiting for it
+    private void flushLoop() {
+        while (true) {
+            long sequence;
+            int from;
+            int to;
+            synchronized (this) {
+                while (flusherRunning && dirtyFrom == Integer.MAX_VALUE) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (dirtyFrom == Integer.MAX_VALUE) {
+                    return; // Stopped with nothing left to flush
+                }
+                sequence = appendSequence;
+                from = dirtyFrom;
+                to = (int) writePosition;
+                dirtyFrom = Integer.MAX_VALUE;
+            }
+
+            try {
+                if (to > from) {
+                    buffer.force(from, to - from);
+                }
+                buffer.force(0, HEADER_SIZE);
+            } catch (RuntimeException e) {
+                log.error("Balance event journal flush failed", e);
+            }
+
+            synchronized (flushed) {
+                flushedSequence = sequence;
+                flushed.notifyAll();
+            }
+        }
+    }
+
+    // Ids are reserved in blocks without holding the monitor; concurrent refills only reserve a few ids more
+    private long reserveId() {
+        Long id = reservedIds.poll();
+        if (id != null) {
+            return id;
+        }
+        List<Long> block = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, ID_BLOCK_SIZE);
+        reservedIds.addAll(block.subList(1, block.size()));
+        return block.get(0);
+    }
+
+    private void insert(List<JournalRecord> records) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) ->
+            bindInsert(ps, record.sequence(), record.event(), record.triggeredById()));
+
+        // A skipped row is only expected when a crash interrupted an earlier drain of the same records
+        List<Long> conflicts = new ArrayList<>();
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    conflicts.add(records.get(index).sequence());
+                }
+                index++;
+            }
+        }
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        List<Long> foreign = jdbcTemplate.queryForList(FOREIGN_CONFLICTS_SQL, Long.class,
+                (Object) conflicts.toArray(Long[]::new));
+        if (!foreign.isEmpty()) {
+            throw new IllegalStateException("Balance event ids " + foreign + " are already taken by other events");
+        }
+        log.info("Skipped {} balance events already inserted by an interrupted drain", conflicts.size());
+    }
+
+    private static void bindInsert(PreparedStatement ps, long id, BalanceEvent event, Long triggeredById) throws SQLException {
+        ps.setLong(1, id);
+        ps.setString(2, event.getTriggerType().name());
+        ps.setString(3, event.getEventDescription());
+        setInteger(ps, 4, event.getPreviousFreedomLevel());
+        setInteger(ps, 5, event.getNewFreedomLevel());
+        setInteger(ps, 6, event.getPreviousSecurityLevel());
+        setInteger(ps, 7, event.getNewSecurityLevel());
+        if (triggeredById != null) {
+            ps.setLong(8, triggeredById);
+        } else {
+            ps.setNull(8, Types.BIGINT);
+        }
+        ps.setString(9, event.getAffectedUsers());
+        ps.setTimestamp(10, Timestamp.valueOf(event.getCreatedAt()));
+        ps.setLong(11, id);
+    }
+
+    // Committed, not yet drained records of the next batch; pending, aborted and drained records are skipped
+    private synchronized List<JournalRecord> readBatch(int maxRecords) {
+        List<JournalRecord> committed = new ArrayList<>();
+        long position = drainedPosition;
+        while (position < writePosition && committed.size() < maxRecords) {
+            int length = buffer.getInt((int) position);
+            if (buffer.get((int) position + STATUS_OFFSET) == COMMITTED) {
+                byte[] payload = new byte[length];
+                buffer.get((int) position + PAYLOAD_OFFSET, payload);
+                committed.add(decode(position + compactedBytes, buffer.getLong((int) position + SEQUENCE_OFFSET), payload));
+            }
+            position += RECORD_OVERHEAD + length;
+        }
+        return committed;
+    }
+
+    // Move the drained position past drained and aborted records, up to the oldest record still needed
+    private int advanceDrainedPosition() {
+        int released = 0;
+        while (drainedPosition < writePosition) {
+            byte status = buffer.get((int) drainedPosition + STATUS_OFFSET);
+            if (status != DRAINED && status != ABORTED) {
+                break;
+            }
+            drainedPosition += RECORD_OVERHEAD + buffer.getInt((int) drainedPosition);
+            released++;
+        }
+        writeHeader();
+        return released;
+    }
+
+    // Move the undrained region to the start of the file
+    private void compact() {
+        if (drainedPosition == HEADER_SIZE) {
+            return;
+        }
+
+        int length = (int) (writePosition - drainedPosition);
+        byte[] undrained = new byte[length];
+        buffer.get((int) drainedPosition, undrained);
+        buffer.put(HEADER_SIZE, undrained);
+        if (balanceConfig.isJournalForceOnAppend()) {
+            // The moved records must be on disk before the header points at them
+            buffer.force(HEADER_SIZE, length);
+        }
+
+        compactedBytes += drainedPosition - HEADER_SIZE;
+        writePosition = HEADER_SIZE + length;
+        drainedPosition = HEADER_SIZE;
+        writeHeader();
+        markDirty(HEADER_SIZE);
+    }
+
+    private int validRecordSize(long position) {
+        if (position + RECORD_OVERHEAD > buffer.capacity()) {
+            return -1;
+        }
+
+        int length = buffer.getInt((int) position);
+        if (length <= 0 || position + RECORD_OVERHEAD + length > writePosition) {
+            return -1;
+        }
+
+        long sequence = buffer.getLong((int) position + SEQUENCE_OFFSET);
+        byte[] payload = new byte[length];
+        buffer.get((int) position + PAYLOAD_OFFSET, payload);
+        if (buffer.getInt((int) position + PAYLOAD_OFFSET + length) != checksum(sequence, payload)) {
+            return -1;
+        }
+        return RECORD_OVERHEAD + length;
+    }
+
+    private void writeHeader() {
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+        buffer.putLong(DRAINED_POSITION_OFFSET, drainedPosition);
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(BalanceEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(event.getTriggerType().name());
+            writeString(out, event.getEventDescription());
+            writeInteger(out, event.getPreviousFreedomLevel());
+            writeInteger(out, event.getNewFreedomLevel());
+            writeInteger(out, event.getPreviousSecurityLevel());
+            writeInteger(out, event.getNewSecurityLevel());
+            out.writeLong(event.getTriggeredBy() != null ? event.getTriggeredBy().getId() : -1L);
+            writeString(out, event.getAffectedUsers());
+            out.writeLong(Timestamp.valueOf(event.getCreatedAt()).getTime());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JournalRecord decode(long position, long sequence, byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            BalanceEvent event = new BalanceEvent();
+            event.setTriggerType(BalanceEvent.TriggerType.valueOf(in.readUTF()));
+            event.setEventDescription(readString(in));
+            event.setPreviousFreedomLevel(readInteger(in));
+            event.setNewFreedomLevel(readInteger(in));
+            event.setPreviousSecurityLevel(readInteger(in));
+            event.setNewSecurityLevel(readInteger(in));
+            long triggeredById = in.readLong();
+            event.setAffectedUsers(readString(in));
+            event.setCreatedAt(new Timestamp(in.readLong()).toLocalDateTime());
+            event.setId(sequence);
+            event.setJournalSequence(sequence);
+            return new JournalRecord(position, sequence, event, triggeredById >= 0 ? triggeredById : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeInt(value != null ? value : NULL_INT);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        int value = in.readInt();
+        return value != NULL_INT ? value : null;
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Logical position of an appended record and the flush sequence that covers it
+     */
+    private record Appended(long position, long flushSequence) {
+    }
+
+    /**
+     * Committed event read from the journal, with the logical position of its record
+     */
+    private record JournalRecord(long position, long sequence, BalanceEvent event, Long triggeredById) {
+    }
+}
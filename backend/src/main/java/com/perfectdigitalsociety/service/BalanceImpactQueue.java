@@ -0,0 +1,206 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.dto.response.ImpactQueueStatsResponse;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process queue of message impacts waiting to be applied to user balances.
+ * Pending messages are grouped per author, so several messages by the same user
+ * result in one net score update and one balance event. The queue is drained on
+ * the balance task executor; when it is full, the caller applies the impact itself.
+ *
+ * Messages carry an impact-applied flag which is set in the same transaction as the
+ * score update. Anything lost from the queue (crash, rejected drain) is picked up
+ * again by {@link #recoverPendingImpacts()}, giving at-least-once delivery while
+ * already applied messages are skipped.
+ */
+@Component
+@Slf4j
+public class BalanceImpactQueue {
+
+    private static final int RECOVERY_BATCH_SIZE = 1000;
+
+    private final BalanceService balanceService;
+    private final RebalanceCoordinator rebalanceCoordinator;
+    private final MessageRepository messageRepository;
+    private final BalanceConfig balanceConfig;
+    private final Executor balanceTaskExecutor;
+
+    private final Map<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong appliedBatches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicInteger highWatermark = new AtomicInteger();
+
+    public BalanceImpactQueue(BalanceService balanceService,
+                              RebalanceCoordinator rebalanceCoordinator,
+                              MessageRepository messageRepository,
+                              BalanceConfig balanceConfig,
+                              @Qualifier("balanceTaskExecutor") Executor balanceTaskExecutor) {
+        this.balanceService = balanceService;
+        this.rebalanceCoordinator = rebalanceCoordinator;
+        this.messageRepository = messageRepository;
+        this.balanceConfig = balanceConfig;
+        this.balanceTaskExecutor = balanceTaskExecutor;
+    }
+
+    /**
+     * Queue the impact of a message once the current transaction commits
+     */
+    public void enqueueAfterCommit(Long userId, Long messageId) {
+        TransactionHooks.afterCommit(() -> enqueue(userId, messageId));
+    }
+
+    /**
+     * Queue the impact of a committed message
+     */
+    public void enqueue(Long userId, Long messageId) {
+        // Every queued message takes a slot, also when its author already has a batch pending
+        int size = pendingMessages.getAndUpdate(count -> count < balanceConfig.getImpactQueueCapacity() ? count + 1 : count);
+        if (size >= balanceConfig.getImpactQueueCapacity()) {
+            // Backpressure - apply on the caller's thread instead of growing the queue
+            callerRuns.incrementAndGet();
+            apply(userId, Set.of(messageId));
+            return;
+        }
+
+        AtomicBoolean added = new AtomicBoolean();
+        pending.compute(userId, (id, messageIds) -> {
+            Set<Long> batch = messageIds != null ? messageIds : new LinkedHashSet<>();
+            if (messageIds != null) {
+                coalesced.incrementAndGet();
+            }
+            added.set(batch.add(messageId));
+            return batch;
+        });
+
+        if (added.get()) {
+            enqueued.incrementAndGet();
+            highWatermark.accumulateAndGet(size + 1, Math::max);
+        } else {
+            // Already queued - give the slot back
+            pendingMessages.decrementAndGet();
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Re-queue impacts of messages which were never applied (startup and periodic recovery)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingImpacts() {
+        long afterId = 0;
+        int count = 0;
+
+        List<MessageRepository.PendingImpactRow> rows;
+        do {
+            rows = messageRepository.findPendingImpacts(afterId, PageRequest.of(0, RECOVERY_BATCH_SIZE));
+            for (MessageRepository.PendingImpactRow row : rows) {
+                enqueue(row.getUserId(), row.getId());
+                afterId = row.getId();
+                count++;
+            }
+        } while (rows.size() == RECOVERY_BATCH_SIZE);
+
+        if (count > 0) {
+            recovered.addAndGet(count);
+            log.info("Re-queued {} messages with pending balance impact", count);
+        }
+    }
+
+    /**
+     * Queue statistics
+     */
+    public ImpactQueueStatsResponse getStats() {
+        ImpactQueueStatsResponse stats = new ImpactQueueStatsResponse();
+        stats.setPendingUsers(pending.size());
+        stats.setPendingMessages(pendingMessages.get());
+        stats.setCapacity(balanceConfig.getImpactQueueCapacity());
+        stats.setHighWatermark(highWatermark.get());
+        stats.setEnqueued(enqueued.get());
+        stats.setCoalesced(coalesced.get());
+        stats.setCallerRuns(callerRuns.get());
+        stats.setAppliedBatches(appliedBatches.get());
+        stats.setFailedBatches(failedBatches.get());
+        stats.setRecovered(recovered.get());
+        return stats;
+    }
+
+    // Private helper methods
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            balanceTaskExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            drainScheduled.set(false);
+            log.warn("Balance executor rejected impact drain, {} messages left for recovery", pendingMessages.get());
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                for (Long userId : new ArrayList<>(pending.keySet())) {
+                    Set<Long> messageIds = pending.remove(userId);
+                    if (messageIds != null) {
+                        pendingMessages.addAndGet(-messageIds.size());
+                        apply(userId, messageIds);
+                    }
+                }
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+
+        // Items may have arrived after the last check but before the flag was cleared
+        if (!pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void apply(Long userId, Set<Long> messageIds) {
+        try {
+            boolean highImpact = balanceService.analyzeImpact(userId, messageIds);
+            appliedBatches.incrementAndGet();
+
+            // Check if system-wide rebalancing is needed
+            if (highImpact) {
+                rebalanceCoordinator.requestRebalance("High impact message detected");
+            }
+        } catch (Exception e) {
+            // Messages keep their pending flag and are retried by recovery
+            failedBatches.incrementAndGet();
+            log.error("Failed to apply balance impact of {} messages for user ID: {}", messageIds.size(), userId, e);
+        }
+    }
+}
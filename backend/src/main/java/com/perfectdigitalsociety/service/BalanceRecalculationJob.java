@@ -0,0 +1,453 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.dto.response.RecalculationStatusResponse;
+import com.perfectdigitalsociety.entity.RecalculationCheckpoint;
+import com.perfectdigitalsociety.entity.RecalculationRun;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import com.perfectdigitalsociety.repository.RecalculationCheckpointRepository;
+import com.perfectdigitalsociety.repository.RecalculationRunRepository;
+import com.perfectdigitalsociety.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recalculates the balance of every user in id-range partitions on a worker pool.
+ * Each partition reads score projections and one grouped message count query,
+ * writes changed scores with a JDBC batch and stores a checkpoint in the same
+ * transaction. A new run covers the current user id range; the latest run can be
+ * resumed with the partitions that have no checkpoint yet, on request or after an
+ * interruption, as long as it is recent and has not been attempted too often.
+ *
+ * Updates only apply when the scores are still the ones that were read. Users
+ * changed concurrently are counted as conflicts and recalculated again from their
+ * current scores under a row lock before the partition is checkpointed.
+ */
+@Component
+@Slf4j
+public class BalanceRecalculationJob {
+
+    private static final String UPDATE_SQL =
+        "UPDATE users SET freedom_score = ?, security_score = ?, reputation_score = ?, " +
+        "score_version = score_version + 1 WHERE id = ? AND score_version = ? " +
+        "AND freedom_score IS NOT DISTINCT FROM ? AND security_score IS NOT DISTINCT FROM ? " +
+        "AND reputation_score IS NOT DISTINCT FROM ?";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RESUME_WINDOW = Duration.ofHours(24);
+
+    private final UserRepository userRepository;
+    private final MessageRepository messageRepository;
+    private final RecalculationRunRepository runRepository;
+    private final RecalculationCheckpointRepository checkpointRepository;
+    private final ScoreStore scoreStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceConfig balanceConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor recalculationTaskExecutor;
+
+    private volatile Execution current;
+
+    public BalanceRecalculationJob(UserRepository userRepository,
+                                   MessageRepository messageRepository,
+                                   RecalculationRunRepository runRepository,
+                                   RecalculationCheckpointRepository checkpointRepository,
+                                   ScoreStore scoreStore,
+                                   JdbcTemplate jdbcTemplate,
+                                   BalanceConfig balanceConfig,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("recalculationTaskExecutor") Executor recalculationTaskExecutor) {
+        this.userRepository = userRepository;
+        this.messageRepository = messageRepository;
+        this.runRepository = runRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.scoreStore = scoreStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceConfig = balanceConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recalculationTaskExecutor = recalculationTaskExecutor;
+    }
+
+    /**
+     * Resume a run that was interrupted by a shutdown or crash
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        runRepository.findFirstByOrderByIdDesc()
+            .filter(run -> run.getStatus() == RecalculationRun.Status.RUNNING)
+            .ifPresent(run -> {
+                if (isResumable(run)) {
+                    log.info("Resuming interrupted balance recalculation run {}", run.getId());
+                    start(run.getTriggeredBy(), true);
+                } else {
+                    log.warn("Not resuming interrupted balance recalculation run {} after {} attempts since {}",
+                            run.getId(), run.getAttempts(), run.getStartedAt());
+                    abandon(run);
+                }
+            });
+    }
+
+    /**
+     * Start a recalculation of all users over the current user id range
+     * @param resume continue the latest unfinished run instead, if it is recent and not failing repeatedly
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public synchronized RecalculationStatusResponse start(String triggeredBy, boolean resume) {
+        if (current != null && current.running) {
+            throw new IllegalStateException("Balance recalculation is already running (run " + current.run.getId() + ")");
+        }
+
+        RecalculationRun unfinished = runRepository.findFirstByOrderByIdDesc()
+            .filter(run -> run.getStatus() != RecalculationRun.Status.COMPLETED)
+            .orElse(null);
+        RecalculationRun run;
+        if (unfinished != null && resume && isResumable(unfinished)) {
+            run = reopen(unfinished);
+        } else {
+            if (unfinished != null) {
+                log.info("Balance recalculation run {} is not resumed, starting a new run", unfinished.getId());
+                abandon(unfinished);
+            }
+            run = createRun(triggeredBy);
+        }
+        if (run == null) {
+            return getStatus();
+        }
+
+        Set<Long> completed = new HashSet<>(checkpointRepository.findPartitionStartsByRunId(run.getId()));
+        Queue<Long> partitions = new ConcurrentLinkedQueue<>();
+        for (long fromId = run.getMinUserId(); fromId <= run.getMaxUserId(); fromId += run.getPartitionSize()) {
+            if (!completed.contains(fromId)) {
+                partitions.add(fromId);
+            }
+        }
+
+        Execution execution = new Execution(run, partitions, checkpointRepository.getTotalsByRunId(run.getId()));
+        current = execution;
+
+        log.info("Balance recalculation run {} started - {} of {} partitions pending",
+                run.getId(), partitions.size(), run.getTotalPartitions());
+
+        // Workers start once the run row is visible to them; a rolled back start never ran
+        TransactionHooks.afterCommit(() -> launch(execution));
+        TransactionHooks.afterRollback(() -> retract(execution));
+        return toResponse(execution);
+    }
+
+    /**
+     * Progress of the current run, or the last recorded run
+     */
+    public RecalculationStatusResponse getStatus() {
+        Execution execution = current;
+        if (execution != null) {
+            return toResponse(execution);
+        }
+
+        return runRepository.findFirstByOrderByIdDesc()
+            .map(this::toResponse)
+            .orElseGet(() -> {
+                RecalculationStatusResponse response = new RecalculationStatusResponse();
+                response.setStatus("IDLE");
+                response.setRunning(false);
+                return response;
+            });
+    }
+
+    // Private helper methods
+
+    private RecalculationRun createRun(String triggeredBy) {
+        UserRepository.IdRange range = userRepository.getUserIdRange();
+        if (range == null || range.getMinId() == null) {
+            log.info("No users to recalculate");
+            return null;
+        }
+
+        int partitionSize = Math.max(1, balanceConfig.getRecalculationPartitionSize());
+        RecalculationRun run = new RecalculationRun();
+        run.setMinUserId(range.getMinId());
+        run.setMaxUserId(range.getMaxId());
+        run.setPartitionSize(partitionSize);
+        run.setTotalPartitions((int) ((range.getMaxId() - range.getMinId()) / partitionSize + 1));
+        run.setTriggeredBy(triggeredBy);
+        run.setStartedAt(LocalDateTime.now());
+        return runRepository.save(run);
+    }
+
+    private boolean isResumable(RecalculationRun run) {
+        int attempts = run.getAttempts() != null ? run.getAttempts() : 1;
+        return attempts < MAX_ATTEMPTS && run.getStartedAt().isAfter(LocalDateTime.now().minus(RESUME_WINDOW));
+    }
+
+    private RecalculationRun reopen(RecalculationRun run) {
+        run.setStatus(RecalculationRun.Status.RUNNING);
+        run.setAttempts((run.getAttempts() != null ? run.getAttempts() : 1) + 1);
+        run.setLastError(null);
+        run.setFinishedAt(null);
+        return runRepository.save(run);
+    }
+
+    // A run left RUNNING by a crash is closed as failed; a failed run stays as it is
+    private void abandon(RecalculationRun run) {
+        if (run.getStatus() == RecalculationRun.Status.RUNNING) {
+            run.setStatus(RecalculationRun.Status.FAILED);
+            run.setLastError("Interrupted and not resumed");
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+        }
+    }
+
+    private synchronized void retract(Execution execution) {
+        execution.running = false;
+        if (current == execution) {
+            current = null;
+        }
+        log.info("Balance recalculation run {} was rolled back before it started", execution.run.getId());
+    }
+
+    private void launch(Execution execution) {
+        int workers = Math.max(1, Math.min(balanceConfig.getRecalculationThreads(), execution.partitions.size()));
+        execution.activeWorkers.set(workers);
+
+        for (int i = 0; i < workers; i++) {
+            try {
+                recalculationTaskExecutor.execute(() -> work(execution));
+            } catch (TaskRejectedException e) {
+                execution.fail(e);
+                workerFinished(execution);
+            }
+        }
+    }
+
+    private void work(Execution execution) {
+        try {
+            Long fromId;
+            while (execution.error == null && (fromId = execution.partitions.poll()) != null) {
+                processPartition(execution, fromId);
+            }
+        } catch (Exception e) {
+            log.error("Balance recalculation run {} failed", execution.run.getId(), e);
+            execution.fail(e);
+        } finally {
+            workerFinished(execution);
+        }
+    }
+
+    private void processPartition(Execution execution, long fromId) {
+        RecalculationRun run = execution.run;
+        long toId = Math.min(run.getMaxUserId(), fromId + run.getPartitionSize() - 1);
+
+        PartitionResult result = transactionTemplate.execute(status -> recalculate(run.getId(), fromId, toId));
+        if (result != null) {
+            execution.completedPartitions.incrementAndGet();
+            execution.processedUsers.addAndGet(result.processed());
+            execution.sessionProcessedUsers.addAndGet(result.processed());
+            execution.updatedUsers.addAndGet(result.updated());
+            execution.conflicts.addAndGet(result.conflicts());
+        }
+    }
+
+    private PartitionResult recalculate(long runId, long fromId, long toId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserRepository.RecalculationRow> rows = userRepository.findRecalculationRowsInRange(fromId, toId);
+
+        Map<Long, Long> messageCounts = new HashMap<>();
+        for (MessageRepository.UserMessageCount count : messageRepository.countMessagesByUserInRange(fromId, toId)) {
+            messageCounts.put(count.getUserId(), count.getMessageCount());
+        }
+
+        Updates updates = update(rows, messageCounts, now);
+        int updated = updates.updated();
+        if (!updates.conflicted().isEmpty()) {
+            // Changed since they were read: recalculate from the current scores under a row lock,
+            // so no user is checkpointed without being recalculated
+            updated += update(userRepository.findRecalculationRowsForUpdate(updates.conflicted()), messageCounts, now).updated();
+        }
+
+        checkpointRepository.save(new RecalculationCheckpoint(null, runId, fromId, toId, rows.size(), updated, now));
+        return new PartitionResult(rows.size(), updated, updates.conflicted().size());
+    }
+
+    private Updates update(List<UserRepository.RecalculationRow> rows, Map<Long, Long> messageCounts, LocalDateTime now) {
+        List<ScoreChange> changes = new ArrayList<>();
+        for (UserRepository.RecalculationRow row : rows) {
+            long messageCount = messageCounts.getOrDefault(row.getId(), 0L);
+            int freedom = UserScoreCalculator.freedomScore(row.getFreedomScore(), row.getReputationScore(), messageCount);
+            int security = UserScoreCalculator.securityScore(row.getSecurityScore(), row.getCreatedAt(), messageCount, now);
+            int reputation = UserScoreCalculator.reputationScore(row.getReputationScore(), row.getActive());
+
+            if (!Objects.equals(freedom, row.getFreedomScore())
+                    || !Objects.equals(security, row.getSecurityScore())
+                    || !Objects.equals(reputation, row.getReputationScore())) {
+                changes.add(new ScoreChange(row, freedom, security, reputation));
+            }
+        }
+
+        int updated = 0;
+        List<Long> conflicted = new ArrayList<>();
+        if (!changes.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, changes, changes.size(), (ps, change) -> {
+                ps.setInt(1, change.freedom());
+                ps.setInt(2, change.security());
+                ps.setInt(3, change.reputation());
+                ps.setLong(4, change.row().getId());
+                ps.setLong(5, change.row().getScoreVersion());
+                ps.setObject(6, change.row().getFreedomScore(), Types.INTEGER);
+                ps.setObject(7, change.row().getSecurityScore(), Types.INTEGER);
+                ps.setObject(8, change.row().getReputationScore(), Types.INTEGER);
+            });
+
+            int index = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    ScoreChange change = changes.get(index++);
+                    if (count != 0) {
+                        updated++;
+                        scoreStore.update(change.row().getId(), change.freedom(), change.security(),
+                            change.reputation(), Boolean.TRUE.equals(change.row().getActive()),
+                            change.row().getScoreVersion() + 1);
+                    } else {
+                        conflicted.add(change.row().getId());
+                    }
+                }
+            }
+        }
+        return new Updates(updated, conflicted);
+    }
+
+    private void workerFinished(Execution execution) {
+        if (execution.activeWorkers.decrementAndGet() > 0) {
+            return;
+        }
+
+        RecalculationRun run = execution.run;
+        boolean completed = execution.error == null && execution.partitions.isEmpty();
+        run.setStatus(completed ? RecalculationRun.Status.COMPLETED : RecalculationRun.Status.FAILED);
+        run.setCompletedPartitions(execution.completedPartitions.get());
+        run.setProcessedUsers(execution.processedUsers.get());
+        run.setUpdatedUsers(execution.updatedUsers.get());
+        run.setLastError(execution.error);
+        run.setFinishedAt(LocalDateTime.now());
+        execution.finishedNanos = System.nanoTime();
+        execution.running = false;
+
+        try {
+            runRepository.save(run);
+        } catch (Exception e) {
+            log.error("Failed to record result of balance recalculation run {}", run.getId(), e);
+        }
+
+        log.info("Balance recalculation run {} {} - {} users processed, {} updated, {} conflicts ({} users/s)",
+                run.getId(), run.getStatus(), execution.processedUsers.get(), execution.updatedUsers.get(),
+                execution.conflicts.get(), String.format("%.1f", execution.usersPerSecond()));
+    }
+
+    private RecalculationStatusResponse toResponse(Execution execution) {
+        RecalculationRun run = execution.run;
+        RecalculationStatusResponse response = new RecalculationStatusResponse();
+        response.setRunId(run.getId());
+        response.setStatus(execution.running ? RecalculationRun.Status.RUNNING.name() : run.getStatus().name());
+        response.setRunning(execution.running);
+        response.setTotalPartitions(run.getTotalPartitions());
+        response.setCompletedPartitions(execution.completedPartitions.get());
+        response.setProcessedUsers(execution.processedUsers.get());
+        response.setUpdatedUsers(execution.updatedUsers.get());
+        response.setConflicts(execution.conflicts.get());
+        response.setUsersPerSecond(execution.usersPerSecond());
+        response.setLastError(execution.error);
+        response.setStartedAt(run.getStartedAt());
+        response.setFinishedAt(execution.running ? null : run.getFinishedAt());
+        return response;
+    }
+
+    private RecalculationStatusResponse toResponse(RecalculationRun run) {
+        RecalculationStatusResponse response = new RecalculationStatusResponse();
+        response.setRunId(run.getId());
+        response.setStatus(run.getStatus().name());
+        response.setRunning(false);
+        response.setTotalPartitions(run.getTotalPartitions());
+        response.setCompletedPartitions(run.getCompletedPartitions());
+        response.setProcessedUsers(run.getProcessedUsers());
+        response.setUpdatedUsers(run.getUpdatedUsers());
+        response.setLastError(run.getLastError());
+        response.setStartedAt(run.getStartedAt());
+        response.setFinishedAt(run.getFinishedAt());
+
+        if (run.getFinishedAt() != null && run.getProcessedUsers() != null) {
+            double seconds = Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis() / 1000.0;
+            response.setUsersPerSecond(seconds > 0 ? run.getProcessedUsers() / seconds : null);
+        }
+        return response;
+    }
+
+    private record ScoreChange(UserRepository.RecalculationRow row, int freedom, int security, int reputation) {
+    }
+
+    private record Updates(int updated, List<Long> conflicted) {
+    }
+
+    private record PartitionResult(int processed, int updated, int conflicts) {
+    }
+
+    /**
+     * In-memory progress of the run executing in this process
+     */
+    private static final class Execution {
+        final RecalculationRun run;
+        final Queue<Long> partitions;
+        final AtomicInteger activeWorkers = new AtomicInteger();
+        final AtomicInteger completedPartitions = new AtomicInteger();
+        final AtomicLong processedUsers = new AtomicLong();
+        final AtomicLong updatedUsers = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong sessionProcessedUsers = new AtomicLong();
+        final long startNanos = System.nanoTime();
+        volatile long finishedNanos;
+        volatile boolean running = true;
+        volatile String error;
+
+        Execution(RecalculationRun run, Queue<Long> partitions, RecalculationCheckpointRepository.CheckpointTotals resumed) {
+            this.run = run;
+            this.partitions = partitions;
+            // Continue counting from the partitions completed before a restart
+            this.completedPartitions.set(resumed.getPartitions().intValue());
+            this.processedUsers.set(resumed.getProcessedUsers());
+            this.updatedUsers.set(resumed.getUpdatedUsers());
+        }
+
+        void fail(Exception e) {
+            String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+            error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        }
+
+        // Throughput of this process only, resumed partitions are not counted
+        double usersPerSecond() {
+            long end = running ? System.nanoTime() : finishedNanos;
+            double seconds = (end - startNanos) / 1_000_000_000.0;
+            return seconds > 0 ? sessionProcessedUsers.get() / seconds : 0.0;
+        }
+    }
+}
\ No newline at end of file
@@ -3,25 +3,37 @@ package com.perfectdigitalsociety.service;
 import com.perfectdigitalsociety.dto.request.AdjustBalanceRequest;
 import com.perfectdigitalsociety.dto.request.TriggerBalanceRequest;
 import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.dto.response.BalanceTrendBucketResponse;
+import com.perfectdigitalsociety.dto.response.CursorPage;
+import com.perfectdigitalsociety.dto.response.ScoreDistributionResponse;
 import com.perfectdigitalsociety.dto.response.SystemBalanceResponse;
 import com.perfectdigitalsociety.dto.response.UserBalanceResponse;
 import com.perfectdigitalsociety.entity.BalanceEvent;
 import com.perfectdigitalsociety.entity.Message;
-import com.perfectdigitalsociety.entity.SystemMetric;
 import com.perfectdigitalsociety.entity.User;
 import com.perfectdigitalsociety.exception.UserNotFoundException;
 import com.perfectdigitalsociety.mapper.BalanceMapper;
 import com.perfectdigitalsociety.repository.BalanceEventRepository;
-import com.perfectdigitalsociety.repository.SystemMetricRepository;
+import com.perfectdigitalsociety.repository.BalanceTrendRepository;
+import com.perfectdigitalsociety.repository.MessageRepository;
 import com.perfectdigitalsociety.repository.UserRepository;
+import com.perfectdigitalsociety.repository.UserScoreRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,54 +41,65 @@ import java.util.List;
 @Transactional
 public class BalanceService {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final long MAX_TREND_BUCKETS = 10_000;
+    
     private final BalanceEventRepository balanceEventRepository;
-    private final SystemMetricRepository systemMetricRepository;
+    private final BalanceTrendRepository balanceTrendRepository;
     private final UserRepository userRepository;
+    private final UserScoreRepository userScoreRepository;
+    private final MessageRepository messageRepository;
     private final BalanceMapper balanceMapper;
+    private final SystemBalanceAggregator systemBalanceAggregator;
+    private final BulkScoreUpdater bulkScoreUpdater;
+    private final ScoreStore scoreStore;
+    private final BalanceTrendBuffer balanceTrendBuffer;
+    private final BalanceEventJournal balanceEventJournal;
+    private final ScoreDistribution scoreDistribution;
     
     // Business Logic Methods as specified in documentation
     
     /**
      * Calculate system-wide balance
      */
+    @Transactional(readOnly = true)
     public SystemBalanceResponse calculateSystemBalance() {
+        // Running totals are maintained incrementally, no need to scan active users
+        return calculateSystemBalance(systemBalanceAggregator.getTotals());
+    }
+    
+    /**
+     * Calculate the system balance of the given score totals.
+     * Nothing is recorded; trend samples and metrics are taken by {@link SystemBalanceSnapshotHolder}
+     * once per change of the totals.
+     */
+    public SystemBalanceResponse calculateSystemBalance(SystemBalanceAggregator.Totals totals) {
         log.info("Calculating system-wide balance");
         
-        // Get current system metrics
-        List<User> activeUsers = userRepository.findAllActiveUsers();
-        
-        if (activeUsers.isEmpty()) {
+        if (totals.isEmpty()) {
             return createDefaultSystemBalance();
         }
         
         // Calculate average freedom and security levels
-        Double avgFreedom = activeUsers.stream()
-            .mapToDouble(User::getFreedomScore)
-            .average()
-            .orElse(50.0);
-        
-        Double avgSecurity = activeUsers.stream()
-            .mapToDouble(User::getSecurityScore)
-            .average()
-            .orElse(50.0);
+        Double avgFreedom = totals.averageFreedom();
+        Double avgSecurity = totals.averageSecurity();
         
         // Calculate balance score (closer to 1.0 means better balance)
         Double balanceScore = calculateBalanceScore(avgFreedom, avgSecurity);
         
-        // Determine trend
-        String trend = determineTrend(avgFreedom, avgSecurity);
-        
-        // Save system metrics
-        saveSystemMetric("system_freedom_level", BigDecimal.valueOf(avgFreedom));
-        saveSystemMetric("system_security_level", BigDecimal.valueOf(avgSecurity));
-        saveSystemMetric("system_balance_score", BigDecimal.valueOf(balanceScore));
+        // Determine trend from recent samples held in memory
+        BalanceTrendBuffer.TrendStats trendStats = balanceTrendBuffer.analyze(avgFreedom, avgSecurity);
         
         SystemBalanceResponse response = new SystemBalanceResponse();
         response.setCurrentFreedomLevel(avgFreedom.intValue());
         response.setCurrentSecurityLevel(avgSecurity.intValue());
         response.setBalanceScore(balanceScore);
         response.setLastUpdated(LocalDateTime.now());
-        response.setTrend(trend);
+        response.setTrend(trendStats.trend());
+        response.setFreedomSlope(trendStats.freedomSlope());
+        response.setSecuritySlope(trendStats.securitySlope());
+        response.setFreedomVolatility(trendStats.freedomVolatility());
+        response.setSecurityVolatility(trendStats.securityVolatility());
         
         log.info("System balance calculated - Freedom: {}, Security: {}, Balance Score: {}", 
                 avgFreedom.intValue(), avgSecurity.intValue(), balanceScore);
@@ -85,8 +108,10 @@ public class BalanceService {
     }
     
     /**
-     * Trigger balance event
+     * Trigger balance event.
+     * Runs without a transaction so the bulk score update commits chunk by chunk on its own connection.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BalanceEventResponse triggerBalanceEvent(Long userId, TriggerBalanceRequest request) {
         log.info("Triggering balance event by user ID: {}", userId);
         
@@ -102,7 +127,6 @@ public class BalanceService {
         // Create balance event
         BalanceEvent event = new BalanceEvent();
         event.setTriggerType(BalanceEvent.TriggerType.valueOf(request.getEventType().toUpperCase()));
-        event.setEventDescription(request.getDescription());
         event.setPreviousFreedomLevel(currentBalance.getCurrentFreedomLevel());
         event.setPreviousSecurityLevel(currentBalance.getCurrentSecurityLevel());
         event.setTriggeredBy(triggerUser);
@@ -112,57 +136,68 @@ public class BalanceService {
         BalanceAdjustment adjustment = calculateBalanceAdjustment(event.getTriggerType(), request.getDescription());
 
         // Apply adjustments to system
-        applySystemAdjustment(adjustment);
+        int affectedCount = applySystemAdjustment(adjustment);
+        event.setEventDescription(BulkScoreUpdater.describeAffected(request.getDescription(), affectedCount));
         
         // Get new balance after adjustment
         SystemBalanceResponse newBalance = calculateSystemBalance();
         event.setNewFreedomLevel(newBalance.getCurrentFreedomLevel());
         event.setNewSecurityLevel(newBalance.getCurrentSecurityLevel());
         
-        BalanceEvent savedEvent = balanceEventRepository.save(event);
+        balanceEventJournal.record(event);
 
-        log.info("Balance event triggered successfully with ID: {}", savedEvent.getId());
-        return balanceMapper.toBalanceEventResponse(savedEvent);
+        log.info("Balance event triggered successfully - Type: {}", event.getTriggerType());
+        return balanceMapper.toBalanceEventResponse(event);
     }
     
     /**
-     * Analyze impact of a message or user action
+     * Analyze impact of queued messages by one user.
+     * Runs in its own transaction; messages already applied are skipped, so redelivery is harmless.
+     * @return true if a high impact message calls for system-wide rebalancing
      */
-    public void analyzeImpact(Message message) {
-        log.info("Analyzing impact of message ID: {}", message.getId());
-        
-        // Get current user balance
-        User user = message.getUser();
-        Integer previousFreedom = user.getFreedomScore();
-        Integer previousSecurity = user.getSecurityScore();
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean analyzeImpact(Long userId, Collection<Long> messageIds) {
+        log.info("Analyzing impact of {} messages for user ID: {}", messageIds.size(), userId);
+        
+        List<Message> messages = messageRepository.findUnappliedImpactsForUpdate(messageIds);
+        if (messages.isEmpty()) {
+            log.debug("Impact of messages {} already applied", messageIds);
+            return false;
+        }
         
-        // Apply message impact to user scores
-        Integer newFreedom = Math.max(0, Math.min(100, previousFreedom + message.getFreedomImpact()));
-        Integer newSecurity = Math.max(0, Math.min(100, previousSecurity + message.getSecurityImpact()));
+        // Coalesce all pending impacts into one net change
+        int freedomImpact = 0;
+        int securityImpact = 0;
+        boolean highImpact = false;
+        for (Message message : messages) {
+            freedomImpact += message.getFreedomImpact();
+            securityImpact += message.getSecurityImpact();
+            highImpact |= Math.abs(message.getFreedomImpact()) > 20 || Math.abs(message.getSecurityImpact()) > 20;
+            message.setImpactApplied(true);
+        }
         
-        user.setFreedomScore(newFreedom);
-        user.setSecurityScore(newSecurity);
-        userRepository.save(user);
+        // Apply message impact to user scores atomically, without locking the user row for the whole transaction
+        UserScoreRepository.ScoreChange change = applyScoreDelta(userId, freedomImpact, securityImpact);
         
         // Create balance event
         BalanceEvent event = new BalanceEvent();
         event.setTriggerType(BalanceEvent.TriggerType.USER_ACTION);
-        event.setEventDescription("Message impact analysis for message ID: " + message.getId());
-        event.setPreviousFreedomLevel(previousFreedom);
-        event.setNewFreedomLevel(newFreedom);
-        event.setPreviousSecurityLevel(previousSecurity);
-        event.setNewSecurityLevel(newSecurity);
-        event.setTriggeredBy(user);
-        event.setAffectedUsers("[" + user.getId() + "]");
+        event.setEventDescription(messages.size() == 1 ?
+            "Message impact analysis for message ID: " + messages.get(0).getId() :
+            "Message impact analysis for " + messages.size() + " messages of user ID: " + userId);
+        event.setPreviousFreedomLevel(change.previousFreedom());
+        event.setNewFreedomLevel(change.newFreedom());
+        event.setPreviousSecurityLevel(change.previousSecurity());
+        event.setNewSecurityLevel(change.newSecurity());
+        event.setTriggeredBy(userRepository.getReferenceById(userId));
+        event.setAffectedUsers("[" + userId + "]");
         
-        balanceEventRepository.save(event);
+        balanceEventJournal.record(event);
         
-        // Check if system-wide rebalancing is needed
-        if (Math.abs(message.getFreedomImpact()) > 20 || Math.abs(message.getSecurityImpact()) > 20) {
-            triggerSystemRebalancing("High impact message detected");
-        }
+        log.info("Impact analysis completed for {} messages of user ID: {}", messages.size(), userId);
         
-        log.info("Impact analysis completed for message ID: {}", message.getId());
+        // System-wide rebalancing is left to the caller, outside this transaction
+        return highImpact;
     }
     
     /**
@@ -174,32 +209,66 @@ public class BalanceService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         
-        Integer previousFreedom = user.getFreedomScore();
-        Integer previousSecurity = user.getSecurityScore();
-        
-        // Apply adjustments with bounds checking
-        Integer newFreedom = Math.max(0, Math.min(100, previousFreedom + freedomAdjustment));
-        Integer newSecurity = Math.max(0, Math.min(100, previousSecurity + securityAdjustment));
-        
-        user.setFreedomScore(newFreedom);
-        user.setSecurityScore(newSecurity);
-        userRepository.save(user);
+        // Apply adjustments atomically with bounds checking in the database
+        UserScoreRepository.ScoreChange change = applyScoreDelta(userId, freedomAdjustment, securityAdjustment);
         
         // Create balance event
         BalanceEvent event = new BalanceEvent();
         event.setTriggerType(BalanceEvent.TriggerType.ADMIN_MANUAL);
         event.setEventDescription(reason);
-        event.setPreviousFreedomLevel(previousFreedom);
-        event.setNewFreedomLevel(newFreedom);
-        event.setPreviousSecurityLevel(previousSecurity);
-        event.setNewSecurityLevel(newSecurity);
+        event.setPreviousFreedomLevel(change.previousFreedom());
+        event.setNewFreedomLevel(change.newFreedom());
+        event.setPreviousSecurityLevel(change.previousSecurity());
+        event.setNewSecurityLevel(change.newSecurity());
         event.setTriggeredBy(user);
         event.setAffectedUsers("[" + userId + "]");
         
-        BalanceEvent savedEvent = balanceEventRepository.save(event);
+        balanceEventJournal.record(event);
 
         log.info("Balance adjusted successfully for user ID: {}", userId);
-        return balanceMapper.toBalanceEventResponse(savedEvent);
+        return balanceMapper.toBalanceEventResponse(event);
+    }
+    
+    /**
+     * Apply net adjustments to many users with one score statement and one balance event per user (moderator function).
+     * User ids must be distinct.
+     * @return number of users adjusted
+     */
+    public int adjustBalances(List<UserAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return 0;
+        }
+        log.info("Adjusting balances of {} users", adjustments.size());
+        
+        // Write pending entity changes first so a later flush cannot overwrite the new scores
+        userRepository.flush();
+        
+        Map<Long, UserAdjustment> byUser = adjustments.stream()
+            .collect(Collectors.toMap(UserAdjustment::userId, adjustment -> adjustment));
+        List<UserScoreRepository.ScoreChange> changes = userScoreRepository.applyDeltas(
+            adjustments.stream().map(UserAdjustment::userId).toArray(Long[]::new),
+            adjustments.stream().map(UserAdjustment::freedomAdjustment).toArray(Integer[]::new),
+            adjustments.stream().map(UserAdjustment::securityAdjustment).toArray(Integer[]::new));
+        
+        for (UserScoreRepository.ScoreChange change : changes) {
+            scoreStore.update(change);
+            
+            // Events go through the journal, which inserts them in JDBC batches
+            BalanceEvent event = new BalanceEvent();
+            event.setTriggerType(BalanceEvent.TriggerType.ADMIN_MANUAL);
+            event.setEventDescription(byUser.get(change.userId()).reason());
+            event.setPreviousFreedomLevel(change.previousFreedom());
+            event.setNewFreedomLevel(change.newFreedom());
+            event.setPreviousSecurityLevel(change.previousSecurity());
+            event.setNewSecurityLevel(change.newSecurity());
+            event.setTriggeredBy(userRepository.getReferenceById(change.userId()));
+            event.setAffectedUsers("[" + change.userId() + "]");
+            
+            balanceEventJournal.record(event);
+        }
+        
+        log.info("Balances adjusted for {} of {} users", changes.size(), adjustments.size());
+        return changes.size();
     }
     
     /**
@@ -211,20 +280,29 @@ public class BalanceService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
 
-        // Get user activity metrics - handle null collections
-        Integer messageCount = (user.getMessages() != null) ? user.getMessages().size() : 0;
-
-        // Calculate new scores based on activity and community participation
-        Integer newFreedomScore = calculateUserFreedomScore(user, messageCount);
-        Integer newSecurityScore = calculateUserSecurityScore(user, messageCount);
-        Integer newReputationScore = calculateUserReputationScore(user);
+        // Get user activity metrics without loading the messages collection
+        long messageCount = messageRepository.countMessagesByUser(userId);
 
-        // Update user scores
-        user.setFreedomScore(newFreedomScore);
-        user.setSecurityScore(newSecurityScore);
-        user.setReputationScore(newReputationScore);
+        // Recalculate from the scores as stored and write them back only if they are unchanged,
+        // so atomic score deltas committed in between are never overwritten
+        userRepository.flush();
+        UserRepository.RecalculationRow row = userRepository.findRecalculationRowsInRange(userId, userId).get(0);
+        UserScores scores = recalculate(row, messageCount);
+        if (!scores.matches(row) && !userScoreRepository.replaceScores(row, scores.freedom(), scores.security(), scores.reputation())) {
+            // Changed since it was read: recalculate from the current scores under a row lock
+            row = userRepository.findRecalculationRowsForUpdate(List.of(userId)).get(0);
+            scores = recalculate(row, messageCount);
+            if (!scores.matches(row)) {
+                userScoreRepository.replaceScores(row, scores.freedom(), scores.security(), scores.reputation());
+            }
+        }
+        long version = row.getScoreVersion() + (scores.matches(row) ? 0 : 1);
+        scoreStore.update(userId, scores.freedom(), scores.security(), scores.reputation(),
+                          Boolean.TRUE.equals(row.getActive()), version);
 
-        userRepository.save(user);
+        int newFreedomScore = scores.freedom();
+        int newSecurityScore = scores.security();
+        int newReputationScore = scores.reputation();
 
         // Calculate balance ratio
         Double balanceRatio = newSecurityScore != 0 ? (double) newFreedomScore / newSecurityScore : 1.0;
@@ -236,6 +314,7 @@ public class BalanceService {
         response.setSecurityScore(newSecurityScore);
         response.setReputationScore(newReputationScore);
         response.setBalanceRatio(balanceRatio);
+        setPercentiles(response);
         response.setLastUpdated(LocalDateTime.now());
 
         log.info("User balance calculated - Freedom: {}, Security: {}, Reputation: {}",
@@ -244,6 +323,25 @@ public class BalanceService {
         return response;
     }
 
+    private UserScores recalculate(UserRepository.RecalculationRow row, long messageCount) {
+        return new UserScores(
+            UserScoreCalculator.freedomScore(row.getFreedomScore(), row.getReputationScore(), messageCount),
+            UserScoreCalculator.securityScore(row.getSecurityScore(), row.getCreatedAt(), messageCount, LocalDateTime.now()),
+            UserScoreCalculator.reputationScore(row.getReputationScore(), row.getActive()));
+    }
+
+    /**
+     * Recalculated scores of a single user
+     */
+    private record UserScores(int freedom, int security, int reputation) {
+        boolean matches(UserRepository.ScoreRow row) {
+            return Objects.equals(freedom, row.getFreedomScore())
+                && Objects.equals(security, row.getSecurityScore())
+                && Objects.equals(reputation, row.getReputationScore());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<BalanceEventResponse> getBalanceHistory(int limit) {
         log.info("Getting balance history with limit: {}", limit);
         return balanceEventRepository.findMostRecentEvents(limit)
@@ -252,6 +350,68 @@ public class BalanceService {
             .toList();
     }
     
+    /**
+     * Most recent balance events since the given time, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceEventResponse> getBalanceEventsSince(LocalDateTime since, int limit) {
+        log.info("Getting balance events since {} with limit: {}", since, limit);
+        return balanceEventRepository.findEventsSince(since, Math.max(1, Math.min(MAX_PAGE_SIZE, limit)))
+            .stream()
+            .map(balanceMapper::toBalanceEventResponse)
+            .toList();
+    }
+    
+    /**
+     * Balance events within [from, to) in chronological order, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BalanceEventResponse> getBalanceEventsInRange(LocalDateTime from, LocalDateTime to,
+                                                                    String cursor, int limit) {
+        log.info("Getting balance events from {} to {} with limit: {}", from, to, limit);
+        
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        if (after == null || after.createdAt().isBefore(from)) {
+            after = new KeysetCursor(from, 0L);
+        }
+        
+        // Fetch one extra row to know whether another page follows
+        List<BalanceEvent> events = balanceEventRepository.findPageInRange(after.createdAt(), after.id(), to, pageSize + 1);
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            BalanceEvent last = events.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return new CursorPage<>(events.stream().map(balanceMapper::toBalanceEventResponse).toList(), nextCursor);
+    }
+    
+    /**
+     * Event counts per trigger type and average new levels per time bucket within [from, to).
+     * Buckets without events are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceTrendBucketResponse> getBalanceTrendBuckets(LocalDateTime from, LocalDateTime to, String bucket) {
+        log.info("Getting balance trend buckets from {} to {} per {}", from, to, bucket);
+        
+        BalanceTrendRepository.BucketUnit unit = BalanceTrendRepository.BucketUnit.valueOf(bucket.trim().toUpperCase());
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Trend range start must be before its end");
+        }
+        if (Duration.between(from, to).dividedBy(unit.getDuration()) > MAX_TREND_BUCKETS) {
+            throw new IllegalArgumentException("Trend range too large for " + unit + " buckets");
+        }
+        
+        return balanceTrendRepository.findBuckets(unit, from, to).stream()
+            .collect(Collectors.groupingBy(BalanceTrendRepository.BucketRow::bucketStart, LinkedHashMap::new, Collectors.toList()))
+            .entrySet().stream()
+            .map(entry -> toTrendBucket(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+    
+    @Transactional(readOnly = true)
     public UserBalanceResponse getUserBalance(Long userId) {
         log.info("Getting balance for user ID: {}", userId);
         
@@ -268,12 +428,43 @@ public class BalanceService {
         response.setSecurityScore(user.getSecurityScore());
         response.setReputationScore(user.getReputationScore());
         response.setBalanceRatio(balanceRatio);
+        setPercentiles(response);
+        response.setLastUpdated(LocalDateTime.now());
+        
+        return response;
+    }
+    
+    /**
+     * Score distributions of active users from the incrementally maintained histograms
+     */
+    @Transactional(readOnly = true)
+    public ScoreDistributionResponse getScoreDistribution() {
+        log.info("Getting score distribution");
+        
+        long[] freedom = scoreDistribution.histogram(ScoreDistribution.Dimension.FREEDOM);
+        long[] security = scoreDistribution.histogram(ScoreDistribution.Dimension.SECURITY);
+        long[] reputation = scoreDistribution.histogram(ScoreDistribution.Dimension.REPUTATION);
+        
+        ScoreDistributionResponse response = new ScoreDistributionResponse();
+        response.setActiveUsers(Arrays.stream(freedom).sum());
+        response.setFreedomDistribution(Arrays.stream(freedom).boxed().toList());
+        response.setSecurityDistribution(Arrays.stream(security).boxed().toList());
+        response.setReputationDistribution(Arrays.stream(reputation).boxed().toList());
+        response.setFreedomMedian(scoreDistribution.percentile(ScoreDistribution.Dimension.FREEDOM, 50));
+        response.setSecurityMedian(scoreDistribution.percentile(ScoreDistribution.Dimension.SECURITY, 50));
+        response.setReputationMedian(scoreDistribution.percentile(ScoreDistribution.Dimension.REPUTATION, 50));
         response.setLastUpdated(LocalDateTime.now());
         
         return response;
     }
     
-    public void performAutomaticRebalancing() {
+    /**
+     * Rebalance all active users if the system is out of balance.
+     * Runs without a transaction so the bulk score update commits chunk by chunk on its own connection.
+     * @return the recorded balance event, empty if no rebalancing was needed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<BalanceEventResponse> performAutomaticRebalancing() {
         log.info("Performing automatic system rebalancing");
         
         SystemBalanceResponse currentBalance = calculateSystemBalance();
@@ -281,12 +472,12 @@ public class BalanceService {
         // Check if rebalancing is needed
         if (isRebalancingNeeded(currentBalance)) {
             BalanceAdjustment adjustment = calculateGlobalAdjustment(currentBalance);
-            applyGlobalAdjustment(adjustment);
+            int affectedCount = applyGlobalAdjustment(adjustment);
             
             // Create system event
             BalanceEvent event = new BalanceEvent();
             event.setTriggerType(BalanceEvent.TriggerType.SYSTEM_AUTO);
-            event.setEventDescription("Automatic system rebalancing");
+            event.setEventDescription(BulkScoreUpdater.describeAffected("Automatic system rebalancing", affectedCount));
             event.setPreviousFreedomLevel(currentBalance.getCurrentFreedomLevel());
             event.setPreviousSecurityLevel(currentBalance.getCurrentSecurityLevel());
             
@@ -295,10 +486,12 @@ public class BalanceService {
             event.setNewSecurityLevel(newBalance.getCurrentSecurityLevel());
             event.setAffectedUsers("all");
             
-            balanceEventRepository.save(event);
+            balanceEventJournal.record(event);
             
             log.info("Automatic rebalancing completed");
+            return Optional.of(balanceMapper.toBalanceEventResponse(event));
         }
+        return Optional.empty();
     }
     
     // Private helper methods
@@ -314,47 +507,46 @@ public class BalanceService {
     }
     
     private Double calculateBalanceScore(Double freedom, Double security) {
-        // Perfect balance score calculation
         // Closer to 1.0 means better balance between freedom and security
-        if (freedom == 0 && security == 0) return 1.0;
-        if (security == 0) return 0.1; // Heavy freedom bias
-        if (freedom == 0) return 0.1; // Heavy security bias
-        
-        Double ratio = freedom / security;
-        // Score is higher when ratio is closer to 1.0
-        return 1.0 / (1.0 + Math.abs(ratio - 1.0));
+        return RebalancePolicy.balanceScore(freedom, security);
     }
     
-    private String determineTrend(Double currentFreedom, Double currentSecurity) {
-        // Get previous balance metrics
-        SystemMetric prevFreedomMetric = systemMetricRepository
-            .findLatestByMetricName("system_freedom_level")
-            .orElse(null);
-        
-        if (prevFreedomMetric == null) {
-            return "STABLE";
+    private BalanceTrendBucketResponse toTrendBucket(LocalDateTime bucketStart, List<BalanceTrendRepository.BucketRow> rows) {
+        long eventCount = 0;
+        long freedomSum = 0;
+        long freedomCount = 0;
+        long securitySum = 0;
+        long securityCount = 0;
+        Map<String, Long> eventsByTriggerType = new LinkedHashMap<>();
+        for (BalanceTrendRepository.BucketRow row : rows) {
+            eventCount += row.eventCount();
+            freedomSum += row.freedomSum();
+            freedomCount += row.freedomCount();
+            securitySum += row.securitySum();
+            securityCount += row.securityCount();
+            eventsByTriggerType.put(row.triggerType(), row.eventCount());
         }
         
-        Double previousFreedom = prevFreedomMetric.getMetricValue().doubleValue();
-        Double freedomChange = currentFreedom - previousFreedom;
-        
-        if (Math.abs(freedomChange) < 2) {
-            return "STABLE";
-        } else if (freedomChange > 0) {
-            return "FREEDOM_INCREASING";
-        } else {
-            return "SECURITY_INCREASING";
-        }
+        BalanceTrendBucketResponse response = new BalanceTrendBucketResponse();
+        response.setBucketStart(bucketStart);
+        response.setEventCount(eventCount);
+        response.setAverageFreedomLevel(freedomCount > 0 ? (double) freedomSum / freedomCount : null);
+        response.setAverageSecurityLevel(securityCount > 0 ? (double) securitySum / securityCount : null);
+        response.setEventsByTriggerType(eventsByTriggerType);
+        return response;
+    }
+    
+    private void setPercentiles(UserBalanceResponse response) {
+        response.setFreedomPercentile(scoreDistribution.percentileRank(
+            ScoreDistribution.Dimension.FREEDOM, valueOrZero(response.getFreedomScore())));
+        response.setSecurityPercentile(scoreDistribution.percentileRank(
+            ScoreDistribution.Dimension.SECURITY, valueOrZero(response.getSecurityScore())));
+        response.setReputationPercentile(scoreDistribution.percentileRank(
+            ScoreDistribution.Dimension.REPUTATION, valueOrZero(response.getReputationScore())));
     }
     
-    private void saveSystemMetric(String metricName, BigDecimal value) {
-        SystemMetric metric = new SystemMetric();
-        metric.setMetricName(metricName);
-        metric.setMetricValue(value);
-        metric.setMetricType(SystemMetric.MetricType.BALANCE);
-        metric.setCalculationPeriod(SystemMetric.CalculationPeriod.REAL_TIME);
-        metric.setMetadata("{}");
-        systemMetricRepository.save(metric);
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
     }
     
     private BalanceAdjustment calculateBalanceAdjustment(BalanceEvent.TriggerType triggerType, String description) {
@@ -380,54 +572,49 @@ public class BalanceService {
         return adjustment;
     }
     
-    private void applySystemAdjustment(BalanceAdjustment adjustment) {
-        // Apply small adjustments to all active users
-        List<User> activeUsers = userRepository.findAllActiveUsers();
-        
-        for (User user : activeUsers) {
-            Integer newFreedom = Math.max(0, Math.min(100, 
-                user.getFreedomScore() + adjustment.getFreedomAdjustment()));
-            Integer newSecurity = Math.max(0, Math.min(100, 
-                user.getSecurityScore() + adjustment.getSecurityAdjustment()));
-            
-            user.setFreedomScore(newFreedom);
-            user.setSecurityScore(newSecurity);
-        }
+    private UserScoreRepository.ScoreChange applyScoreDelta(Long userId, int freedomDelta, int securityDelta) {
+        // Write pending entity changes first so a later flush cannot overwrite the new scores
+        userRepository.flush();
         
-        userRepository.saveAll(activeUsers);
+        UserScoreRepository.ScoreChange change = userScoreRepository.applyDelta(userId, freedomDelta, securityDelta)
+            .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        scoreStore.update(change);
+        return change;
     }
     
-    private void triggerSystemRebalancing(String reason) {
-        log.info("Triggering system rebalancing: {}", reason);
-        performAutomaticRebalancing();
+    private int applySystemAdjustment(BalanceAdjustment adjustment) {
+        // Apply small adjustments to all active users with set-based updates
+        return bulkScoreUpdater.adjustActiveScores(
+            adjustment.getFreedomAdjustment(), adjustment.getSecurityAdjustment());
     }
     
     private boolean isRebalancingNeeded(SystemBalanceResponse balance) {
         // Rebalancing needed if balance score is too low or extreme imbalance
-        return balance.getBalanceScore() < 0.7 ||
-               Math.abs(balance.getCurrentFreedomLevel() - balance.getCurrentSecurityLevel()) > 30;
+        return RebalancePolicy.isRebalancingNeeded(balance.getBalanceScore(),
+            balance.getCurrentFreedomLevel(), balance.getCurrentSecurityLevel(),
+            RebalancePolicy.MIN_BALANCE_SCORE, RebalancePolicy.MAX_LEVEL_GAP);
     }
     
     private BalanceAdjustment calculateGlobalAdjustment(SystemBalanceResponse currentBalance) {
         BalanceAdjustment adjustment = new BalanceAdjustment();
         
-        Integer freedomLevel = currentBalance.getCurrentFreedomLevel();
-        Integer securityLevel = currentBalance.getCurrentSecurityLevel();
-        
         // Adjust towards balance
-        if (freedomLevel > securityLevel + 10) {
-            adjustment.setFreedomAdjustment(-2);
-            adjustment.setSecurityAdjustment(1);
-        } else if (securityLevel > freedomLevel + 10) {
-            adjustment.setFreedomAdjustment(1);
-            adjustment.setSecurityAdjustment(-2);
-        }
+        RebalancePolicy.Adjustment deltas = RebalancePolicy.globalAdjustment(
+            currentBalance.getCurrentFreedomLevel(), currentBalance.getCurrentSecurityLevel());
+        adjustment.setFreedomAdjustment(deltas.freedom());
+        adjustment.setSecurityAdjustment(deltas.security());
         
         return adjustment;
     }
     
-    private void applyGlobalAdjustment(BalanceAdjustment adjustment) {
-        applySystemAdjustment(adjustment);
+    private int applyGlobalAdjustment(BalanceAdjustment adjustment) {
+        return applySystemAdjustment(adjustment);
+    }
+    
+    /**
+     * Net score change of one user with the reason recorded in its balance event
+     */
+    public record UserAdjustment(Long userId, int freedomAdjustment, int securityAdjustment, String reason) {
     }
     
     // Helper class for balance adjustments
@@ -440,50 +627,4 @@ public class BalanceService {
         public Integer getSecurityAdjustment() { return securityAdjustment; }
         public void setSecurityAdjustment(Integer securityAdjustment) { this.securityAdjustment = securityAdjustment; }
     }
-
-    private Integer calculateUserFreedomScore(User user, Integer messageCount) {
-        // Dynamic freedom score calculation based on user activity and community rules
-        Integer baseScore = user.getFreedomScore() != null ? user.getFreedomScore() : 50;
-
-        // Increase freedom score based on positive community interaction
-        Integer activityBonus = Math.min(messageCount * 2, 30);
-
-        // Apply reputation modifier
-        Integer reputationModifier = user.getReputationScore() != null ?
-            user.getReputationScore() / 10 : 0;
-
-        Integer newScore = baseScore + activityBonus + reputationModifier;
-
-        // Ensure score stays within bounds (0-100)
-        return Math.max(0, Math.min(100, newScore));
-    }
-
-    private Integer calculateUserSecurityScore(User user, Integer messageCount) {
-        // Dynamic security score calculation
-        Integer baseScore = user.getSecurityScore() != null ? user.getSecurityScore() : 50;
-
-        // Security score influenced by account age and stability
-        Long daysSinceCreation = user.getCreatedAt() != null ?
-            java.time.Duration.between(user.getCreatedAt(), LocalDateTime.now()).toDays() : 0;
-
-        Integer stabilityBonus = Math.min((int) (daysSinceCreation / 7), 20);
-
-        // Moderate activity increases security
-        Integer activityModifier = messageCount > 0 && messageCount < 100 ? 10 : 0;
-
-        Integer newScore = baseScore + stabilityBonus + activityModifier;
-
-        return Math.max(0, Math.min(100, newScore));
-    }
-
-    private Integer calculateUserReputationScore(User user) {
-        // Reputation based on community feedback and contribution
-        Integer baseReputation = user.getReputationScore() != null ? user.getReputationScore() : 0;
-
-        // This would be enhanced with actual community feedback data
-        // For now, simple calculation based on account status
-        Integer statusBonus = user.getIsActive() ? 10 : 0;
-
-        return Math.max(0, baseReputation + statusBonus);
-    }
 }
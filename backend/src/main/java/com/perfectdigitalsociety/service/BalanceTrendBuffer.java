@@ -0,0 +1,204 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.entity.SystemMetric;
+import com.perfectdigitalsociety.repository.SystemMetricRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring buffer of recent system freedom/security samples.
+ * Writers claim a sequence number and publish the sample into its slot; readers
+ * walk back from the latest sequence and skip slots that were overwritten or not
+ * yet published. Trend, slope and volatility are computed from it in memory.
+ */
+@Component
+@Slf4j
+public class BalanceTrendBuffer {
+
+    // Metrics the samples are persisted as, recorded together by SystemBalanceSnapshotHolder
+    public static final String FREEDOM_METRIC = "system_freedom_level";
+    public static final String SECURITY_METRIC = "system_security_level";
+
+    private static final double STABLE_THRESHOLD = 2.0;
+
+    private final SystemMetricRepository systemMetricRepository;
+    private final BalanceConfig balanceConfig;
+
+    private final AtomicReferenceArray<Sample> samples;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public BalanceTrendBuffer(SystemMetricRepository systemMetricRepository, BalanceConfig balanceConfig) {
+        this.systemMetricRepository = systemMetricRepository;
+        this.balanceConfig = balanceConfig;
+        this.samples = new AtomicReferenceArray<>(Math.max(2, balanceConfig.getTrendBufferSize()));
+    }
+
+    /**
+     * Seed the buffer with the most recent persisted samples
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        int capacity = samples.length();
+        List<SystemMetric> freedomMetrics = systemMetricRepository.findRecentByMetricName(FREEDOM_METRIC, capacity);
+        List<SystemMetric> securityMetrics = systemMetricRepository.findRecentByMetricName(SECURITY_METRIC, capacity);
+
+        // An unchanged value is not persisted again, so the two series can differ in length.
+        // Join them on recorded_at, oldest first, carrying the last value of each forward;
+        // a sample exists only once both metrics have a value.
+        int f = freedomMetrics.size() - 1;
+        int s = securityMetrics.size() - 1;
+        Double freedom = null;
+        Double security = null;
+        int count = 0;
+        while (f >= 0 || s >= 0) {
+            LocalDateTime recordedAt = earliest(f >= 0 ? freedomMetrics.get(f).getRecordedAt() : null,
+                                                s >= 0 ? securityMetrics.get(s).getRecordedAt() : null);
+            while (f >= 0 && recordedAt.equals(freedomMetrics.get(f).getRecordedAt())) {
+                freedom = freedomMetrics.get(f--).getMetricValue().doubleValue();
+            }
+            while (s >= 0 && recordedAt.equals(securityMetrics.get(s).getRecordedAt())) {
+                security = securityMetrics.get(s--).getMetricValue().doubleValue();
+            }
+            if (freedom != null && security != null) {
+                append(freedom, security);
+                count++;
+            }
+        }
+
+        log.info("Balance trend buffer seeded with {} samples", Math.min(count, capacity));
+    }
+
+    /**
+     * Record a new system balance sample
+     */
+    public void append(double freedom, double security) {
+        long seq = sequence.getAndIncrement();
+        samples.set(index(seq), new Sample(seq, freedom, security));
+    }
+
+    /**
+     * Trend statistics of the given current levels relative to the recorded samples.
+     * The newest sample is skipped when it is the current levels themselves, as it is once the
+     * snapshot holder has recorded the current totals.
+     */
+    public TrendStats analyze(double currentFreedom, double currentSecurity) {
+        int window = Math.max(2, Math.min(balanceConfig.getTrendSlopeSamples(), samples.length()));
+        double[] freedom = new double[window];
+        double[] security = new double[window];
+
+        // Newest sample is the current level, older samples follow from the buffer
+        freedom[window - 1] = currentFreedom;
+        security[window - 1] = currentSecurity;
+        int count = 1;
+
+        long head = sequence.get() - 1;
+        boolean newest = true;
+        for (long seq = head; seq >= 0 && seq > head - samples.length() && count < window; seq--) {
+            Sample sample = samples.get(index(seq));
+            if (sample == null || sample.sequence() != seq) {
+                continue; // Overwritten or not yet published
+            }
+            if (newest) {
+                newest = false;
+                if (sample.freedom() == currentFreedom && sample.security() == currentSecurity) {
+                    continue; // Already the current point
+                }
+            }
+            freedom[window - 1 - count] = sample.freedom();
+            security[window - 1 - count] = sample.security();
+            count++;
+        }
+
+        int from = window - count;
+        String trend = "STABLE";
+        if (count > 1) {
+            double freedomChange = currentFreedom - freedom[window - 2];
+            if (Math.abs(freedomChange) >= STABLE_THRESHOLD) {
+                trend = freedomChange > 0 ? "FREEDOM_INCREASING" : "SECURITY_INCREASING";
+            }
+        }
+
+        return new TrendStats(trend,
+            slope(freedom, from, window), slope(security, from, window),
+            volatility(freedom, from, window), volatility(security, from, window),
+            count);
+    }
+
+    /**
+     * Number of samples currently held
+     */
+    public int size() {
+        return (int) Math.min(sequence.get(), samples.length());
+    }
+
+    // Private helper methods
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+
+    private int index(long seq) {
+        return (int) (seq % samples.length());
+    }
+
+    // Least-squares slope per sample
+    private static double slope(double[] values, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            return 0.0;
+        }
+
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanY += values[i];
+        }
+        meanY /= n;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = from; i < to; i++) {
+            double dx = (i - from) - meanX;
+            covariance += dx * (values[i] - meanY);
+            variance += dx * dx;
+        }
+        return covariance / variance;
+    }
+
+    // Standard deviation of sample-to-sample changes
+    private static double volatility(double[] values, int from, int to) {
+        int n = to - from - 1;
+        if (n < 1) {
+            return 0.0;
+        }
+
+        double mean = (values[to - 1] - values[from]) / n;
+        double sumSquares = 0;
+        for (int i = from + 1; i < to; i++) {
+            double deviation = (values[i] - values[i - 1]) - mean;
+            sumSquares += deviation * deviation;
+        }
+        return Math.sqrt(sumSquares / n);
+    }
+
+    private record Sample(long sequence, double freedom, double security) {
+    }
+
+    /**
+     * Trend classification with slope (per sample) and volatility over the recent window
+     */
+    public record TrendStats(String trend, double freedomSlope, double securitySlope,
+                             double freedomVolatility, double securityVolatility, int sampleCount) {
+    }
+}
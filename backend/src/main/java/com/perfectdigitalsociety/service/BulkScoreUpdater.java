@@ -0,0 +1,121 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Set-based score updates over all users.
+ * Users are processed in id-range chunks of bounded size with clamped UPDATE statements,
+ * so no entity is loaded and only rows whose scores actually change are written.
+ * Each chunk commits in its own transaction, so row locks are held for one chunk only,
+ * and the rows it changed are copied into {@link ScoreStore} once it has committed.
+ * Callers should not run in a transaction of their own: it would hold a second pooled
+ * connection for the whole run, and deadlock on any user row it has already written.
+ */
+@Component
+@Slf4j
+public class BulkScoreUpdater {
+    
+    private static final int MAX_DESCRIPTION_LENGTH = 255; // balance_events.event_description
+    
+    private final UserRepository userRepository;
+    private final ScoreStore scoreStore;
+    private final BalanceConfig balanceConfig;
+    private final TransactionTemplate transactionTemplate;
+    
+    public BulkScoreUpdater(UserRepository userRepository,
+                            ScoreStore scoreStore,
+                            BalanceConfig balanceConfig,
+                            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.scoreStore = scoreStore;
+        this.balanceConfig = balanceConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Add clamped deltas to the scores of all active users
+     * @return number of users whose scores changed
+     */
+    public int adjustActiveScores(int freedomDelta, int securityDelta) {
+        if (freedomDelta == 0 && securityDelta == 0) {
+            return 0;
+        }
+        
+        return runInChunks("adjust active scores", (fromId, toId) ->
+            userRepository.adjustActiveScoresInRange(freedomDelta, securityDelta, fromId, toId));
+    }
+    
+    /**
+     * Set freedom and security scores of all active users
+     * @return number of users whose scores changed
+     */
+    public int resetActiveScores(int freedomScore, int securityScore) {
+        return runInChunks("reset active scores", (fromId, toId) ->
+            userRepository.resetActiveScoresInRange(freedomScore, securityScore, fromId, toId));
+    }
+    
+    /**
+     * Set freedom, security and reputation scores of all users
+     * @return number of users whose scores changed
+     */
+    public int resetAllScores(int freedomScore, int securityScore, int reputationScore) {
+        return runInChunks("reset all scores", (fromId, toId) ->
+            userRepository.resetAllScoresInRange(freedomScore, securityScore, reputationScore, fromId, toId));
+    }
+    
+    /**
+     * Balance event description for a bulk update, truncated so the affected count always fits the column
+     */
+    static String describeAffected(String description, int affectedCount) {
+        String suffix = " (" + affectedCount + " users affected)";
+        String base = description != null ? description : "";
+        int maxLength = MAX_DESCRIPTION_LENGTH - suffix.length();
+        if (base.length() > maxLength) {
+            base = base.substring(0, maxLength);
+        }
+        return base + suffix;
+    }
+    
+    private int runInChunks(String operation, ChunkUpdate update) {
+        UserRepository.IdRange range = userRepository.getUserIdRange();
+        if (range == null || range.getMinId() == null) {
+            return 0;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        long chunkSize = Math.max(1, balanceConfig.getBulkChunkSize());
+        int affected = 0;
+        int chunks = 0;
+        
+        for (long fromId = range.getMinId(); fromId <= range.getMaxId(); fromId += chunkSize) {
+            long from = fromId;
+            long to = Math.min(range.getMaxId(), fromId + chunkSize - 1);
+            Integer updated = transactionTemplate.execute(status -> {
+                List<UserRepository.ScoreRow> rows = update.apply(from, to);
+                // Registered on the chunk's own transaction: the store takes the new values when it commits
+                rows.forEach(scoreStore::update);
+                return rows.size();
+            });
+            affected += updated != null ? updated : 0;
+            chunks++;
+        }
+        
+        log.info("Bulk {} completed - {} users updated in {} chunks ({} ms)",
+                operation, affected, chunks, System.currentTimeMillis() - startTime);
+        return affected;
+    }
+    
+    @FunctionalInterface
+    private interface ChunkUpdate {
+        List<UserRepository.ScoreRow> apply(long fromId, long toId);
+    }
+}
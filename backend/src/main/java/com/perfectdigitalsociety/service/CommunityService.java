@@ -13,7 +13,6 @@ import com.perfectdigitalsociety.exception.UserNotFoundException;
 import com.perfectdigitalsociety.mapper.CommunityMapper;
 import com.perfectdigitalsociety.repository.CommunityRuleRepository;
 import com.perfectdigitalsociety.repository.MessageRepository;
-import com.perfectdigitalsociety.repository.SystemMetricRepository;
 import com.perfectdigitalsociety.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,8 +32,9 @@ public class CommunityService {
     private final CommunityRuleRepository communityRuleRepository;
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
-    private final SystemMetricRepository systemMetricRepository;
     private final CommunityMapper communityMapper;
+    private final ScoreStore scoreStore;
+    private final MetricRecorder metricRecorder;
     
     // Business Logic Methods as specified in documentation
     
@@ -64,6 +64,7 @@ public class CommunityService {
         // Update creator's reputation
         creator.setReputationScore(creator.getReputationScore() + 5);
         userRepository.save(creator);
+        scoreStore.update(creator);
         
         log.info("Community rule created successfully with ID: {}", savedRule.getId());
         return communityMapper.toCommunityRuleResponse(savedRule);
@@ -103,6 +104,7 @@ public class CommunityService {
         // Update voter's reputation
         voter.setReputationScore(voter.getReputationScore() + 1);
         userRepository.save(voter);
+        scoreStore.update(voter);
         
         // Calculate vote statistics
         VoteResponse response = new VoteResponse();
@@ -119,23 +121,26 @@ public class CommunityService {
     /**
      * Analyze community metrics
      */
+    @Transactional(readOnly = true)
     public CommunityMetricsResponse analyzeMetrics() {
         log.info("Analyzing community metrics");
         
         // Gather community statistics
         Long totalUsers = userRepository.count();
-        Long activeUsers = userRepository.countActiveUsers();
         Long totalMessages = messageRepository.count();
         Long flaggedMessages = messageRepository.countFlaggedMessages();
         
-        Double averageFreedomScore = userRepository.getAverageFreedomScore();
-        Double averageSecurityScore = userRepository.getAverageSecurityScore();
-        Double averageReputationScore = userRepository.getAverageReputationScore();
+        // Score statistics come from the in-memory score store
+        ScoreStore.ActiveStats activeStats = scoreStore.activeStats();
+        Long activeUsers = activeStats.count();
+        Double averageFreedomScore = activeStats.averageFreedom();
+        Double averageSecurityScore = activeStats.averageSecurity();
+        Double averageReputationScore = activeStats.averageReputation();
         
         // Calculate community health score
         Double communityHealth = calculateCommunityHealth(activeUsers, totalUsers, flaggedMessages, totalMessages);
         
-        // Save metrics
+        // Record metrics (buffered, persisted in batches)
         saveMetric("total_users", BigDecimal.valueOf(totalUsers));
         saveMetric("active_users", BigDecimal.valueOf(activeUsers));
         saveMetric("community_health", BigDecimal.valueOf(communityHealth));
@@ -161,6 +166,7 @@ public class CommunityService {
     /**
      * Generate community reports
      */
+    @Transactional(readOnly = true)
     public String generateReports() {
         log.info("Generating community reports");
         
@@ -306,13 +312,7 @@ public class CommunityService {
     }
     
     private void saveMetric(String metricName, BigDecimal value) {
-        SystemMetric metric = new SystemMetric();
-        metric.setMetricName(metricName);
-        metric.setMetricValue(value);
-        metric.setMetricType(SystemMetric.MetricType.ACTIVITY);
-        metric.setCalculationPeriod(SystemMetric.CalculationPeriod.REAL_TIME);
-        metric.setMetadata("{}");
-        systemMetricRepository.save(metric);
+        metricRecorder.record(metricName, value, SystemMetric.MetricType.ACTIVITY, SystemMetric.CalculationPeriod.REAL_TIME);
     }
 }
 
@@ -0,0 +1,138 @@
+package com.perfectdigitalsociety.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.dto.response.MessageResponse;
+import com.perfectdigitalsociety.mapper.BalanceMapper;
+import com.perfectdigitalsociety.mapper.MessageMapper;
+import com.perfectdigitalsociety.repository.BalanceEventRepository;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes full table dumps as NDJSON, one response object per line.
+ * Rows are streamed through a server-side cursor inside a read-only transaction,
+ * mapped on the fly and detached right after being written, so heap usage does not
+ * depend on the number of exported rows.
+ */
+@Component
+@Slf4j
+public class DataExporter {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final MessageRepository messageRepository;
+    private final BalanceEventRepository balanceEventRepository;
+    private final MessageMapper messageMapper;
+    private final BalanceMapper balanceMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public DataExporter(MessageRepository messageRepository,
+                        BalanceEventRepository balanceEventRepository,
+                        MessageMapper messageMapper,
+                        BalanceMapper balanceMapper,
+                        EntityManager entityManager,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager) {
+        this.messageRepository = messageRepository;
+        this.balanceEventRepository = balanceEventRepository;
+        this.messageMapper = messageMapper;
+        this.balanceMapper = balanceMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Write messages created within [from, to) in creation order; null bounds are open
+     * @return number of exported messages
+     */
+    public long exportMessages(LocalDateTime from, LocalDateTime to, OutputStream output) {
+        return export("messages", output, MessageResponse.class,
+            () -> messageRepository.streamByDateRange(lowerBound(from), upperBound(to)),
+            messageMapper::toMessageResponse,
+            message -> {
+                entityManager.detach(message);
+                entityManager.detach(message.getUser());
+            });
+    }
+
+    /**
+     * Write balance events created within [from, to) in creation order; null bounds are open
+     * @return number of exported events
+     */
+    public long exportBalanceEvents(LocalDateTime from, LocalDateTime to, OutputStream output) {
+        return export("balance events", output, BalanceEventResponse.class,
+            () -> balanceEventRepository.streamByDateRange(lowerBound(from), upperBound(to)),
+            balanceMapper::toBalanceEventResponse,
+            event -> {
+                entityManager.detach(event);
+                if (event.getTriggeredBy() != null) {
+                    entityManager.detach(event.getTriggeredBy());
+                }
+            });
+    }
+
+    // Private helper methods
+
+    private <E, R> long export(String name, OutputStream output, Class<R> responseType,
+                               Supplier<Stream<E>> query,
+                               Function<E, R> mapper, Consumer<E> detach) {
+        long startTime = System.currentTimeMillis();
+        // Flushing is left to the generator buffer instead of once per row
+        ObjectWriter writer = objectMapper.writerFor(responseType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        Long exported = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<E> rows = query.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+                Iterator<E> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    E row = iterator.next();
+                    writer.writeValue(generator, mapper.apply(row));
+                    generator.writeRaw('\n');
+                    detach.accept(row);
+                    count++;
+                }
+            } catch (IOException e) {
+                // Usually the client went away; the read-only transaction is simply rolled back
+                throw new UncheckedIOException("Export of " + name + " aborted after " + count + " rows", e);
+            }
+            return count;
+        });
+
+        log.info("Exported {} {} in {} ms", exported, name, System.currentTimeMillis() - startTime);
+        return exported != null ? exported : 0;
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static LocalDateTime upperBound(LocalDateTime to) {
+        return to != null ? to : LATEST;
+    }
+}
\ No newline at end of file
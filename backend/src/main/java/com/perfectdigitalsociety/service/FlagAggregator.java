@@ -0,0 +1,226 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.exception.UserNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates message flags in memory so a flag storm does not turn into contended row writes.
+ * Each flagged message has a counter holding its live flag count, which the hide threshold
+ * is checked against, the flags whose transaction is still open and the committed flags not
+ * yet written. Only committed flags are ever written or penalized. Counters are updated with
+ * atomic operations only; the request thread never locks the message or author rows.
+ *
+ * Every aggregation window {@link #flush()} adds the unwritten flags to messages.flag_count
+ * in one JDBC batch and applies one balance penalty per author for the number of committed
+ * flags on their messages. Counters idle for a whole window are dropped, after which the
+ * persisted flag_count is authoritative again.
+ */
+@Component
+@Slf4j
+public class FlagAggregator {
+
+    private static final String UPDATE_SQL = "UPDATE messages SET flag_count = COALESCE(flag_count, 0) + ? WHERE id = ?";
+
+    // Balance penalty per flag, as previously applied on every flag
+    static final int FREEDOM_PENALTY = -5;
+    static final int SECURITY_ADJUSTMENT = 5;
+
+    private final BalanceService balanceService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, FlagCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> deferredPenalties = new HashMap<>(); // guarded by this
+
+    public FlagAggregator(BalanceService balanceService,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.balanceService = balanceService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count a new flag in the live count at once; it is queued for writing when the current
+     * transaction commits and taken back if it rolls back
+     * @param persistedCount flag_count read from the database, used when the message has no counter yet
+     * @return live flag count of the message including this flag
+     */
+    public int record(Long messageId, Long authorId, int persistedCount) {
+        while (true) {
+            FlagCounter counter = counters.computeIfAbsent(messageId, id -> new FlagCounter(authorId, persistedCount));
+            int total = counter.begin();
+            if (total != FlagCounter.RETIRED) {
+                // An open flag keeps the counter from being retired until its transaction completes
+                TransactionHooks.afterCommit(counter::commit);
+                TransactionHooks.afterRollback(counter::rollback);
+                return total;
+            }
+            // Retired by a flush in the meantime; its flags are persisted, so start over from the database count
+            counters.remove(messageId, counter);
+        }
+    }
+
+    /**
+     * Write unwritten flag counts in one batch and apply one net balance penalty per author
+     * @return number of messages whose flag count was written
+     */
+    public synchronized int flush() {
+        List<Drained> batch = new ArrayList<>();
+        for (Map.Entry<Long, FlagCounter> entry : counters.entrySet()) {
+            FlagCounter counter = entry.getValue();
+            if (counter.retireIfIdle()) {
+                counters.remove(entry.getKey(), counter);
+                continue;
+            }
+            int delta = counter.drain();
+            if (delta != 0) {
+                batch.add(new Drained(entry.getKey(), counter, delta));
+            }
+        }
+
+        Map<Long, Integer> penalties = new HashMap<>(deferredPenalties);
+        deferredPenalties.clear();
+
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, drained) -> {
+                        ps.setInt(1, drained.delta());
+                        ps.setLong(2, drained.messageId());
+                    }));
+            } catch (RuntimeException e) {
+                // Give the flags back so the next window retries them, penalties included
+                batch.forEach(drained -> drained.counter().restore(drained.delta()));
+                deferredPenalties.putAll(penalties);
+                throw e;
+            }
+            for (Drained drained : batch) {
+                penalties.merge(drained.counter().authorId(), drained.delta(), Integer::sum);
+            }
+        }
+
+        penalties.forEach(this::applyPenalty);
+
+        if (!batch.isEmpty()) {
+            log.debug("Flushed flag counts of {} messages, {} authors penalized, {} counters live",
+                    batch.size(), penalties.size(), counters.size());
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush message flags on shutdown, {} counters lost", counters.size(), e);
+        }
+    }
+
+    // Private helper methods
+
+    private void applyPenalty(Long authorId, Integer flags) {
+        if (flags <= 0) {
+            return;
+        }
+        try {
+            balanceService.adjustBalance(authorId, FREEDOM_PENALTY * flags, SECURITY_ADJUSTMENT * flags,
+                    flags == 1 ? "Message flagged by community" : flags + " message flags by community");
+        } catch (UserNotFoundException e) {
+            log.warn("Dropping flag penalty of {} flags for missing user ID: {}", flags, authorId);
+        } catch (Exception e) {
+            synchronized (this) {
+                deferredPenalties.merge(authorId, flags, Integer::sum);
+            }
+            log.error("Failed to apply flag penalty for user ID: {}, retrying next window", authorId, e);
+        }
+    }
+
+    private record Drained(Long messageId, FlagCounter counter, int delta) {
+    }
+
+    /**
+     * Live flag count of one message, plus its open and unwritten flags packed in one state
+     * word (open flags in the high half, committed unwritten flags in the low half) so both
+     * change together atomically. A flush retires an idle counter by swapping an all-zero
+     * state for RETIRED, after which writers replace it instead of counting into it.
+     */
+    private static final class FlagCounter {
+        private static final int RETIRED = Integer.MIN_VALUE;
+        private static final long RETIRED_STATE = -1L;
+        private static final long ONE_OPEN = 1L << 32;
+        private static final long UNWRITTEN_MASK = 0xFFFFFFFFL;
+
+        private final Long authorId;
+        private final AtomicInteger total;
+        private final AtomicLong state = new AtomicLong();
+        private volatile boolean touched = true;
+
+        FlagCounter(Long authorId, int initialCount) {
+            this.authorId = authorId;
+            this.total = new AtomicInteger(initialCount);
+        }
+
+        Long authorId() {
+            return authorId;
+        }
+
+        // Open a flag: new live count, or RETIRED when the counter must be replaced
+        int begin() {
+            long current;
+            do {
+                current = state.get();
+                if (current == RETIRED_STATE) {
+                    return RETIRED;
+                }
+            } while (!state.compareAndSet(current, current + ONE_OPEN));
+            touched = true;
+            return total.incrementAndGet();
+        }
+
+        // The open flag committed: it becomes unwritten. Open flags keep the counter from retiring.
+        void commit() {
+            state.addAndGet(1 - ONE_OPEN);
+            touched = true;
+        }
+
+        // The open flag rolled back: it leaves the live count and is never written
+        void rollback() {
+            state.addAndGet(-ONE_OPEN);
+            total.decrementAndGet();
+        }
+
+        // Unflagged since the previous drain, no open flags and fully written: safe to drop
+        boolean retireIfIdle() {
+            return !touched && state.compareAndSet(0, RETIRED_STATE);
+        }
+
+        // Only called by the flushing thread, which is the only one retiring counters
+        int drain() {
+            touched = false;
+            long current;
+            do {
+                current = state.get();
+            } while (!state.compareAndSet(current, current & ~UNWRITTEN_MASK));
+            return (int) (current & UNWRITTEN_MASK);
+        }
+
+        void restore(int delta) {
+            state.addAndGet(delta);
+        }
+    }
+}
\ No newline at end of file
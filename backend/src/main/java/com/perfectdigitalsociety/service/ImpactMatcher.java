@@ -0,0 +1,212 @@
+package com.perfectdigitalsociety.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Immutable Aho-Corasick automaton scoring message content for freedom and security impact.
+ * Keywords are case-folded at compile time and content is folded char by char while
+ * scanning, so both dimensions are scored in one pass without copying the content.
+ * Each keyword counts at most once per message, like the original per-keyword contains check.
+ */
+public final class ImpactMatcher {
+
+    private static final int ASCII = 128;
+
+    private final Keyword[] keywords;
+    private final int freedomCap;
+    private final int securityCap;
+
+    // Alphabet of folded keyword chars; class 0 is any other char
+    private final int[] asciiClasses;
+    private final char[] otherChars;
+    private final int alphabetSize;
+
+    // Full transition table (state * alphabetSize + class) and matches per state, output links included
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private ImpactMatcher(Keyword[] keywords, int freedomCap, int securityCap) {
+        this.keywords = keywords;
+        this.freedomCap = freedomCap;
+        this.securityCap = securityCap;
+
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (Keyword keyword : keywords) {
+            for (char c : keyword.text().toCharArray()) {
+                alphabet.add(c);
+            }
+        }
+
+        this.asciiClasses = new int[ASCII];
+        List<Character> others = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < ASCII) {
+                asciiClasses[c] = nextClass++;
+            } else {
+                others.add(c);
+            }
+        }
+        this.otherChars = new char[others.size()];
+        for (int i = 0; i < otherChars.length; i++) {
+            otherChars[i] = others.get(i);
+        }
+        this.alphabetSize = nextClass + otherChars.length;
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        trie.add(new int[alphabetSize]);
+        matches.add(new ArrayList<>());
+        for (int k = 0; k < keywords.length; k++) {
+            int state = 0;
+            for (char c : keywords[k].text().toCharArray()) {
+                int charClass = classOf(c);
+                if (trie.get(state)[charClass] == 0) {
+                    trie.get(state)[charClass] = trie.size();
+                    trie.add(new int[alphabetSize]);
+                    matches.add(new ArrayList<>());
+                }
+                state = trie.get(state)[charClass];
+            }
+            matches.get(state).add(k);
+        }
+
+        // Breadth-first failure links, turning the trie into a complete automaton
+        int states = trie.size();
+        int[] failure = new int[states];
+        this.transitions = new int[states * alphabetSize];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int charClass = 1; charClass < alphabetSize; charClass++) {
+            int child = trie.get(0)[charClass];
+            transitions[charClass] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(failure[state]));
+            for (int charClass = 1; charClass < alphabetSize; charClass++) {
+                int child = trie.get(state)[charClass];
+                int fallback = transitions[failure[state] * alphabetSize + charClass];
+                if (child != 0) {
+                    failure[child] = fallback;
+                    transitions[state * alphabetSize + charClass] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * alphabetSize + charClass] = fallback;
+                }
+            }
+        }
+
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Compile keywords into a matcher; blank keywords are ignored and a repeated
+     * keyword within a dimension keeps its last weight
+     */
+    public static ImpactMatcher compile(List<Keyword> keywords, int freedomCap, int securityCap) {
+        Map<String, Keyword> folded = new LinkedHashMap<>();
+        for (Keyword keyword : keywords) {
+            String text = fold(keyword.text());
+            if (!text.isEmpty()) {
+                folded.put(keyword.dimension() + ":" + text, new Keyword(text, keyword.dimension(), keyword.weight()));
+            }
+        }
+        return new ImpactMatcher(folded.values().toArray(new Keyword[0]), freedomCap, securityCap);
+    }
+
+    /**
+     * Score content in a single case-insensitive pass
+     */
+    public Impact score(CharSequence content) {
+        if (content == null || keywords.length == 0) {
+            return new Impact(0, 0);
+        }
+
+        boolean[] seen = new boolean[keywords.length];
+        int freedom = 0;
+        int security = 0;
+        int state = 0;
+        for (int i = 0, length = content.length(); i < length; i++) {
+            state = transitions[state * alphabetSize + classOf(fold(content.charAt(i)))];
+            for (int match : outputs[state]) {
+                if (!seen[match]) {
+                    seen[match] = true;
+                    Keyword keyword = keywords[match];
+                    if (keyword.dimension() == Dimension.FREEDOM) {
+                        freedom += keyword.weight();
+                    } else {
+                        security += keyword.weight();
+                    }
+                }
+            }
+        }
+
+        return new Impact(Math.min(freedom, freedomCap), Math.min(security, securityCap));
+    }
+
+    public int keywordCount(Dimension dimension) {
+        int count = 0;
+        for (Keyword keyword : keywords) {
+            if (keyword.dimension() == dimension) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    // Private helper methods
+
+    private int classOf(char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index >= 0 ? alphabetSize - otherChars.length + index : 0;
+    }
+
+    private static char fold(char c) {
+        if (c < ASCII) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (char c : text.trim().toCharArray()) {
+            folded.append(fold(c));
+        }
+        return folded.toString();
+    }
+
+    public enum Dimension {
+        FREEDOM, SECURITY
+    }
+
+    public record Keyword(String text, Dimension dimension, int weight) {
+    }
+
+    public record Impact(int freedom, int security) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.perfectdigitalsociety.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfectdigitalsociety.config.MessageConfig;
+import com.perfectdigitalsociety.dto.response.MessageResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process fan-out of message changes to Server-Sent Events subscribers.
+ * Each change is serialized once after commit, numbered and kept in a ring of recent
+ * events, then appended to every subscriber's bounded buffer. Buffers are drained on
+ * the stream executor only while they hold events, so idle subscribers use no thread.
+ *
+ * A subscriber whose buffer is full is evicted as a slow consumer; like any client
+ * that lost its connection it reconnects with Last-Event-ID and is replayed the events
+ * it missed from the ring. When those are no longer available it receives a RESET
+ * event and should reload the feed.
+ *
+ * Every authenticated user may subscribe, so a message that is no longer visible is
+ * published as a tombstone carrying only its id, moderation status and visibility.
+ */
+@Component
+@Slf4j
+public class MessageEventBroadcaster {
+
+    private static final String RESET = "RESET";
+
+    private final MessageConfig messageConfig;
+    private final ObjectMapper objectMapper;
+    private final Executor messageStreamExecutor;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Ring of recent events, guarded by this; ids start from the startup time so ids of a previous run are never replayed
+    private final MessageEvent[] recent;
+    private final long startEventId = System.currentTimeMillis() * 1000;
+    private long lastEventId = startEventId;
+
+    public MessageEventBroadcaster(MessageConfig messageConfig,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier("messageStreamExecutor") Executor messageStreamExecutor) {
+        this.messageConfig = messageConfig;
+        this.objectMapper = objectMapper;
+        this.messageStreamExecutor = messageStreamExecutor;
+        this.recent = new MessageEvent[Math.max(1, messageConfig.getStreamReplaySize())];
+    }
+
+    /**
+     * Broadcast a message change once the current transaction commits
+     */
+    public void publish(EventType type, MessageResponse message) {
+        TransactionHooks.afterCommit(() -> broadcast(type, message));
+    }
+
+    /**
+     * Register a subscriber, replaying the events after lastEventId when one is given
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(messageConfig.getStreamTimeoutMillis()));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, Math.max(1, messageConfig.getStreamBufferSize()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+
+        // Replay and registration happen under the lock, so no event is missed or delivered twice
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<MessageEvent> missed = eventsAfter(lastEventId.trim());
+                if (missed != null) {
+                    subscriber.preload(missed);
+                } else {
+                    subscriber.preload(List.of(new MessageEvent(this.lastEventId, RESET, null)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        schedule(subscriber);
+        log.debug("Message stream subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Queue a heartbeat comment for every subscriber, which also detects dead connections
+     */
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, MessageEvent.HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.forEach(this::close);
+    }
+
+    // Private helper methods
+
+    private void broadcast(EventType type, MessageResponse message) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(Boolean.FALSE.equals(message.getIsVisible()) ? tombstone(message) : message);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event of message ID: {}", type, message.getId(), e);
+            return;
+        }
+
+        synchronized (this) {
+            MessageEvent event = new MessageEvent(++lastEventId, type.name(), data);
+            recent[(int) (event.id() % recent.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                offer(subscriber, event);
+            }
+        }
+    }
+
+    // Hidden and rejected content must not reach subscribers who could not read it through the API
+    private static Map<String, Object> tombstone(MessageResponse message) {
+        Map<String, Object> tombstone = new LinkedHashMap<>();
+        tombstone.put("id", message.getId());
+        tombstone.put("moderationStatus", message.getModerationStatus());
+        tombstone.put("isVisible", false);
+        return tombstone;
+    }
+
+    // Events after the given id, or null when that id is unknown or older than the ring
+    private List<MessageEvent> eventsAfter(String lastSeen) {
+        long afterId;
+        try {
+            afterId = Long.parseLong(lastSeen);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long oldestKept = Math.max(lastEventId - recent.length + 1, startEventId + 1);
+        if (afterId < oldestKept - 1 || afterId > lastEventId) {
+            return null;
+        }
+
+        List<MessageEvent> missed = new ArrayList<>();
+        for (long id = afterId + 1; id <= lastEventId; id++) {
+            missed.add(recent[(int) (id % recent.length)]);
+        }
+        return missed;
+    }
+
+    private void offer(Subscriber subscriber, MessageEvent event) {
+        if (!subscriber.offer(event)) {
+            // Slow consumer: drop it rather than buffer without bound; it resumes from Last-Event-ID
+            log.info("Evicting slow message stream subscriber after {} undelivered events", subscriber.capacity);
+            close(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.hasPending() || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            messageStreamExecutor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException e) {
+            subscriber.scheduled.set(false);
+            log.warn("Message stream executor saturated, closing subscriber");
+            close(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            MessageEvent event;
+            while ((event = subscriber.poll()) != null) {
+                subscriber.emitter.send(toSse(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter was completed meanwhile
+            log.debug("Message stream subscriber disconnected: {}", e.getMessage());
+            close(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+
+        // Events may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.closed) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.close()) {
+            try {
+                subscriber.emitter.complete();
+            } catch (Exception e) {
+                log.debug("Failed to complete message stream emitter: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(MessageEvent event) {
+        if (event == MessageEvent.HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().id(Long.toString(event.id())).name(event.type());
+        return event.data() != null ? builder.data(event.data(), MediaType.APPLICATION_JSON) : builder.data("");
+    }
+
+    /**
+     * Kinds of message change pushed to subscribers; the payload is the MessageResponse after the change,
+     * or its tombstone when the message is no longer visible
+     */
+    public enum EventType {
+        CREATED, UPDATED, FLAGGED, HIDDEN, MODERATED
+    }
+
+    /**
+     * A numbered event with its pre-serialized payload
+     */
+    private record MessageEvent(long id, String type, String data) {
+        static final MessageEvent HEARTBEAT = new MessageEvent(-1, "HEARTBEAT", null);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final ArrayDeque<MessageEvent> buffer = new ArrayDeque<>(); // guarded by this
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        // The replayed backlog may exceed the capacity once
+        synchronized void preload(List<MessageEvent> events) {
+            buffer.addAll(events);
+        }
+
+        synchronized boolean offer(MessageEvent event) {
+            if (closed) {
+                return true;
+            }
+            if (buffer.size() >= capacity) {
+                return false;
+            }
+            buffer.add(event);
+            return true;
+        }
+
+        synchronized MessageEvent poll() {
+            return closed ? null : buffer.poll();
+        }
+
+        synchronized boolean hasPending() {
+            return !closed && !buffer.isEmpty();
+        }
+
+        // True for the first close only
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            buffer.clear();
+            return true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.MessageConfig;
+import com.perfectdigitalsociety.dto.response.CursorPage;
+import com.perfectdigitalsociety.dto.response.FeedCacheStatsResponse;
+import com.perfectdigitalsociety.dto.response.MessageResponse;
+import com.perfectdigitalsociety.mapper.MessageMapper;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of the newest visible messages, pre-mapped to MessageResponse.
+ * First feed pages (and later pages still inside the window) are served from an
+ * immutable snapshot without locking; anything beyond the window goes to the database.
+ *
+ * Writes patch the window after commit instead of dropping it: new and re-approved
+ * messages are inserted at their position, edits replace their entry and hidden or
+ * deleted messages are removed. Writes committed while a rebuild is loading are
+ * replayed onto the loaded window, so it never misses a committed change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageFeedCache {
+
+    // Newest first, same order as the feed query
+    private static final Comparator<MessageResponse> FEED_ORDER = Comparator
+        .comparing(MessageResponse::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparing(MessageResponse::getId)
+        .reversed();
+
+    private final MessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final MessageConfig messageConfig;
+
+    private volatile Window window; // null until loaded
+    private List<Change> changesDuringRebuild; // guarded by this
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuiltAt;
+
+    /**
+     * Feed page continuing after the cursor, or null when it is not fully inside the cached window
+     */
+    public CursorPage<MessageResponse> page(KeysetCursor before, int pageSize) {
+        Window current = window != null ? window : rebuild();
+        if (current == null) {
+            misses.increment();
+            return null;
+        }
+
+        List<MessageResponse> messages = current.messages();
+        int start = firstAfter(messages, before);
+        int end = start + pageSize;
+
+        // One extra row must be known to decide whether another page follows, unless the window holds the whole feed
+        if (end >= messages.size() && !current.complete()) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        List<MessageResponse> items = messages.subList(start, Math.min(end, messages.size()));
+        String nextCursor = null;
+        if (end < messages.size()) {
+            MessageResponse last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * Record a created, edited or moderated message once the transaction commits; invisible messages are removed
+     */
+    public void put(MessageResponse message) {
+        TransactionHooks.afterCommit(() -> apply(message.getId(),
+            Boolean.TRUE.equals(message.getIsVisible()) ? message : null));
+    }
+
+    /**
+     * Drop a deleted or hidden message once the transaction commits
+     */
+    public void remove(Long messageId) {
+        TransactionHooks.afterCommit(() -> apply(messageId, null));
+    }
+
+    public FeedCacheStatsResponse getStats() {
+        Window current = window;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new FeedCacheStatsResponse(
+            current != null ? current.messages().size() : 0,
+            capacity(),
+            hitCount,
+            missCount,
+            total > 0 ? (double) hitCount / total : null,
+            rebuilds.get(),
+            lastRebuildMillis,
+            lastRebuiltAt
+        );
+    }
+
+    // Private helper methods
+
+    private Window rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            // Another request is loading the window; this one goes to the database meanwhile
+            if (changesDuringRebuild != null) {
+                return null;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        int capacity = capacity();
+        Window loaded = null;
+        try {
+            List<MessageResponse> messages = messageRepository
+                .findVisiblePage(KeysetCursor.LATEST.createdAt(), KeysetCursor.LATEST.id(), capacity)
+                .stream()
+                .map(messageMapper::toMessageResponse)
+                .toList();
+            loaded = new Window(messages, messages.size() < capacity);
+        } finally {
+            synchronized (this) {
+                List<Change> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                // Changes committed while loading may be missing from the rows read; patching is idempotent
+                if (loaded != null) {
+                    for (Change change : changes) {
+                        loaded = patch(loaded, change.messageId(), change.visibleMessage());
+                    }
+                    window = loaded;
+                }
+            }
+        }
+
+        rebuilds.incrementAndGet();
+        lastRebuildMillis = System.currentTimeMillis() - startTime;
+        lastRebuiltAt = LocalDateTime.now();
+        log.info("Message feed cache rebuilt - {} messages ({} ms)", loaded.messages().size(), lastRebuildMillis);
+        return loaded;
+    }
+
+    private synchronized void apply(Long messageId, MessageResponse visibleMessage) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(new Change(messageId, visibleMessage));
+        }
+        Window current = window;
+        if (current != null) {
+            window = patch(current, messageId, visibleMessage);
+        }
+    }
+
+    // Window with the message upserted (or removed when visibleMessage is null); the same window when unaffected
+    private Window patch(Window current, Long messageId, MessageResponse visibleMessage) {
+        List<MessageResponse> messages = new ArrayList<>(current.messages());
+        boolean removed = messages.removeIf(message -> message.getId().equals(messageId));
+        boolean complete = current.complete();
+
+        if (visibleMessage != null) {
+            int position = firstAfter(messages, visibleMessage, true);
+            // Older than the window's last message: not part of the cached prefix of the feed
+            if (position < messages.size() || complete) {
+                messages.add(position, visibleMessage);
+            } else if (!removed) {
+                return current;
+            }
+        } else if (!removed) {
+            return current;
+        }
+
+        int capacity = capacity();
+        if (messages.size() > capacity) {
+            messages = new ArrayList<>(messages.subList(0, capacity));
+            complete = false;
+        }
+        return new Window(List.copyOf(messages), complete);
+    }
+
+    private int capacity() {
+        return Math.max(1, messageConfig.getFeedCacheSize());
+    }
+
+    // Index of the first message strictly after the cursor in feed order
+    private static int firstAfter(List<MessageResponse> messages, KeysetCursor before) {
+        if (before == null || before.equals(KeysetCursor.LATEST)) {
+            return 0;
+        }
+        MessageResponse probe = new MessageResponse();
+        probe.setCreatedAt(before.createdAt());
+        probe.setId(before.id());
+        return firstAfter(messages, probe, false);
+    }
+
+    // Binary search for the insertion point of probe in feed order
+    private static int firstAfter(List<MessageResponse> messages, MessageResponse probe, boolean includeEqual) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = FEED_ORDER.compare(messages.get(middle), probe);
+            if (comparison < 0 || (comparison == 0 && !includeEqual)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Newest visible messages in feed order; complete when they are the whole feed
+     */
+    private record Window(List<MessageResponse> messages, boolean complete) {
+    }
+
+    /**
+     * Committed write to a message: its new response when visible, null when it left the feed
+     */
+    private record Change(Long messageId, MessageResponse visibleMessage) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.perfectdigitalsociety.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfectdigitalsociety.config.ImpactConfig;
+import com.perfectdigitalsociety.dto.response.ImpactDictionaryResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyword-based freedom and security impact of message content (would be enhanced with NLP).
+ * Every keyword found adds its weight once, and each dimension is capped.
+ *
+ * Keywords, weights and caps come from the JSON dictionary file configured by
+ * app.impact.dictionary-path, e.g. {"freedom": {"cap": 50, "keywords": {"liberty": 5}}, "security": {...}},
+ * or from the built-in lists while that file is absent. Each load compiles a new immutable
+ * {@link ImpactMatcher} and swaps it in with a volatile write, so scoring never locks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageImpactAnalyzer {
+
+    static final String[] FREEDOM_KEYWORDS = {"freedom", "liberty", "choice", "expression", "open", "transparent"};
+    static final String[] SECURITY_KEYWORDS = {"secure", "safe", "protect", "privacy", "moderation", "guidelines"};
+    static final int KEYWORD_WEIGHT = 5;
+    static final int IMPACT_CAP = 50;
+
+    private static final String BUILT_IN = "BUILT_IN";
+
+    private final ImpactConfig impactConfig;
+    private final ObjectMapper objectMapper;
+
+    private volatile Dictionary dictionary = compileBuiltIn();
+    private volatile FileTime failedModified; // file version that failed to load, not retried until it changes
+
+    @PostConstruct
+    void loadDictionary() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to load impact dictionary, using built-in keywords", e);
+        }
+    }
+
+    /**
+     * Freedom and security impact of the content
+     */
+    public ImpactMatcher.Impact analyze(String content) {
+        return dictionary.matcher().score(content);
+    }
+
+    /**
+     * Recompile the dictionary from its source and swap it in
+     */
+    public synchronized ImpactDictionaryResponse reload() throws IOException {
+        Path path = dictionaryPath();
+        Dictionary loaded;
+        if (path != null && Files.isRegularFile(path)) {
+            FileTime modified = Files.getLastModifiedTime(path);
+            try {
+                loaded = compileFile(path);
+            } catch (IOException | RuntimeException e) {
+                failedModified = modified;
+                throw e;
+            }
+        } else {
+            loaded = compileBuiltIn();
+        }
+        failedModified = null;
+        dictionary = loaded;
+
+        log.info("Impact dictionary loaded from {}: {} freedom and {} security keywords, {} states in {} ms",
+                loaded.source(), loaded.freedomKeywords(), loaded.securityKeywords(),
+                loaded.matcher().stateCount(), loaded.compileMillis());
+        return toResponse(loaded);
+    }
+
+    /**
+     * Reload when the dictionary file appeared, changed or was removed since the last load.
+     * A file version that failed to load is skipped until it changes again.
+     */
+    public void reloadIfChanged() throws IOException {
+        Path path = dictionaryPath();
+        FileTime modified = path != null && Files.isRegularFile(path) ? Files.getLastModifiedTime(path) : null;
+        Dictionary current = dictionary;
+        boolean changed = modified == null
+            ? !BUILT_IN.equals(current.source())
+            : !modified.equals(current.modified()) && !modified.equals(failedModified);
+        if (changed) {
+            reload();
+        }
+    }
+
+    public ImpactDictionaryResponse getDictionaryInfo() {
+        return toResponse(dictionary);
+    }
+
+    // Private helper methods
+
+    private Path dictionaryPath() {
+        String configured = impactConfig.getDictionaryPath();
+        return configured == null || configured.isBlank() ? null : Path.of(configured);
+    }
+
+    private Dictionary compileFile(Path path) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(path);
+        JsonNode root = objectMapper.readTree(path.toFile());
+
+        List<ImpactMatcher.Keyword> keywords = new ArrayList<>();
+        int freedomCap = readSection(root.path("freedom"), ImpactMatcher.Dimension.FREEDOM, keywords);
+        int securityCap = readSection(root.path("security"), ImpactMatcher.Dimension.SECURITY, keywords);
+        return compile(path.toString(), modified, keywords, freedomCap, securityCap);
+    }
+
+    private static int readSection(JsonNode section, ImpactMatcher.Dimension dimension, List<ImpactMatcher.Keyword> keywords) {
+        JsonNode entries = section.path("keywords");
+        if (!entries.isMissingNode() && !entries.isObject()) {
+            throw new IllegalArgumentException("Impact dictionary keywords must be an object of keyword to weight: " + dimension);
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> fields = entries.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            if (!entry.getValue().canConvertToInt()) {
+                throw new IllegalArgumentException("Invalid weight for impact keyword: " + entry.getKey());
+            }
+            keywords.add(new ImpactMatcher.Keyword(entry.getKey(), dimension, entry.getValue().intValue()));
+        }
+        return section.path("cap").asInt(IMPACT_CAP);
+    }
+
+    private static Dictionary compileBuiltIn() {
+        List<ImpactMatcher.Keyword> keywords = new ArrayList<>();
+        for (String keyword : FREEDOM_KEYWORDS) {
+            keywords.add(new ImpactMatcher.Keyword(keyword, ImpactMatcher.Dimension.FREEDOM, KEYWORD_WEIGHT));
+        }
+        for (String keyword : SECURITY_KEYWORDS) {
+            keywords.add(new ImpactMatcher.Keyword(keyword, ImpactMatcher.Dimension.SECURITY, KEYWORD_WEIGHT));
+        }
+        return compile(BUILT_IN, null, keywords, IMPACT_CAP, IMPACT_CAP);
+    }
+
+    private static Dictionary compile(String source, FileTime modified, List<ImpactMatcher.Keyword> keywords,
+                                      int freedomCap, int securityCap) {
+        long startTime = System.nanoTime();
+        ImpactMatcher matcher = ImpactMatcher.compile(keywords, freedomCap, securityCap);
+        long compileMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        return new Dictionary(source, modified, matcher,
+                matcher.keywordCount(ImpactMatcher.Dimension.FREEDOM),
+                matcher.keywordCount(ImpactMatcher.Dimension.SECURITY),
+                freedomCap, securityCap, compileMillis, LocalDateTime.now());
+    }
+
+    private static ImpactDictionaryResponse toResponse(Dictionary dictionary) {
+        return new ImpactDictionaryResponse(
+            dictionary.source(),
+            dictionary.freedomKeywords(),
+            dictionary.securityKeywords(),
+            dictionary.freedomCap(),
+            dictionary.securityCap(),
+            dictionary.matcher().stateCount(),
+            dictionary.compileMillis(),
+            dictionary.loadedAt()
+        );
+    }
+
+    private record Dictionary(String source, FileTime modified, ImpactMatcher matcher,
+                              int freedomKeywords, int securityKeywords, int freedomCap, int securityCap,
+                              long compileMillis, LocalDateTime loadedAt) {
+    }
+}
\ No newline at end of file
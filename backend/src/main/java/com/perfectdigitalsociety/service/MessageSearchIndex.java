@@ -0,0 +1,383 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the content of visible messages.
+ * Content is split into case-folded letter/digit tokens; each token maps to a postings
+ * list of message ids (ascending) with term frequencies. Searches intersect the postings
+ * of all query terms, shortest first, and rank matches with BM25. Pages continue after a
+ * {@link SearchCursor}, so a search only keeps one page of the ranking.
+ *
+ * Message writes are applied after commit. A rebuild loads the table in id-range chunks
+ * into a fresh index while changes made meanwhile are recorded and replayed before the
+ * fresh index replaces the live one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSearchIndex {
+
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Best score first, newer messages first on ties
+    private static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::score).reversed()
+        .thenComparing(Comparator.comparingLong(Match::messageId).reversed());
+
+    private final MessageRepository messageRepository;
+
+    private volatile Index index = new Index();
+    private List<Change> changesDuringRebuild; // guarded by this
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuiltAt;
+
+    /**
+     * Build the index once the application is ready, without delaying startup
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Index a message's current content, or drop it when it is no longer visible, once the transaction commits
+     */
+    public void update(Message message) {
+        update(message.getId(), Boolean.TRUE.equals(message.getIsVisible()) ? message.getContent() : null);
+    }
+
+    /**
+     * Index visible content, or drop the message when visibleContent is null, once the transaction commits
+     */
+    public void update(long messageId, String visibleContent) {
+        TransactionHooks.afterCommit(() -> apply(new Change(messageId, visibleContent)));
+    }
+
+    /**
+     * Reload the index from the messages table
+     */
+    public Stats rebuild() {
+        long startTime = System.currentTimeMillis();
+        Index fresh = new Index();
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("Search index rebuild already running");
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        boolean loaded = false;
+        try {
+            MessageRepository.IdRange range = messageRepository.getMessageIdRange();
+            if (range != null && range.getMinId() != null) {
+                for (long fromId = range.getMinId(); fromId <= range.getMaxId(); fromId += REBUILD_CHUNK_SIZE) {
+                    List<MessageRepository.SearchRow> rows = messageRepository.findSearchRowsInRange(
+                        fromId, Math.min(range.getMaxId(), fromId + REBUILD_CHUNK_SIZE - 1));
+                    for (MessageRepository.SearchRow row : rows) {
+                        fresh.put(row.getId(), row.getContent());
+                    }
+                }
+            }
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                List<Change> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                // A failed load keeps the live index, which has seen every change
+                if (loaded) {
+                    // Changes are idempotent upserts and removals, so replaying ones the load already saw is harmless
+                    for (Change change : changes) {
+                        fresh.apply(change);
+                    }
+                    index = fresh;
+                }
+            }
+        }
+
+        lastRebuildMillis = System.currentTimeMillis() - startTime;
+        lastRebuiltAt = LocalDateTime.now();
+        Stats stats = getStats();
+        log.info("Message search index rebuilt - {} messages, {} terms ({} ms)",
+                stats.documents(), stats.terms(), lastRebuildMillis);
+        return stats;
+    }
+
+    /**
+     * Visible messages containing every query term, best match first
+     * @param after position to continue after, or null for the first page
+     */
+    public SearchResult search(String query, SearchCursor after, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query).keySet());
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0, false);
+        }
+        return index.search(terms, after != null ? new Match(after.messageId(), after.score()) : null, limit);
+    }
+
+    public Stats getStats() {
+        return index.stats(lastRebuildMillis, lastRebuiltAt);
+    }
+
+    // Private helper methods
+
+    private synchronized void apply(Change change) {
+        index.apply(change);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    /**
+     * Case-folded letter/digit tokens with their frequencies, in order of first occurrence
+     */
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                if (token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH) {
+                    frequencies.merge(token.toString(), 1, Integer::sum);
+                }
+                token.setLength(0);
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * Index or remove (null content) a message
+     */
+    private record Change(long messageId, String content) {
+    }
+
+    /**
+     * A page of matches in ranking order; more is set when further matches follow the last one
+     */
+    public record SearchResult(List<Match> matches, int totalMatches, boolean more) {
+
+        public List<Long> messageIds() {
+            return matches.stream().map(Match::messageId).toList();
+        }
+    }
+
+    public record Stats(int documents, int terms, long lastRebuildMillis, LocalDateTime lastRebuiltAt) {
+    }
+
+    private record Document(String[] terms, int length) {
+    }
+
+    public record Match(long messageId, double score) {
+
+        public SearchCursor cursor() {
+            return new SearchCursor(score, messageId);
+        }
+    }
+
+    /**
+     * Postings of one term: ascending message ids with their term frequencies
+     */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(long id, int frequency) {
+            // New messages have the highest ids, so this is almost always an append
+            int position = size > 0 && ids[size - 1] >= id ? Arrays.binarySearch(ids, 0, size, id) : -(size + 1);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            position = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ids[position] = id;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+                size--;
+            }
+        }
+
+        // Position of id at or after from, or -1
+        int find(long id, int from) {
+            int position = Arrays.binarySearch(ids, from, size, id);
+            return position >= 0 ? position : -1;
+        }
+    }
+
+    private static final class Index {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        void apply(Change change) {
+            if (change.content() != null) {
+                put(change.messageId(), change.content());
+            } else {
+                remove(change.messageId());
+            }
+        }
+
+        void put(long messageId, String content) {
+            Map<String, Integer> frequencies = tokenize(content);
+            lock.writeLock().lock();
+            try {
+                removeLocked(messageId);
+                String[] terms = new String[frequencies.size()];
+                int length = 0;
+                int i = 0;
+                for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                    Postings termPostings = postings.computeIfAbsent(entry.getKey(), term -> new Postings());
+                    termPostings.add(messageId, entry.getValue());
+                    terms[i++] = entry.getKey();
+                    length += entry.getValue();
+                }
+                documents.put(messageId, new Document(terms, length));
+                totalLength += length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long messageId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(messageId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        SearchResult search(List<String> terms, Match after, int limit) {
+            lock.readLock().lock();
+            try {
+                Postings[] lists = new Postings[terms.size()];
+                double[] idf = new double[terms.size()];
+                int documentCount = documents.size();
+                for (int t = 0; t < lists.length; t++) {
+                    lists[t] = postings.get(terms.get(t));
+                    if (lists[t] == null) {
+                        return new SearchResult(List.of(), 0, false);
+                    }
+                }
+                Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+                for (int t = 0; t < lists.length; t++) {
+                    idf[t] = Math.log(1 + (documentCount - lists[t].size + 0.5) / (lists[t].size + 0.5));
+                }
+
+                double averageLength = documentCount > 0 ? (double) totalLength / documentCount : 1;
+                // One match beyond the page tells whether another page follows
+                int wanted = limit + 1;
+                PriorityQueue<Match> top = new PriorityQueue<>(RANKING.reversed());
+                int[] cursors = new int[lists.length];
+                int matches = 0;
+
+                Postings shortest = lists[0];
+                candidates:
+                for (int i = 0; i < shortest.size; i++) {
+                    long messageId = shortest.ids[i];
+                    for (int t = 1; t < lists.length; t++) {
+                        int position = lists[t].find(messageId, cursors[t]);
+                        if (position < 0) {
+                            continue candidates;
+                        }
+                        cursors[t] = position + 1;
+                    }
+                    matches++;
+
+                    int documentLength = documents.get(messageId).length();
+                    double norm = K1 * (1 - B + B * documentLength / averageLength);
+                    double score = 0;
+                    for (int t = 0; t < lists.length; t++) {
+                        int frequency = t == 0 ? shortest.frequencies[i] : lists[t].frequencies[cursors[t] - 1];
+                        score += idf[t] * frequency * (K1 + 1) / (frequency + norm);
+                    }
+
+                    Match match = new Match(messageId, score);
+                    if (after != null && RANKING.compare(match, after) <= 0) {
+                        continue; // On an earlier page
+                    }
+                    top.add(match);
+                    if (top.size() > wanted) {
+                        top.poll();
+                    }
+                }
+
+                List<Match> ranked = new ArrayList<>(top);
+                ranked.sort(RANKING);
+                boolean more = ranked.size() > limit;
+                return new SearchResult(List.copyOf(ranked.subList(0, Math.min(limit, ranked.size()))), matches, more);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Stats stats(long lastRebuildMillis, LocalDateTime lastRebuiltAt) {
+            lock.readLock().lock();
+            try {
+                return new Stats(documents.size(), postings.size(), lastRebuildMillis, lastRebuiltAt);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeLocked(long messageId) {
+            Document document = documents.remove(messageId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Postings termPostings = postings.get(term);
+                termPostings.remove(messageId);
+                if (termPostings.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= document.length();
+        }
+    }
+}
\ No newline at end of file
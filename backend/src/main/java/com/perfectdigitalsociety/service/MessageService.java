@@ -1,9 +1,14 @@
 package com.perfectdigitalsociety.service;
 
 import com.perfectdigitalsociety.dto.request.CreateMessageRequest;
+import com.perfectdigitalsociety.dto.request.ModerationDecision;
 import com.perfectdigitalsociety.dto.request.FlagRequest;
 import com.perfectdigitalsociety.dto.request.UpdateMessageRequest;
+import com.perfectdigitalsociety.dto.response.BulkModerationResponse;
+import com.perfectdigitalsociety.dto.response.CursorPage;
 import com.perfectdigitalsociety.dto.response.MessageResponse;
+import com.perfectdigitalsociety.dto.response.ModerationClaimResponse;
+import com.perfectdigitalsociety.dto.response.ModerationOutcomeResponse;
 import com.perfectdigitalsociety.dto.response.StatusResponse;
 import com.perfectdigitalsociety.entity.Message;
 import com.perfectdigitalsociety.entity.User;
@@ -11,6 +16,7 @@ import com.perfectdigitalsociety.exception.MessageNotFoundException;
 import com.perfectdigitalsociety.exception.UnauthorizedException;
 import com.perfectdigitalsociety.exception.UserNotFoundException;
 import com.perfectdigitalsociety.mapper.MessageMapper;
+import com.perfectdigitalsociety.repository.MessageFlagRepository;
 import com.perfectdigitalsociety.repository.MessageRepository;
 import com.perfectdigitalsociety.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +25,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,11 +43,30 @@ import java.util.List;
 @Transactional
 public class MessageService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SEARCH_ROUNDS = 4; // index reads to fill a page past hidden messages
+    private static final int MAX_CLAIM_SIZE = 50;
+    
+    // Author balance adjustments per moderation decision (freedom, security)
+    private static final int APPROVED_FREEDOM = 5;
+    private static final int APPROVED_SECURITY = 0;
+    private static final int REJECTED_FREEDOM = -10;
+    private static final int REJECTED_SECURITY = 10;
+    
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final MessageMapper messageMapper;
     private final BalanceService balanceService;
+    private final BalanceImpactQueue balanceImpactQueue;
     private final CommunityService communityService;
+    private final MessageImpactAnalyzer messageImpactAnalyzer;
+    private final MessageSearchIndex messageSearchIndex;
+    private final MessageFeedCache messageFeedCache;
+    private final MessageFlagRepository messageFlagRepository;
+    private final FlagAggregator flagAggregator;
+    private final ModerationQueue moderationQueue;
+    private final MessageEventBroadcaster messageEventBroadcaster;
     
     // Business Logic Methods as specified in documentation
     
@@ -56,17 +91,24 @@ public class MessageService {
         message.setIsVisible(true);
         message.setModerationStatus(Message.ModerationStatus.PENDING);
         message.setFlagCount(0);
+        message.setImpactApplied(false);
         
         // Calculate impact scores
         analyzeMessageImpact(message);
         
         Message savedMessage = messageRepository.save(message);
+        messageSearchIndex.update(savedMessage);
+        moderationQueue.add(savedMessage);
+        
+        // Queue balance recalculation, applied asynchronously once the message is committed
+        balanceImpactQueue.enqueueAfterCommit(userId, savedMessage.getId());
         
-        // Trigger balance recalculation
-        balanceService.analyzeImpact(savedMessage);
+        MessageResponse response = messageMapper.toMessageResponse(savedMessage);
+        messageFeedCache.put(response);
+        messageEventBroadcaster.publish(MessageEventBroadcaster.EventType.CREATED, response);
         
         log.info("Message created successfully with ID: {}", savedMessage.getId());
-        return messageMapper.toMessageResponse(savedMessage);
+        return response;
     }
     
     /**
@@ -96,9 +138,14 @@ public class MessageService {
         }
         
         Message savedMessage = messageRepository.save(message);
+        messageSearchIndex.update(savedMessage);
+        
+        MessageResponse response = messageMapper.toMessageResponse(savedMessage);
+        messageFeedCache.put(response);
+        messageEventBroadcaster.publish(MessageEventBroadcaster.EventType.UPDATED, response);
         
         log.info("Message updated successfully: {}", messageId);
-        return messageMapper.toMessageResponse(savedMessage);
+        return response;
     }
     
     /**
@@ -119,6 +166,10 @@ public class MessageService {
         message.setIsVisible(false);
         message.setUpdatedAt(LocalDateTime.now());
         messageRepository.save(message);
+        messageSearchIndex.update(message);
+        messageFeedCache.remove(messageId);
+        moderationQueue.remove(messageId);
+        messageEventBroadcaster.publish(MessageEventBroadcaster.EventType.HIDDEN, messageMapper.toMessageResponse(message));
         
         log.info("Message deleted successfully: {}", messageId);
         
@@ -134,24 +185,41 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
             .orElseThrow(() -> new MessageNotFoundException("Message not found with ID: " + messageId));
         
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+        
+        // One flag per user and message in the ledger; repeats are acknowledged without counting again
+        int recorded = messageFlagRepository.insertIfAbsent(messageId, userId, request.getReason(),
+                request.getDescription(), LocalDateTime.now());
+        if (recorded == 0) {
+            log.info("Message {} already flagged by user ID: {}", messageId, userId);
+            return new StatusResponse(false, "Message already flagged by this user", LocalDateTime.now());
+        }
         
-        // Increase flag count
-        message.setFlagCount(message.getFlagCount() + 1);
+        // Counted in memory; flag_count and the author's balance penalty are written once per aggregation window
+        int flagCount = flagAggregator.record(messageId, message.getUser().getId(),
+                message.getFlagCount() != null ? message.getFlagCount() : 0);
+        moderationQueue.updateFlagCount(messageId, flagCount);
         
         // Check if message should be hidden based on community rules
-        if (shouldHideMessage(message)) {
+        boolean hidden = Boolean.TRUE.equals(message.getIsVisible()) && shouldHideMessage(flagCount);
+        if (hidden) {
             message.setIsVisible(false);
             message.setModerationStatus(Message.ModerationStatus.REJECTED);
+            messageRepository.save(message);
+            messageSearchIndex.update(message);
+            moderationQueue.remove(messageId);
         }
         
-        messageRepository.save(message);
-        
-        // Trigger balance adjustment
-        balanceService.adjustBalance(message.getUser().getId(), -5, 5, "Message flagged by community");
+        // Refreshes the cached flag count, or drops the message once hidden
+        MessageResponse response = messageMapper.toMessageResponse(message);
+        response.setFlagCount(flagCount);
+        messageFeedCache.put(response);
+        messageEventBroadcaster.publish(hidden ? MessageEventBroadcaster.EventType.HIDDEN
+                : MessageEventBroadcaster.EventType.FLAGGED, response);
         
-        log.info("Message flagged successfully: {}, Total flags: {}", messageId, message.getFlagCount());
+        log.info("Message flagged successfully: {}, Total flags: {}", messageId, flagCount);
         
         return new StatusResponse(true, "Message flagged successfully", LocalDateTime.now());
     }
@@ -166,6 +234,9 @@ public class MessageService {
             throw new UnauthorizedException("User not authorized to moderate messages");
         }
         
+        // Claimed messages are reserved for the moderator holding the lease
+        moderationQueue.checkNotClaimedByOther(messageId, moderatorId);
+        
         Message message = messageRepository.findById(messageId)
             .orElseThrow(() -> new MessageNotFoundException("Message not found with ID: " + messageId));
         
@@ -174,50 +245,246 @@ public class MessageService {
         message.setUpdatedAt(LocalDateTime.now());
         
         Message savedMessage = messageRepository.save(message);
+        messageSearchIndex.update(savedMessage);
+        moderationQueue.remove(messageId);
         
         // Adjust user scores based on moderation result
         if (status == Message.ModerationStatus.REJECTED) {
-            balanceService.adjustBalance(message.getUser().getId(), -10, 10, "Message rejected by moderator");
+            balanceService.adjustBalance(message.getUser().getId(), REJECTED_FREEDOM, REJECTED_SECURITY, "Message rejected by moderator");
         } else if (status == Message.ModerationStatus.APPROVED) {
-            balanceService.adjustBalance(message.getUser().getId(), 5, 0, "Message approved by moderator");
+            balanceService.adjustBalance(message.getUser().getId(), APPROVED_FREEDOM, APPROVED_SECURITY, "Message approved by moderator");
         }
         
+        MessageResponse response = messageMapper.toMessageResponse(savedMessage);
+        messageFeedCache.put(response);
+        messageEventBroadcaster.publish(MessageEventBroadcaster.EventType.MODERATED, response);
+        
         log.info("Message moderation completed: {}", messageId);
-        return messageMapper.toMessageResponse(savedMessage);
+        return response;
     }
     
-    // Additional service methods
+    /**
+     * Apply many moderation decisions at once (admin/moderator function).
+     * Rights are checked once, messages are updated with one statement per status and every
+     * author receives one net balance adjustment. Decisions that would not change a message
+     * are skipped, so retrying a request does not adjust balances twice.
+     */
+    public BulkModerationResponse moderateMessages(Long moderatorId, List<ModerationDecision> decisions) {
+        return moderateMessages(moderatorId, decisions, false);
+    }
     
-    public List<MessageResponse> getAllVisibleMessages() {
-        log.info("Getting all visible messages");
-        return messageRepository.findVisibleMessagesOrderedByDate()
+    /**
+     * Apply many moderation decisions at once; an emergency moderation overrides messages
+     * claimed by other moderators and leaves author balances unchanged
+     */
+    public BulkModerationResponse moderateMessages(Long moderatorId, List<ModerationDecision> decisions, boolean emergency) {
+        log.info("Bulk moderating {} messages by moderator ID: {}{}", decisions.size(), moderatorId,
+                emergency ? " (emergency)" : "");
+        
+        if (! hasModeratorRights(moderatorId)) {
+            throw new UnauthorizedException("User not authorized to moderate messages");
+        }
+        
+        Set<Long> messageIds = decisions.stream().map(ModerationDecision::getMessageId).collect(Collectors.toSet());
+        Map<Long, MessageRepository.MessageView> messages = messageRepository.findViewsByIdIn(messageIds)
             .stream()
-            .map(messageMapper::toMessageResponse)
+            .collect(Collectors.toMap(MessageRepository.MessageView::getId, Function.identity()));
+        
+        List<ModerationOutcomeResponse> outcomes = new ArrayList<>();
+        Map<Long, ModerationOutcomeResponse> writeOutcomes = new HashMap<>();
+        Map<Message.ModerationStatus, List<Long>> idsByStatus = new EnumMap<>(Message.ModerationStatus.class);
+        Set<Long> decided = new HashSet<>();
+        
+        for (ModerationDecision decision : decisions) {
+            Long messageId = decision.getMessageId();
+            Message.ModerationStatus status = decision.getStatus();
+            ModerationOutcomeResponse outcome = new ModerationOutcomeResponse(messageId, status.name(), null);
+            
+            if (! decided.add(messageId)) {
+                outcome.setResult("DUPLICATE");
+            } else if (! messages.containsKey(messageId)) {
+                outcome.setResult("NOT_FOUND");
+            } else if (! emergency && moderationQueue.isClaimedByOther(messageId, moderatorId)) {
+                outcome.setResult("CLAIMED_BY_OTHER");
+            } else {
+                // Decided by the conditional write below
+                writeOutcomes.put(messageId, outcome);
+                idsByStatus.computeIfAbsent(status, key -> new ArrayList<>()).add(messageId);
+            }
+            outcomes.add(outcome);
+        }
+        
+        // Only rows whose moderation actually changes are written and returned, so a concurrent or retried
+        // request for the same messages finds them unchanged and cannot adjust balances twice
+        LocalDateTime now = LocalDateTime.now();
+        Map<Message.ModerationStatus, List<Long>> appliedByStatus = new EnumMap<>(Message.ModerationStatus.class);
+        Map<Long, ModerationTally> tallies = new LinkedHashMap<>();
+        idsByStatus.forEach((status, ids) -> {
+            List<MessageRepository.ModeratedRow> changed = messageRepository.updateModerationStatus(
+                ids, status.name(), status == Message.ModerationStatus.APPROVED, now);
+            for (MessageRepository.ModeratedRow row : changed) {
+                appliedByStatus.computeIfAbsent(status, key -> new ArrayList<>()).add(row.getId());
+                tallies.merge(row.getUserId(), ModerationTally.of(status), ModerationTally::plus);
+                writeOutcomes.get(row.getId()).setResult("APPLIED");
+            }
+        });
+        
+        int applied = 0;
+        int unchanged = 0;
+        for (ModerationOutcomeResponse outcome : writeOutcomes.values()) {
+            if (outcome.getResult() != null) {
+                applied++;
+            } else {
+                outcome.setResult("UNCHANGED");
+                unchanged++;
+            }
+        }
+        
+        // One net score change and one balance event per author
+        List<BalanceService.UserAdjustment> adjustments = emergency ? List.of() : tallies.entrySet().stream()
+            .filter(entry -> entry.getValue().approved() > 0 || entry.getValue().rejected() > 0)
+            .map(entry -> entry.getValue().toAdjustment(entry.getKey()))
             .toList();
+        int adjustedAuthors = balanceService.adjustBalances(adjustments);
+        
+        // Keep the in-memory views in step once the transaction commits
+        appliedByStatus.forEach((status, ids) -> {
+            boolean visible = status == Message.ModerationStatus.APPROVED;
+            for (Long messageId : ids) {
+                MessageRepository.MessageView message = messages.get(messageId);
+                messageSearchIndex.update(messageId, visible ? message.getContent() : null);
+                moderationQueue.remove(messageId);
+                
+                MessageResponse response = messageMapper.toMessageResponse(message);
+                response.setModerationStatus(status.name());
+                response.setIsVisible(visible);
+                response.setUpdatedAt(now);
+                messageFeedCache.put(response);
+                messageEventBroadcaster.publish(MessageEventBroadcaster.EventType.MODERATED, response);
+            }
+        });
+        
+        log.info("Bulk moderation by moderator ID: {} completed - {} applied, {} unchanged, {} failed, {} authors adjusted",
+                moderatorId, applied, unchanged, decisions.size() - applied - unchanged, adjustedAuthors);
+        return new BulkModerationResponse(decisions.size(), applied, unchanged,
+                decisions.size() - applied - unchanged, adjustedAuthors, outcomes);
     }
     
-    public List<MessageResponse> getUserMessages(Long userId) {
-        log.info("Getting messages for user ID: {}", userId);
-        return messageRepository.findVisibleMessagesByUser(userId)
-            .stream()
-            .map(messageMapper::toMessageResponse)
-            .toList();
+    // Additional service methods
+    
+    // Listings are keyset paginated newest first; the cursor continues after the last returned message
+    
+    @Transactional(readOnly = true)
+    public CursorPage<MessageResponse> getVisibleMessages(String cursor, int limit) {
+        log.info("Getting visible messages with limit: {}", limit);
+        KeysetCursor before = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+        
+        // The newest messages are served pre-mapped from the feed cache
+        CursorPage<MessageResponse> cached = messageFeedCache.page(before, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+        return toPage(messageRepository.findVisiblePage(before.createdAt(), before.id(), pageSize + 1), pageSize);
     }
     
-    public List<MessageResponse> getFlaggedMessages() {
-        log.info("Getting flagged messages for moderation");
-        return messageRepository.findAllFlaggedMessages()
-            .stream()
-            .map(messageMapper::toMessageResponse)
-            .toList();
+    @Transactional(readOnly = true)
+    public CursorPage<MessageResponse> getUserMessages(Long userId, String cursor, int limit) {
+        log.info("Getting messages for user ID: {} with limit: {}", userId, limit);
+        KeysetCursor before = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+        return toPage(messageRepository.findVisiblePageByUser(userId, before.createdAt(), before.id(), pageSize + 1), pageSize);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<MessageResponse> getFlaggedMessages(String cursor, int limit) {
+        log.info("Getting flagged messages for moderation with limit: {}", limit);
+        KeysetCursor before = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+        return toPage(messageRepository.findFlaggedPage(before.createdAt(), before.id(), pageSize + 1), pageSize);
     }
     
-    public List<MessageResponse> getPendingModerationMessages() {
-        log.info("Getting pending moderation messages");
-        return messageRepository.findByModerationStatus(Message.ModerationStatus.PENDING)
+    @Transactional(readOnly = true)
+    public CursorPage<MessageResponse> getPendingModerationMessages(String cursor, int limit) {
+        log.info("Getting pending moderation messages with limit: {}", limit);
+        KeysetCursor before = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+        return toPage(messageRepository.findPageByModerationStatus(
+            Message.ModerationStatus.PENDING, before.createdAt(), before.id(), pageSize + 1), pageSize);
+    }
+    
+    /**
+     * Lease the highest priority messages awaiting moderation to a moderator.
+     * Other moderators cannot moderate them until the lease expires.
+     */
+    @Transactional(readOnly = true)
+    public ModerationClaimResponse claimModerationBatch(Long moderatorId, int limit) {
+        log.info("Moderator ID: {} claiming up to {} messages for moderation", moderatorId, limit);
+        
+        if (! hasModeratorRights(moderatorId)) {
+            throw new UnauthorizedException("User not authorized to moderate messages");
+        }
+        
+        ModerationQueue.Claim claim = moderationQueue.claim(moderatorId, Math.max(1, Math.min(MAX_CLAIM_SIZE, limit)));
+        // Leases are taken in memory up front; a claim that is never handed out gives them back
+        TransactionHooks.afterRollback(() ->
+            moderationQueue.release(moderatorId, claim.leaseExpiresAt(), claim.messageIds()));
+        Map<Long, MessageRepository.MessageView> messages = messageRepository.findViewsByIdIn(claim.messageIds())
             .stream()
+            .collect(Collectors.toMap(MessageRepository.MessageView::getId, Function.identity()));
+        
+        // Messages gone from the table since they were queued leave the queue with their lease
+        List<Long> missing = claim.messageIds().stream()
+            .filter(messageId -> !messages.containsKey(messageId))
+            .toList();
+        if (!missing.isEmpty()) {
+            log.warn("Dropping {} claimed messages that no longer exist from the moderation queue", missing.size());
+            missing.forEach(moderationQueue::remove);
+        }
+        
+        // Keep the priority order
+        List<MessageResponse> items = claim.messageIds().stream()
+            .map(messages::get)
+            .filter(Objects::nonNull)
             .map(messageMapper::toMessageResponse)
             .toList();
+        
+        log.info("Moderator ID: {} claimed {} messages until {}", moderatorId, items.size(), claim.leaseExpiresAt());
+        return new ModerationClaimResponse(items, claim.leaseExpiresAt());
+    }
+    
+    /**
+     * Full-text search over visible messages; all terms must match, best match first.
+     * The cursor is an opaque (score, id) position in the ranking.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MessageResponse> searchMessages(String query, String cursor, int limit) {
+        log.info("Searching messages for '{}' with limit: {}", query, limit);
+        SearchCursor after = decodeSearchCursor(cursor);
+        int pageSize = Math.max(1, Math.min(MAX_SEARCH_RESULTS, limit));
+        
+        // Messages hidden since their last indexing are skipped; read further matches to fill the page
+        List<MessageResponse> items = new ArrayList<>();
+        boolean more;
+        int rounds = 0;
+        do {
+            MessageSearchIndex.SearchResult result = messageSearchIndex.search(query, after, pageSize - items.size());
+            Map<Long, MessageRepository.MessageView> messages = messageRepository.findViewsByIdIn(result.messageIds())
+                .stream()
+                .collect(Collectors.toMap(MessageRepository.MessageView::getId, Function.identity()));
+            
+            // Keep the ranking
+            for (MessageSearchIndex.Match match : result.matches()) {
+                MessageRepository.MessageView message = messages.get(match.messageId());
+                if (message != null && Boolean.TRUE.equals(message.getIsVisible())) {
+                    items.add(messageMapper.toMessageResponse(message));
+                }
+                after = match.cursor();
+            }
+            more = result.more();
+        } while (more && items.size() < pageSize && ++rounds < MAX_SEARCH_ROUNDS);
+        
+        return new CursorPage<>(items, more ? after.encode() : null);
     }
     
     public MessageResponse getMessageById(Long messageId) {
@@ -231,49 +498,40 @@ public class MessageService {
     // Private helper methods
     
     private void analyzeMessageImpact(Message message) {
-        // Content analysis for freedom and security impact
-        String content = message.getContent().toLowerCase();
-        
-        // Simple keyword-based analysis (would be enhanced with NLP)
-        Integer freedomImpact = calculateFreedomImpact(content);
-        Integer securityImpact = calculateSecurityImpact(content);
+        // Content analysis for freedom and security impact, both scored in one pass
+        ImpactMatcher.Impact impact = messageImpactAnalyzer.analyze(message.getContent());
         
-        message.setFreedomImpact(freedomImpact);
-        message.setSecurityImpact(securityImpact);
+        message.setFreedomImpact(impact.freedom());
+        message.setSecurityImpact(impact.security());
     }
     
-    private Integer calculateFreedomImpact(String content) {
-        // Positive freedom keywords
-        String[] freedomKeywords = {"freedom", "liberty", "choice", "expression", "open", "transparent"};
-        Integer impact = 0;
-        
-        for (String keyword : freedomKeywords) {
-            if (content.contains(keyword)) {
-                impact += 5;
-            }
-        }
-        
-        return Math.min(impact, 50); // Cap at 50
+    private static KeysetCursor decodeCursor(String cursor) {
+        return cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
     }
     
-    private Integer calculateSecurityImpact(String content) {
-        // Security-related keywords
-        String[] securityKeywords = {"secure", "safe", "protect", "privacy", "moderation", "guidelines"};
-        Integer impact = 0;
-        
-        for (String keyword : securityKeywords) {
-            if (content.contains(keyword)) {
-                impact += 5;
-            }
+    private static SearchCursor decodeSearchCursor(String cursor) {
+        return cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+    }
+    
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+    }
+    
+    // Pages are fetched with one extra row to know whether another page follows
+    private CursorPage<MessageResponse> toPage(List<MessageRepository.MessageView> messages, int pageSize) {
+        String nextCursor = null;
+        if (messages.size() > pageSize) {
+            messages = messages.subList(0, pageSize);
+            MessageRepository.MessageView last = messages.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
         }
-        
-        return Math.min(impact, 50); // Cap at 50
+        return new CursorPage<>(messages.stream().map(messageMapper::toMessageResponse).toList(), nextCursor);
     }
     
-    private boolean shouldHideMessage(Message message) {
+    private boolean shouldHideMessage(int flagCount) {
         // Apply community rules to determine if message should be hidden
         Integer flagThreshold = communityService.getActiveFlagThreshold();
-        return message.getFlagCount() >= flagThreshold;
+        return flagCount >= flagThreshold;
     }
     
     private boolean hasModeratorRights(Long userId) {
@@ -281,4 +539,26 @@ public class MessageService {
             .map(user -> user.getRole() == User.Role.MODERATOR || user.getRole() == User.Role.ADMIN)
             .orElse(false);
     }
+    
+    /**
+     * Moderation decisions applied to the messages of one author
+     */
+    private record ModerationTally(int approved, int rejected) {
+        
+        static ModerationTally of(Message.ModerationStatus status) {
+            return new ModerationTally(status == Message.ModerationStatus.APPROVED ? 1 : 0,
+                    status == Message.ModerationStatus.REJECTED ? 1 : 0);
+        }
+        
+        ModerationTally plus(ModerationTally other) {
+            return new ModerationTally(approved + other.approved, rejected + other.rejected);
+        }
+        
+        BalanceService.UserAdjustment toAdjustment(Long authorId) {
+            return new BalanceService.UserAdjustment(authorId,
+                    approved * APPROVED_FREEDOM + rejected * REJECTED_FREEDOM,
+                    approved * APPROVED_SECURITY + rejected * REJECTED_SECURITY,
+                    "Bulk moderation: " + approved + " approved, " + rejected + " rejected");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.entity.SystemMetric;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers system metric samples in memory and persists them in JDBC batches.
+ * A sample equal to the previous value of the same metric is dropped, so
+ * repeated reads of an unchanged system do not grow the metrics table.
+ * Metrics read together as one sample are recorded as a group: the group shares
+ * one timestamp and is dropped only when none of its values changed, so the
+ * series can be joined on recorded_at.
+ * The buffer is bounded: while the database is unreachable the oldest samples are
+ * dropped (and counted) so memory stays flat and the latest values survive.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MetricRecorder {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO system_metrics (metric_name, metric_value, metric_type, calculation_period, metadata, recorded_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int METRIC_SCALE = 2; // matches system_metrics.metric_value
+    private static final int MAX_BUFFERED_METRICS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Oldest first; each entry is one sample, a single metric or a group, and is kept or dropped whole
+    private final Deque<List<PendingMetric>> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Map<String, BigDecimal> lastValues = new ConcurrentHashMap<>();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported; // guarded by this
+
+    /**
+     * Buffer a metric sample unless it equals the previous value of the same metric
+     */
+    public void record(String metricName, BigDecimal value,
+                       SystemMetric.MetricType metricType, SystemMetric.CalculationPeriod calculationPeriod) {
+        BigDecimal scaled = value.setScale(METRIC_SCALE, RoundingMode.HALF_UP);
+
+        BigDecimal previous = lastValues.put(metricName, scaled);
+        if (previous != null && previous.compareTo(scaled) == 0) {
+            deduplicated.incrementAndGet();
+            return;
+        }
+
+        buffer(List.of(new PendingMetric(metricName, scaled, metricType, calculationPeriod, LocalDateTime.now())));
+        recorded.incrementAndGet();
+    }
+
+    /**
+     * Buffer a group of metric samples taken at the same time, unless every value equals the
+     * previous value of its metric; all values of the group are then recorded with one timestamp
+     */
+    public void recordGroup(Map<String, BigDecimal> values,
+                            SystemMetric.MetricType metricType, SystemMetric.CalculationPeriod calculationPeriod) {
+        Map<String, BigDecimal> scaled = new LinkedHashMap<>();
+        values.forEach((metricName, value) -> scaled.put(metricName, value.setScale(METRIC_SCALE, RoundingMode.HALF_UP)));
+
+        boolean changed = false;
+        for (Map.Entry<String, BigDecimal> entry : scaled.entrySet()) {
+            BigDecimal previous = lastValues.put(entry.getKey(), entry.getValue());
+            changed |= previous == null || previous.compareTo(entry.getValue()) != 0;
+        }
+        if (!changed) {
+            deduplicated.addAndGet(scaled.size());
+            return;
+        }
+
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<PendingMetric> sample = new ArrayList<>(scaled.size());
+        scaled.forEach((metricName, value) ->
+            sample.add(new PendingMetric(metricName, value, metricType, calculationPeriod, recordedAt)));
+        buffer(sample);
+        recorded.addAndGet(scaled.size());
+    }
+
+    /**
+     * Persist all buffered samples in one JDBC batch
+     * @return number of samples written
+     */
+    public synchronized int flush() {
+        List<List<PendingMetric>> samples = new ArrayList<>();
+        List<PendingMetric> batch = new ArrayList<>();
+        List<PendingMetric> sample;
+        while ((sample = buffer.pollFirst()) != null) {
+            buffered.addAndGet(-sample.size());
+            samples.add(sample);
+            batch.addAll(sample);
+        }
+
+        long droppedSoFar = dropped.get();
+        if (droppedSoFar > droppedReported) {
+            log.warn("Dropped {} system metrics because the buffer was full", droppedSoFar - droppedReported);
+            droppedReported = droppedSoFar;
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+                ps.setString(1, pending.metricName());
+                ps.setBigDecimal(2, pending.value());
+                ps.setString(3, pending.metricType().name());
+                ps.setString(4, pending.calculationPeriod().name());
+                ps.setString(5, "{}");
+                ps.setTimestamp(6, Timestamp.valueOf(pending.recordedAt()));
+            });
+        } catch (RuntimeException e) {
+            // Put the samples back ahead of newer ones so the next flush retries them, within the bound
+            for (int i = samples.size() - 1; i >= 0; i--) {
+                buffer.addFirst(samples.get(i));
+                buffered.addAndGet(samples.get(i).size());
+            }
+            trim();
+            throw e;
+        }
+
+        flushed.addAndGet(batch.size());
+        log.debug("Flushed {} system metrics ({} recorded, {} deduplicated, {} dropped so far)",
+                batch.size(), recorded.get(), deduplicated.get(), dropped.get());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush system metrics on shutdown, {} samples lost", buffered.get(), e);
+        }
+    }
+
+    // Private helper methods
+
+    private void buffer(List<PendingMetric> sample) {
+        buffer.addLast(sample);
+        buffered.addAndGet(sample.size());
+        trim();
+    }
+
+    // Drop the oldest samples until the buffer is within its bound
+    private void trim() {
+        while (buffered.get() > MAX_BUFFERED_METRICS) {
+            List<PendingMetric> oldest = buffer.pollFirst();
+            if (oldest == null) {
+                return;
+            }
+            buffered.addAndGet(-oldest.size());
+            dropped.addAndGet(oldest.size());
+        }
+    }
+
+    private record PendingMetric(String metricName, BigDecimal value, SystemMetric.MetricType metricType,
+                                 SystemMetric.CalculationPeriod calculationPeriod, LocalDateTime recordedAt) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.MessageConfig;
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Server-side work queue of messages awaiting moderation (visible and PENDING).
+ * Items are ordered by flag count, then author reputation (lowest first), then age
+ * (oldest first). Moderators claim batches under a time-limited lease, so a message
+ * is handed to one moderator at a time; leases that run out put their items back.
+ * Claiming and every update cost O(log n) per item.
+ *
+ * The queue is loaded from the messages table once the application is ready and then
+ * follows the message write paths after commit. Changes made while a rebuild is
+ * loading are replayed onto the fresh queue, and live leases survive the rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationQueue {
+
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+
+    // Most flagged first, then lowest author reputation, then oldest
+    private static final Comparator<Item> PRIORITY = Comparator.comparingInt(Item::flagCount).reversed()
+        .thenComparingInt(Item::authorReputation)
+        .thenComparing(Item::createdAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparingLong(Item::messageId);
+
+    private static final Comparator<Lease> EXPIRY = Comparator.comparing(Lease::expiresAt)
+        .thenComparingLong(Lease::messageId);
+
+    private final MessageRepository messageRepository;
+    private final MessageConfig messageConfig;
+
+    // All state below is guarded by this
+    private Map<Long, Item> items = new HashMap<>(); // queued or leased, by message id
+    private TreeSet<Item> available = new TreeSet<>(PRIORITY); // queued and not leased
+    private final Map<Long, Lease> leases = new HashMap<>();
+    private final TreeSet<Lease> expiries = new TreeSet<>(EXPIRY);
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * Load the queue once the application is ready, without delaying startup
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Queue a newly created message once the transaction commits
+     */
+    public void add(Message message) {
+        Item item = new Item(message.getId(), valueOrZero(message.getFlagCount()),
+                valueOrZero(message.getUser().getReputationScore()), message.getCreatedAt());
+        TransactionHooks.afterCommit(() -> apply(new Change(item.messageId(), current -> item)));
+    }
+
+    /**
+     * Re-prioritize a queued message after a new flag; messages not in the queue are left out
+     */
+    public void updateFlagCount(Long messageId, int flagCount) {
+        TransactionHooks.afterCommit(() -> apply(new Change(messageId,
+            current -> current != null ? current.withFlagCount(flagCount) : null)));
+    }
+
+    /**
+     * Drop a moderated, hidden or deleted message and its lease once the transaction commits
+     */
+    public void remove(Long messageId) {
+        TransactionHooks.afterCommit(() -> apply(new Change(messageId, current -> null)));
+    }
+
+    /**
+     * Lease up to limit of the highest priority unclaimed messages to a moderator
+     */
+    public synchronized Claim claim(Long moderatorId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        expireLeases(now);
+
+        LocalDateTime expiresAt = now.plusSeconds(messageConfig.getModerationLeaseSeconds());
+        List<Long> messageIds = new ArrayList<>();
+        while (messageIds.size() < limit && !available.isEmpty()) {
+            Item item = available.pollFirst();
+            Lease lease = new Lease(item.messageId(), moderatorId, expiresAt);
+            leases.put(item.messageId(), lease);
+            expiries.add(lease);
+            messageIds.add(item.messageId());
+        }
+        return new Claim(messageIds, expiresAt);
+    }
+
+    /**
+     * Give back the leases a claim still holds on the given messages, which return to the queue
+     */
+    public synchronized void release(Long moderatorId, LocalDateTime leaseExpiresAt, Collection<Long> messageIds) {
+        for (Long messageId : messageIds) {
+            Lease lease = leases.get(messageId);
+            // Only leases of that claim; the message may have been re-claimed since
+            if (lease == null || !lease.moderatorId().equals(moderatorId) || !lease.expiresAt().equals(leaseExpiresAt)) {
+                continue;
+            }
+            leases.remove(messageId);
+            expiries.remove(lease);
+            Item item = items.get(messageId);
+            if (item != null) {
+                available.add(item);
+            }
+        }
+    }
+
+    /**
+     * Fail when the message is currently leased to a different moderator
+     */
+    public synchronized void checkNotClaimedByOther(Long messageId, Long moderatorId) {
+        if (isClaimedByOther(messageId, moderatorId)) {
+            throw new IllegalStateException("Message " + messageId + " is claimed by another moderator until " +
+                    leases.get(messageId).expiresAt());
+        }
+    }
+
+    /**
+     * Whether the message is currently leased to a different moderator
+     */
+    public synchronized boolean isClaimedByOther(Long messageId, Long moderatorId) {
+        expireLeases(LocalDateTime.now());
+        Lease lease = leases.get(messageId);
+        return lease != null && !lease.moderatorId().equals(moderatorId);
+    }
+
+    /**
+     * Reload the queue from the messages table
+     * @return number of messages awaiting moderation
+     */
+    public int rebuild() {
+        long startTime = System.currentTimeMillis();
+        Map<Long, Item> fresh = new HashMap<>();
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("Moderation queue rebuild already running");
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        boolean loaded = false;
+        try {
+            long afterId = 0;
+            List<MessageRepository.ModerationRow> rows;
+            do {
+                rows = messageRepository.findModerationRowsAfter(afterId, REBUILD_CHUNK_SIZE);
+                for (MessageRepository.ModerationRow row : rows) {
+                    fresh.put(row.getId(), new Item(row.getId(), valueOrZero(row.getFlagCount()),
+                            valueOrZero(row.getAuthorReputation()), row.getCreatedAt()));
+                    afterId = row.getId();
+                }
+            } while (rows.size() == REBUILD_CHUNK_SIZE);
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                List<Change> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                // A failed load keeps the live queue, which has seen every change
+                if (loaded) {
+                    for (Change change : changes) {
+                        fresh.compute(change.messageId(), (id, current) -> change.update().apply(current));
+                    }
+                    swapIn(fresh);
+                }
+            }
+        }
+
+        log.info("Moderation queue rebuilt - {} messages ({} ms)", fresh.size(), System.currentTimeMillis() - startTime);
+        return fresh.size();
+    }
+
+    // Private helper methods
+
+    private synchronized void apply(Change change) {
+        Long messageId = change.messageId();
+        Item current = items.get(messageId);
+        Item updated = change.update().apply(current);
+        if (current != null) {
+            available.remove(current);
+        }
+
+        if (updated == null) {
+            items.remove(messageId);
+            Lease lease = leases.remove(messageId);
+            if (lease != null) {
+                expiries.remove(lease);
+            }
+        } else {
+            items.put(messageId, updated);
+            if (!leases.containsKey(messageId)) {
+                available.add(updated);
+            }
+        }
+
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    // Called with the monitor held
+    private void swapIn(Map<Long, Item> fresh) {
+        TreeSet<Item> freshAvailable = new TreeSet<>(PRIORITY);
+        for (Item item : fresh.values()) {
+            if (!leases.containsKey(item.messageId())) {
+                freshAvailable.add(item);
+            }
+        }
+        // Leases of messages that no longer await moderation are dropped
+        expiries.removeIf(lease -> !fresh.containsKey(lease.messageId()));
+        leases.keySet().retainAll(fresh.keySet());
+
+        items = fresh;
+        available = freshAvailable;
+    }
+
+    // Called with the monitor held
+    private void expireLeases(LocalDateTime now) {
+        while (!expiries.isEmpty() && !expiries.first().expiresAt().isAfter(now)) {
+            Lease lease = expiries.pollFirst();
+            leases.remove(lease.messageId());
+            Item item = items.get(lease.messageId());
+            if (item != null) {
+                available.add(item);
+            }
+            log.debug("Moderation lease of message ID: {} held by moderator ID: {} expired",
+                    lease.messageId(), lease.moderatorId());
+        }
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    public record Claim(List<Long> messageIds, LocalDateTime leaseExpiresAt) {
+    }
+
+    private record Item(long messageId, int flagCount, int authorReputation, LocalDateTime createdAt) {
+        Item withFlagCount(int newFlagCount) {
+            return new Item(messageId, newFlagCount, authorReputation, createdAt);
+        }
+    }
+
+    private record Lease(long messageId, Long moderatorId, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Replacement of the item of a message: the update receives the current item (or null) and returns the new one (or null)
+     */
+    private record Change(Long messageId, UnaryOperator<Item> update) {
+    }
+}
\ No newline at end of file
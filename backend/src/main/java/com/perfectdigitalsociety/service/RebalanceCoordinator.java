@@ -0,0 +1,179 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.dto.response.RebalanceStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes automatic rebalancing runs.
+ * At most one rebalance runs at a time. Asynchronous triggers are debounced within
+ * a configurable window, and any requests arriving while a run is in progress
+ * collapse into a single follow-up run. The scheduler only triggers asynchronous runs;
+ * they execute on the balance executor so a long rebalance never holds up the other
+ * scheduled jobs.
+ */
+@Component
+@Slf4j
+public class RebalanceCoordinator {
+
+    private final BalanceService balanceService;
+    private final BalanceConfig balanceConfig;
+    private final TaskScheduler taskScheduler;
+    private final Executor balanceTaskExecutor;
+
+    private boolean running;
+    private boolean scheduled;
+    private boolean followUpRequested;
+
+    private final AtomicLong triggered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public RebalanceCoordinator(BalanceService balanceService,
+                                BalanceConfig balanceConfig,
+                                TaskScheduler taskScheduler,
+                                @Qualifier("balanceTaskExecutor") Executor balanceTaskExecutor) {
+        this.balanceService = balanceService;
+        this.balanceConfig = balanceConfig;
+        this.taskScheduler = taskScheduler;
+        this.balanceTaskExecutor = balanceTaskExecutor;
+    }
+
+    /**
+     * Request a rebalance after the debounce window; collapses with pending or running requests
+     */
+    public void requestRebalance(String reason) {
+        triggered.incrementAndGet();
+        scheduleRun(reason, balanceConfig.getRebalanceDebounceMillis());
+    }
+
+    /**
+     * Request a rebalance on the balance executor right away; collapses with pending or running requests
+     */
+    public void submit(String reason) {
+        triggered.incrementAndGet();
+        scheduleRun(reason, 0);
+    }
+
+    /**
+     * Rebalance immediately on the caller's thread unless a run is already in progress,
+     * in which case a follow-up run is requested instead
+     * @return event recorded by the run of this call; empty if no rebalancing was needed or the call was coalesced
+     */
+    public Optional<BalanceEventResponse> runNow(String reason) {
+        triggered.incrementAndGet();
+        return execute(reason);
+    }
+
+    /**
+     * Coordinator counters
+     */
+    public RebalanceStatsResponse getStats() {
+        RebalanceStatsResponse stats = new RebalanceStatsResponse();
+        stats.setTriggered(triggered.get());
+        stats.setCoalesced(coalesced.get());
+        stats.setExecuted(executed.get());
+        stats.setFailed(failed.get());
+        synchronized (this) {
+            stats.setRunning(running);
+            stats.setScheduled(scheduled || followUpRequested);
+        }
+        return stats;
+    }
+
+    // Private helper methods
+
+    private void scheduleRun(String reason, long delayMillis) {
+        synchronized (this) {
+            if (running) {
+                followUpRequested = true;
+                coalesced.incrementAndGet();
+                return;
+            }
+            if (scheduled) {
+                coalesced.incrementAndGet();
+                return;
+            }
+            scheduled = true;
+        }
+
+        if (delayMillis <= 0) {
+            dispatch(reason);
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> dispatch(reason), Instant.now().plusMillis(delayMillis));
+        } catch (TaskRejectedException e) {
+            synchronized (this) {
+                scheduled = false;
+            }
+            log.warn("Rebalance scheduling rejected: {}", reason);
+        }
+    }
+
+    // Hand the run to the balance executor; the scheduler thread only triggers it
+    private void dispatch(String reason) {
+        try {
+            balanceTaskExecutor.execute(() -> runScheduled(reason));
+        } catch (TaskRejectedException e) {
+            synchronized (this) {
+                scheduled = false;
+            }
+            log.warn("Rebalance execution rejected: {}", reason);
+        }
+    }
+
+    private void runScheduled(String reason) {
+        synchronized (this) {
+            scheduled = false;
+        }
+
+        try {
+            execute(reason);
+        } catch (Exception e) {
+            log.error("Scheduled rebalancing failed: {}", reason, e);
+        }
+    }
+
+    private Optional<BalanceEventResponse> execute(String reason) {
+        synchronized (this) {
+            if (running) {
+                followUpRequested = true;
+                coalesced.incrementAndGet();
+                log.debug("Rebalancing already in progress, follow-up requested: {}", reason);
+                return Optional.empty();
+            }
+            running = true;
+        }
+
+        boolean followUp;
+        try {
+            log.info("Running system rebalancing: {}", reason);
+            executed.incrementAndGet();
+            return balanceService.performAutomaticRebalancing();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            throw e;
+        } finally {
+            synchronized (this) {
+                running = false;
+                followUp = followUpRequested;
+                followUpRequested = false;
+            }
+            if (followUp) {
+                scheduleRun("Follow-up rebalancing", balanceConfig.getRebalanceDebounceMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.perfectdigitalsociety.service;
+
+/**
+ * Rules deciding when the system needs rebalancing and which deltas to apply.
+ * Shared by automatic rebalancing and the what-if simulator so both use the
+ * same thresholds.
+ */
+public final class RebalancePolicy {
+
+    public static final double MIN_BALANCE_SCORE = 0.7;
+    public static final int MAX_LEVEL_GAP = 30;
+    public static final int ADJUSTMENT_LEVEL_GAP = 10;
+
+    private RebalancePolicy() {
+    }
+
+    /**
+     * Balance score between freedom and security, closer to 1.0 means better balance
+     */
+    public static double balanceScore(double freedom, double security) {
+        if (freedom == 0 && security == 0) return 1.0;
+        if (security == 0) return 0.1; // Heavy freedom bias
+        if (freedom == 0) return 0.1; // Heavy security bias
+
+        double ratio = freedom / security;
+        // Score is higher when ratio is closer to 1.0
+        return 1.0 / (1.0 + Math.abs(ratio - 1.0));
+    }
+
+    /**
+     * Rebalancing is needed if the balance score is too low or the levels are too far apart
+     */
+    public static boolean isRebalancingNeeded(double balanceScore, int freedomLevel, int securityLevel,
+                                              double minBalanceScore, int maxLevelGap) {
+        return balanceScore < minBalanceScore || Math.abs(freedomLevel - securityLevel) > maxLevelGap;
+    }
+
+    /**
+     * Deltas moving all active users towards balance
+     */
+    public static Adjustment globalAdjustment(int freedomLevel, int securityLevel) {
+        if (freedomLevel > securityLevel + ADJUSTMENT_LEVEL_GAP) {
+            return new Adjustment(-2, 1);
+        }
+        if (securityLevel > freedomLevel + ADJUSTMENT_LEVEL_GAP) {
+            return new Adjustment(1, -2);
+        }
+        return Adjustment.NONE;
+    }
+
+    /**
+     * Score deltas applied to every active user
+     */
+    public record Adjustment(int freedom, int security) {
+
+        public static final Adjustment NONE = new Adjustment(0, 0);
+    }
+}
\ No newline at end of file
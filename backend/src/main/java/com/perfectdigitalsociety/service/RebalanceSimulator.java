@@ -0,0 +1,221 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.dto.request.SimulateRebalanceRequest;
+import com.perfectdigitalsociety.dto.response.RebalanceSimulationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Dry-run of automatic rebalancing, emergency rebalancing or custom deltas.
+ * Works on a packed snapshot of active user scores from {@link ScoreStore} and
+ * scans it with fork-join tasks, so nothing is written and no entity is loaded.
+ * Uses the same thresholds and deltas as the real rebalancing via {@link RebalancePolicy}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RebalanceSimulator {
+
+    private static final int SPLIT_THRESHOLD = 1 << 14;
+    private static final int MAX_SCORE = 100;
+    private static final int DEFAULT_RESET_SCORE = 50;
+
+    private final ScoreStore scoreStore;
+
+    /**
+     * Simulate a rebalancing policy against the current scores
+     */
+    public RebalanceSimulationResponse simulate(SimulateRebalanceRequest request) {
+        long startTime = System.currentTimeMillis();
+        String mode = request.getMode().trim().toUpperCase();
+
+        ScoreStore.ActiveScores snapshot = scoreStore.snapshotActive();
+        Projection current = new ScanTask(snapshot, Transform.IDENTITY, 0, snapshot.size()).invoke();
+
+        int currentFreedomLevel = current.freedomLevel();
+        int currentSecurityLevel = current.securityLevel();
+        double currentBalanceScore = current.balanceScore();
+
+        double minBalanceScore = request.getMinBalanceScore() != null
+            ? request.getMinBalanceScore() : RebalancePolicy.MIN_BALANCE_SCORE;
+        int maxLevelGap = request.getMaxLevelGap() != null
+            ? request.getMaxLevelGap() : RebalancePolicy.MAX_LEVEL_GAP;
+        boolean rebalancingNeeded = current.count > 0 && RebalancePolicy.isRebalancingNeeded(
+            currentBalanceScore, currentFreedomLevel, currentSecurityLevel, minBalanceScore, maxLevelGap);
+
+        Transform transform = switch (mode) {
+            case "AUTOMATIC" -> {
+                RebalancePolicy.Adjustment adjustment = rebalancingNeeded
+                    ? RebalancePolicy.globalAdjustment(currentFreedomLevel, currentSecurityLevel)
+                    : RebalancePolicy.Adjustment.NONE;
+                yield Transform.adjust(adjustment.freedom(), adjustment.security());
+            }
+            case "EMERGENCY_REBALANCE" -> Transform.reset(
+                valueOrDefault(request.getResetFreedomScore(), DEFAULT_RESET_SCORE),
+                valueOrDefault(request.getResetSecurityScore(), DEFAULT_RESET_SCORE));
+            case "CUSTOM" -> Transform.adjust(
+                valueOrDefault(request.getFreedomAdjustment(), 0),
+                valueOrDefault(request.getSecurityAdjustment(), 0));
+            default -> throw new IllegalArgumentException("Unknown simulation mode: " + request.getMode());
+        };
+
+        Projection projected = new ScanTask(snapshot, transform, 0, snapshot.size()).invoke();
+
+        RebalanceSimulationResponse response = new RebalanceSimulationResponse();
+        response.setMode(mode);
+        response.setRebalancingNeeded(rebalancingNeeded);
+        response.setFreedomAdjustment(transform.reset() ? null : transform.freedom());
+        response.setSecurityAdjustment(transform.reset() ? null : transform.security());
+        response.setActiveUsers(current.count);
+        response.setAffectedUsers(projected.affected);
+        response.setCurrentFreedomLevel(currentFreedomLevel);
+        response.setCurrentSecurityLevel(currentSecurityLevel);
+        response.setCurrentBalanceScore(currentBalanceScore);
+        response.setProjectedFreedomLevel(projected.freedomLevel());
+        response.setProjectedSecurityLevel(projected.securityLevel());
+        response.setProjectedBalanceScore(projected.balanceScore());
+        response.setProjectedFreedomDistribution(toList(projected.freedomHistogram));
+        response.setProjectedSecurityDistribution(toList(projected.securityHistogram));
+        response.setElapsedMillis(System.currentTimeMillis() - startTime);
+
+        log.info("Rebalance simulation {} over {} users - {} affected ({} ms)",
+                mode, current.count, projected.affected, response.getElapsedMillis());
+        return response;
+    }
+
+    // Private helper methods
+
+    private static int valueOrDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static List<Long> toList(long[] histogram) {
+        return Arrays.stream(histogram).boxed().toList();
+    }
+
+    private static int clamp(int score) {
+        return Math.max(0, Math.min(MAX_SCORE, score));
+    }
+
+    /**
+     * Either adds clamped deltas or resets to fixed scores
+     */
+    private record Transform(boolean reset, int freedom, int security) {
+
+        static final Transform IDENTITY = adjust(0, 0);
+
+        static Transform adjust(int freedomDelta, int securityDelta) {
+            return new Transform(false, freedomDelta, securityDelta);
+        }
+
+        static Transform reset(int freedomScore, int securityScore) {
+            return new Transform(true, freedomScore, securityScore);
+        }
+
+        int applyFreedom(int score) {
+            return reset ? freedom : clamp(score + freedom);
+        }
+
+        int applySecurity(int score) {
+            return reset ? security : clamp(score + security);
+        }
+    }
+
+    /**
+     * Projected sums, affected count and score histograms of a slice of users
+     */
+    private static final class Projection {
+        long count;
+        long affected;
+        long freedomSum;
+        long securitySum;
+        final long[] freedomHistogram = new long[MAX_SCORE + 1];
+        final long[] securityHistogram = new long[MAX_SCORE + 1];
+
+        Projection merge(Projection other) {
+            count += other.count;
+            affected += other.affected;
+            freedomSum += other.freedomSum;
+            securitySum += other.securitySum;
+            for (int i = 0; i <= MAX_SCORE; i++) {
+                freedomHistogram[i] += other.freedomHistogram[i];
+                securityHistogram[i] += other.securityHistogram[i];
+            }
+            return this;
+        }
+
+        double averageFreedom() {
+            return count > 0 ? (double) freedomSum / count : 50.0;
+        }
+
+        double averageSecurity() {
+            return count > 0 ? (double) securitySum / count : 50.0;
+        }
+
+        // Levels are truncated the same way as in the system balance
+        int freedomLevel() {
+            return (int) averageFreedom();
+        }
+
+        int securityLevel() {
+            return (int) averageSecurity();
+        }
+
+        double balanceScore() {
+            return RebalancePolicy.balanceScore(averageFreedom(), averageSecurity());
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Projection> {
+
+        private final ScoreStore.ActiveScores scores;
+        private final Transform transform;
+        private final int from;
+        private final int to;
+
+        ScanTask(ScoreStore.ActiveScores scores, Transform transform, int from, int to) {
+            this.scores = scores;
+            this.transform = transform;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Projection compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return scan();
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scores, transform, from, middle);
+            ScanTask right = new ScanTask(scores, transform, middle, to);
+            left.fork();
+            Projection rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private Projection scan() {
+            Projection projection = new Projection();
+            int[] freedom = scores.freedom();
+            int[] security = scores.security();
+            for (int i = from; i < to; i++) {
+                int newFreedom = transform.applyFreedom(freedom[i]);
+                int newSecurity = transform.applySecurity(security[i]);
+                if (newFreedom != freedom[i] || newSecurity != security[i]) {
+                    projection.affected++;
+                }
+                projection.freedomSum += newFreedom;
+                projection.securitySum += newSecurity;
+                projection.freedomHistogram[clamp(newFreedom)]++;
+                projection.securityHistogram[clamp(newSecurity)]++;
+            }
+            projection.count = to - from;
+            return projection;
+        }
+    }
+}
\ No newline at end of file
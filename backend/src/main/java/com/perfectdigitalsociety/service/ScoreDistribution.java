@@ -0,0 +1,153 @@
+package com.perfectdigitalsociety.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed 101-bucket histograms of active users' freedom, security and reputation scores.
+ * Buckets are moved by {@link ScoreStore} on every score or activation change, so
+ * distributions and percentile ranks cost O(buckets) regardless of population.
+ * Reputation is not capped at 100; higher values are counted in the last bucket.
+ */
+@Component
+public class ScoreDistribution {
+
+    public static final int BUCKETS = 101;
+
+    private final LongAdder[][] buckets = new LongAdder[Dimension.values().length][BUCKETS];
+
+    public ScoreDistribution() {
+        for (LongAdder[] dimension : buckets) {
+            for (int i = 0; i < BUCKETS; i++) {
+                dimension[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Count an active user's scores
+     */
+    public void add(int freedom, int security, int reputation) {
+        bucket(Dimension.FREEDOM, freedom).increment();
+        bucket(Dimension.SECURITY, security).increment();
+        bucket(Dimension.REPUTATION, reputation).increment();
+    }
+
+    /**
+     * Remove a previously counted user's scores
+     */
+    public void remove(int freedom, int security, int reputation) {
+        bucket(Dimension.FREEDOM, freedom).decrement();
+        bucket(Dimension.SECURITY, security).decrement();
+        bucket(Dimension.REPUTATION, reputation).decrement();
+    }
+
+    /**
+     * Move one user from one score to another within a dimension
+     */
+    public void move(Dimension dimension, int oldScore, int newScore) {
+        if (bucketIndex(oldScore) != bucketIndex(newScore)) {
+            bucket(dimension, oldScore).decrement();
+            bucket(dimension, newScore).increment();
+        }
+    }
+
+    /**
+     * Reset all counters
+     */
+    public void clear() {
+        for (LongAdder[] dimension : buckets) {
+            for (LongAdder bucket : dimension) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Set the counts of a dimension to those recounted from the held scores.
+     * The caller keeps other changes out while restoring; readers see each bucket move to its count at once.
+     */
+    public void restore(Dimension dimension, long[] counts) {
+        LongAdder[] target = buckets[dimension.ordinal()];
+        for (int i = 0; i < BUCKETS; i++) {
+            target[i].add(counts[i] - target[i].sum());
+        }
+    }
+
+    /**
+     * Bucket of a score
+     */
+    public static int bucketIndex(int score) {
+        return Math.max(0, Math.min(BUCKETS - 1, score));
+    }
+
+    /**
+     * User counts per score 0..100
+     */
+    public long[] histogram(Dimension dimension) {
+        long[] counts = new long[BUCKETS];
+        LongAdder[] source = buckets[dimension.ordinal()];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = Math.max(0, source[i].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Percentage of active users below the score, counting ties as half (0..100)
+     */
+    public Double percentileRank(Dimension dimension, int score) {
+        long[] counts = histogram(dimension);
+        int index = bucketIndex(score);
+
+        long total = 0;
+        long below = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts[i];
+            if (i < index) {
+                below += counts[i];
+            }
+        }
+
+        if (total == 0) {
+            return null;
+        }
+        return (below + counts[index] / 2.0) * 100.0 / total;
+    }
+
+    /**
+     * Smallest score with at least the given percentage of active users at or below it
+     */
+    public Integer percentile(Dimension dimension, double percent) {
+        long[] counts = histogram(dimension);
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return null;
+        }
+
+        double target = Math.max(1, Math.ceil(total * percent / 100.0));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return i;
+            }
+        }
+        return BUCKETS - 1;
+    }
+
+    // Private helper methods
+
+    private LongAdder bucket(Dimension dimension, int score) {
+        return buckets[dimension.ordinal()][bucketIndex(score)];
+    }
+
+    public enum Dimension {
+        FREEDOM, SECURITY, REPUTATION
+    }
+}
\ No newline at end of file
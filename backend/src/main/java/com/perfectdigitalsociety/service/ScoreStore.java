@@ -0,0 +1,404 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.BalanceConfig;
+import com.perfectdigitalsociety.entity.User;
+import com.perfectdigitalsociety.repository.UserRepository;
+import com.perfectdigitalsociety.repository.UserScoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory copy of every user's scores, indexed by user id.
+ * Freedom, security and reputation are kept in primitive arrays with bitsets for
+ * presence and activation, so society-wide statistics are plain array scans
+ * instead of loading User entities. Changes are applied after commit and the
+ * resulting deltas are forwarded to {@link SystemBalanceAggregator} and
+ * {@link ScoreDistribution}.
+ *
+ * Only absolute after-images are applied, each stamped with the score version the
+ * database returned for it. After-commit hooks do not run in commit order, so an
+ * image older than the one already held is ignored. The store is reloaded from the
+ * database periodically to pick up writes that bypassed it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScoreStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UserRepository userRepository;
+    private final SystemBalanceAggregator systemBalanceAggregator;
+    private final BalanceConfig balanceConfig;
+    private final ScoreDistribution scoreDistribution;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] freedom = new int[INITIAL_CAPACITY];
+    private int[] security = new int[INITIAL_CAPACITY];
+    private int[] reputation = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private final BitSet present = new BitSet();
+    private final BitSet active = new BitSet();
+
+    /**
+     * Load all user scores once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Reload all user scores from the database in id-range chunks.
+     * Rows older than the version already held are skipped and users no longer in the database are dropped.
+     */
+    public void load() {
+        long startTime = System.currentTimeMillis();
+        UserRepository.IdRange range = userRepository.getUserIdRange();
+
+        long minId;
+        long maxId;
+        lock.readLock().lock();
+        try {
+            // Also cover held users outside the current id range, they may have been deleted
+            minId = present.isEmpty() ? Long.MAX_VALUE : present.nextSetBit(0);
+            maxId = present.length() - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (range != null && range.getMinId() != null) {
+            minId = Math.min(minId, range.getMinId());
+            maxId = Math.max(maxId, range.getMaxId());
+        }
+
+        long chunkSize = Math.max(1, balanceConfig.getBulkChunkSize());
+        int loaded = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+            long toId = Math.min(maxId, fromId + chunkSize - 1);
+
+            // Users held before the read are in its result unless they were deleted
+            BitSet heldBefore;
+            lock.readLock().lock();
+            try {
+                heldBefore = present.get((int) fromId, (int) toId + 1);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<UserRepository.ScoreRow> rows = userRepository.findScoreRowsInRange(fromId, toId);
+
+            lock.writeLock().lock();
+            try {
+                for (UserRepository.ScoreRow row : rows) {
+                    heldBefore.clear((int) (row.getId() - fromId));
+                    if (!isStale(row.getId(), valueOf(row.getScoreVersion()))) {
+                        set(row.getId(), valueOf(row.getFreedomScore()), valueOf(row.getSecurityScore()),
+                            valueOf(row.getReputationScore()), Boolean.TRUE.equals(row.getActive()),
+                            valueOf(row.getScoreVersion()));
+                    }
+                }
+                for (int i = heldBefore.nextSetBit(0); i >= 0; i = heldBefore.nextSetBit(i + 1)) {
+                    remove((int) fromId + i);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += rows.size();
+        }
+
+        log.info("Score store loaded - {} users ({} ms)", loaded, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Reload all user scores, then rebuild the score distribution and reset the system balance
+     * totals from them. Both are derived under the write lock that every change also holds.
+     */
+    public void reconcile() {
+        load();
+
+        lock.writeLock().lock();
+        try {
+            long count = 0;
+            long freedomSum = 0;
+            long securitySum = 0;
+            long[][] counts = new long[ScoreDistribution.Dimension.values().length][ScoreDistribution.BUCKETS];
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                count++;
+                freedomSum += freedom[i];
+                securitySum += security[i];
+                counts[ScoreDistribution.Dimension.FREEDOM.ordinal()][ScoreDistribution.bucketIndex(freedom[i])]++;
+                counts[ScoreDistribution.Dimension.SECURITY.ordinal()][ScoreDistribution.bucketIndex(security[i])]++;
+                counts[ScoreDistribution.Dimension.REPUTATION.ordinal()][ScoreDistribution.bucketIndex(reputation[i])]++;
+            }
+            for (ScoreDistribution.Dimension dimension : ScoreDistribution.Dimension.values()) {
+                scoreDistribution.restore(dimension, counts[dimension.ordinal()]);
+            }
+            systemBalanceAggregator.reset(new SystemBalanceAggregator.Totals(count, freedomSum, securitySum));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record the scores and activation state written through a user entity once the transaction commits.
+     * Entity writes return no score version, so the rows are stamped with a new one first.
+     */
+    public void update(User user) {
+        update(List.of(user));
+    }
+
+    /**
+     * Record the scores and activation state written through user entities once the transaction commits
+     */
+    public void update(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        userRepository.flush();
+        userRepository.stampScoreVersions(users.stream().map(User::getId).toList()).forEach(this::update);
+    }
+
+    /**
+     * Record the given scores and activation state of a user, written with the given score version,
+     * once the transaction commits
+     */
+    public void update(long userId, int newFreedom, int newSecurity, int newReputation, boolean newActive, long version) {
+        TransactionHooks.afterCommit(() -> apply(userId, newFreedom, newSecurity, newReputation, newActive, version));
+    }
+
+    /**
+     * Record the scores and activation state of a row returned by an update once its transaction commits
+     */
+    public void update(UserRepository.ScoreRow row) {
+        update(row.getId(), valueOf(row.getFreedomScore()), valueOf(row.getSecurityScore()),
+               valueOf(row.getReputationScore()), Boolean.TRUE.equals(row.getActive()), valueOf(row.getScoreVersion()));
+    }
+
+    /**
+     * Record the new scores of a committed atomic update of one user
+     */
+    public void update(UserScoreRepository.ScoreChange change) {
+        update(change.userId(), change.newFreedom(), change.newSecurity(), change.reputation(), change.active(),
+               change.version());
+    }
+
+    /**
+     * Scores of a single user, if known
+     */
+    public Optional<Scores> get(Long userId) {
+        if (userId == null || userId < 0 || userId > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+
+        int index = userId.intValue();
+        lock.readLock().lock();
+        try {
+            if (!present.get(index)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Scores(freedom[index], security[index], reputation[index], active.get(index)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count and score sums over all active users
+     */
+    public ActiveStats activeStats() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            long freedomSum = 0;
+            long securitySum = 0;
+            long reputationSum = 0;
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                count++;
+                freedomSum += freedom[i];
+                securitySum += security[i];
+                reputationSum += reputation[i];
+            }
+            return new ActiveStats(count, freedomSum, securitySum, reputationSum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of the freedom and security scores of all active users, packed into dense arrays
+     */
+    public ActiveScores snapshotActive() {
+        lock.readLock().lock();
+        try {
+            int count = active.cardinality();
+            int[] freedomScores = new int[count];
+            int[] securityScores = new int[count];
+            int position = 0;
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                freedomScores[position] = freedom[i];
+                securityScores[position] = security[i];
+                position++;
+            }
+            return new ActiveScores(freedomScores, securityScores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of active users whose scores match the given predicate
+     */
+    public List<Long> findActiveUserIds(ScorePredicate predicate) {
+        List<Long> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                if (predicate.test(freedom[i], security[i], reputation[i])) {
+                    matches.add((long) i);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Number of users held in the store
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return present.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+
+    private void apply(long userId, int newFreedom, int newSecurity, int newReputation, boolean newActive, long version) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            log.warn("User ID {} out of score store range, skipping", userId);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (isStale(userId, version)) {
+                log.debug("Skipping score version {} of user ID {}, already at {}", version, userId, versions[(int) userId]);
+                return;
+            }
+            set(userId, newFreedom, newSecurity, newReputation, newActive, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isStale(long userId, long version) {
+        int index = (int) userId;
+        return present.get(index) && version < versions[index];
+    }
+
+    // Callers hold the write lock, so the totals never change while a reconcile resets them
+    private void set(long userId, int newFreedom, int newSecurity, int newReputation, boolean newActive, long version) {
+        int index = (int) userId;
+        ensureCapacity(index + 1);
+        boolean wasActive = active.get(index);
+        if (wasActive) {
+            scoreDistribution.remove(freedom[index], security[index], reputation[index]);
+        }
+        if (newActive) {
+            scoreDistribution.add(newFreedom, newSecurity, newReputation);
+        }
+        systemBalanceAggregator.applyDelta((newActive ? 1 : 0) - (wasActive ? 1 : 0),
+            (newActive ? newFreedom : 0) - (wasActive ? freedom[index] : 0),
+            (newActive ? newSecurity : 0) - (wasActive ? security[index] : 0));
+        freedom[index] = newFreedom;
+        security[index] = newSecurity;
+        reputation[index] = newReputation;
+        versions[index] = version;
+        present.set(index);
+        active.set(index, newActive);
+    }
+
+    private void remove(int index) {
+        if (active.get(index)) {
+            scoreDistribution.remove(freedom[index], security[index], reputation[index]);
+            systemBalanceAggregator.applyDelta(-1, -freedom[index], -security[index]);
+        }
+        present.clear(index);
+        active.clear(index);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= freedom.length) {
+            return;
+        }
+
+        int capacity = Math.max(required, freedom.length * 2);
+        freedom = Arrays.copyOf(freedom, capacity);
+        security = Arrays.copyOf(security, capacity);
+        reputation = Arrays.copyOf(reputation, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Scores of a single user
+     */
+    public record Scores(int freedom, int security, int reputation, boolean active) {
+    }
+
+    /**
+     * Count and score sums over active users
+     */
+    public record ActiveStats(long count, long freedomSum, long securitySum, long reputationSum) {
+
+        public Double averageFreedom() {
+            return count > 0 ? (double) freedomSum / count : null;
+        }
+
+        public Double averageSecurity() {
+            return count > 0 ? (double) securitySum / count : null;
+        }
+
+        public Double averageReputation() {
+            return count > 0 ? (double) reputationSum / count : null;
+        }
+    }
+
+    /**
+     * Scores of active users at the time of the snapshot, same index in both arrays
+     */
+    public record ActiveScores(int[] freedom, int[] security) {
+
+        public int size() {
+            return freedom.length;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ScorePredicate {
+        boolean test(int freedom, int security, int reputation);
+    }
+}
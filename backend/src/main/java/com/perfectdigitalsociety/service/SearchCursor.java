@@ -0,0 +1,38 @@
+package com.perfectdigitalsociety.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a (score, id) ranked search result for keyset pagination.
+ * The next page continues strictly after this position, so the index only keeps
+ * one page of matches however deep the client pages.
+ */
+public record SearchCursor(double score, long messageId) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Parse a cursor returned by {@link #encode()}
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            double score = Double.parseDouble(value.substring(0, separator));
+            if (!Double.isFinite(score)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new SearchCursor(score, Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        // Double.toString round-trips exactly, so the position compares equal to the match it came from
+        String value = score + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.perfectdigitalsociety.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Running totals of active users' freedom and security scores.
+ * Every committed score or activation change is applied as a delta, so the
+ * system balance can be read in constant time instead of scanning all active users.
+ * Only {@link ScoreStore} writes the totals, always under its write lock: deltas follow
+ * its per-user changes, and when the store is reconciled with the database the totals
+ * are reset to its sums in the same locked step, so no change is counted twice or lost.
+ */
+@Component
+@Slf4j
+public class SystemBalanceAggregator {
+
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Replace running totals with the sums of the reconciled score store
+     */
+    void reset(Totals reconciled) {
+        Totals previous = totals.getAndSet(reconciled);
+
+        if (!previous.equals(reconciled)) {
+            version.incrementAndGet();
+            log.info("System balance totals reconciled - Active users: {} -> {}, Freedom sum: {} -> {}, Security sum: {} -> {}",
+                    previous.activeUsers(), reconciled.activeUsers(),
+                    previous.freedomSum(), reconciled.freedomSum(),
+                    previous.securitySum(), reconciled.securitySum());
+        }
+    }
+
+    /**
+     * Apply a committed change in active user count and score sums.
+     * Called by {@link ScoreStore}, which knows each user's exact previous contribution.
+     */
+    void applyDelta(long countDelta, long freedomDelta, long securityDelta) {
+        if (countDelta == 0 && freedomDelta == 0 && securityDelta == 0) {
+            return;
+        }
+
+        totals.updateAndGet(current -> current.plus(countDelta, freedomDelta, securityDelta));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Current totals snapshot (constant time)
+     */
+    public Totals getTotals() {
+        return totals.get();
+    }
+
+    /**
+     * Counter that changes whenever the totals change
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Immutable snapshot of active user count and score sums
+     */
+    public record Totals(long activeUsers, long freedomSum, long securitySum) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0);
+
+        Totals plus(long count, long freedom, long security) {
+            return new Totals(activeUsers + count, freedomSum + freedom, securitySum + security);
+        }
+
+        public boolean isEmpty() {
+            return activeUsers <= 0;
+        }
+
+        public double averageFreedom() {
+            return isEmpty() ? 50.0 : (double) freedomSum / activeUsers;
+        }
+
+        public double averageSecurity() {
+            return isEmpty() ? 50.0 : (double) securitySum / activeUsers;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.dto.response.SystemBalanceResponse;
+import com.perfectdigitalsociety.entity.SystemMetric;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the latest system balance as an immutable, versioned snapshot.
+ * The snapshot is recomputed only when the running score totals have changed
+ * (or on an explicit refresh), so frequent polling is served from memory.
+ * A trend sample and the balance metrics are recorded once per change of the totals.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SystemBalanceSnapshotHolder {
+
+    // Distinguishes versions issued by different application runs in ETags
+    private static final String INSTANCE_TAG = Long.toString(System.currentTimeMillis(), 36);
+
+    private final BalanceService balanceService;
+    private final SystemBalanceAggregator systemBalanceAggregator;
+    private final BalanceTrendBuffer balanceTrendBuffer;
+    private final MetricRecorder metricRecorder;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Current snapshot, recomputed first if scores changed since it was taken
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.totalsVersion() == systemBalanceAggregator.getVersion()) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && current.totalsVersion() == systemBalanceAggregator.getVersion()) {
+                return current;
+            }
+            return recompute();
+        }
+    }
+
+    /**
+     * Recompute the snapshot regardless of score changes (scheduled refresh)
+     */
+    public synchronized Snapshot refresh() {
+        return recompute();
+    }
+
+    private Snapshot recompute() {
+        // Read the totals version first so changes during computation trigger another recompute
+        long totalsVersion = systemBalanceAggregator.getVersion();
+        SystemBalanceAggregator.Totals totals = systemBalanceAggregator.getTotals();
+        SystemBalanceResponse balance = balanceService.calculateSystemBalance(totals);
+        if (snapshot == null || snapshot.totalsVersion() != totalsVersion) {
+            recordSample(totals, balance);
+        }
+        long version = snapshot != null ? snapshot.version() + 1 : 1;
+
+        Snapshot next = new Snapshot(version, totalsVersion,
+            balance.getCurrentFreedomLevel(), balance.getCurrentSecurityLevel(),
+            balance.getBalanceScore(), balance.getLastUpdated(), balance.getTrend(),
+            balance.getFreedomSlope(), balance.getSecuritySlope(),
+            balance.getFreedomVolatility(), balance.getSecurityVolatility());
+        snapshot = next;
+
+        log.debug("System balance snapshot updated to version {}", version);
+        return next;
+    }
+
+    private void recordSample(SystemBalanceAggregator.Totals totals, SystemBalanceResponse balance) {
+        if (totals.isEmpty()) {
+            return;
+        }
+        balanceTrendBuffer.append(totals.averageFreedom(), totals.averageSecurity());
+
+        // Buffered, persisted in batches
+        Map<String, BigDecimal> balanceMetrics = new LinkedHashMap<>();
+        balanceMetrics.put(BalanceTrendBuffer.FREEDOM_METRIC, BigDecimal.valueOf(totals.averageFreedom()));
+        balanceMetrics.put(BalanceTrendBuffer.SECURITY_METRIC, BigDecimal.valueOf(totals.averageSecurity()));
+        balanceMetrics.put("system_balance_score", BigDecimal.valueOf(balance.getBalanceScore()));
+        metricRecorder.recordGroup(balanceMetrics, SystemMetric.MetricType.BALANCE, SystemMetric.CalculationPeriod.REAL_TIME);
+    }
+
+    /**
+     * Immutable system balance snapshot
+     */
+    public record Snapshot(long version, long totalsVersion, Integer currentFreedomLevel, Integer currentSecurityLevel,
+                           Double balanceScore, LocalDateTime lastUpdated, String trend,
+                           Double freedomSlope, Double securitySlope,
+                           Double freedomVolatility, Double securityVolatility) {
+
+        public String etag() {
+            return "\"" + INSTANCE_TAG + "-" + version + "\"";
+        }
+
+        public boolean matches(String ifNoneMatch) {
+            return ifNoneMatch != null && (ifNoneMatch.contains(etag()) || ifNoneMatch.trim().equals("*"));
+        }
+
+        public SystemBalanceResponse toResponse() {
+            return new SystemBalanceResponse(currentFreedomLevel, currentSecurityLevel, balanceScore,
+                lastUpdated, trend, freedomSlope, securitySlope, freedomVolatility, securityVolatility, version);
+        }
+    }
+}
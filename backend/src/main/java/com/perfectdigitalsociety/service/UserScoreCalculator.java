@@ -0,0 +1,63 @@
+package com.perfectdigitalsociety.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user balance recalculation rules.
+ * Shared by single-user recalculation and the batch recalculation job, which
+ * passes values from projections and aggregate message counts instead of entities.
+ */
+public final class UserScoreCalculator {
+
+    private UserScoreCalculator() {
+    }
+
+    /**
+     * Freedom score based on user activity and community rules
+     */
+    public static int freedomScore(Integer freedomScore, Integer reputationScore, long messageCount) {
+        int baseScore = freedomScore != null ? freedomScore : 50;
+
+        // Increase freedom score based on positive community interaction
+        int activityBonus = (int) Math.min(messageCount * 2, 30);
+
+        // Apply reputation modifier
+        int reputationModifier = reputationScore != null ? reputationScore / 10 : 0;
+
+        // Ensure score stays within bounds (0-100)
+        return clamp(baseScore + activityBonus + reputationModifier);
+    }
+
+    /**
+     * Security score influenced by account age and stability
+     */
+    public static int securityScore(Integer securityScore, LocalDateTime createdAt, long messageCount, LocalDateTime now) {
+        int baseScore = securityScore != null ? securityScore : 50;
+
+        long daysSinceCreation = createdAt != null ? Duration.between(createdAt, now).toDays() : 0;
+        int stabilityBonus = (int) Math.min(daysSinceCreation / 7, 20);
+
+        // Moderate activity increases security
+        int activityModifier = messageCount > 0 && messageCount < 100 ? 10 : 0;
+
+        return clamp(baseScore + stabilityBonus + activityModifier);
+    }
+
+    /**
+     * Reputation based on community feedback and contribution
+     */
+    public static int reputationScore(Integer reputationScore, Boolean active) {
+        int baseReputation = reputationScore != null ? reputationScore : 0;
+
+        // This would be enhanced with actual community feedback data
+        // For now, simple calculation based on account status
+        int statusBonus = Boolean.TRUE.equals(active) ? 10 : 0;
+
+        return Math.max(0, baseReputation + statusBonus);
+    }
+
+    private static int clamp(int score) {
+        return Math.max(0, Math.min(100, score));
+    }
+}
\ No newline at end of file
@@ -35,6 +35,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final BalanceService balanceService;
+    private final ScoreStore scoreStore;
     
     // Business Logic Methods as specified in documentation
     
@@ -67,12 +68,17 @@ public class UserService {
         user.setIsActive(true);
         
         User savedUser = userRepository.save(user);
+        scoreStore.update(savedUser);
         
-        // Trigger initial balance calculation
-        balanceService.calculateUserBalance(savedUser.getId());
+        // Trigger initial balance calculation; it writes the scores directly, not through the entity
+        UserBalanceResponse balance = balanceService.calculateUserBalance(savedUser.getId());
         
         log.info("User registered successfully with ID: {}", savedUser.getId());
-        return userMapper.toUserResponse(savedUser);
+        UserResponse response = userMapper.toUserResponse(savedUser);
+        response.setFreedomScore(balance.getFreedomScore());
+        response.setSecurityScore(balance.getSecurityScore());
+        response.setReputationScore(balance.getReputationScore());
+        return response;
     }
     
     /**
@@ -137,43 +143,10 @@ public class UserService {
      * Calculate user balance scores
      */
     public UserBalanceResponse calculateUserBalance(Long userId) {
-        log.info("Calculating balance for user ID: {}", userId);
-        
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
-        
-        // Calculate balance based on user activity, messages, and community interaction
-        Integer messageCount = userRepository.findById(userId)
-            .map(u -> u.getMessages().size())
-            .orElse(0);
-        
-        // Dynamic balance calculation algorithm
-        Integer newFreedomScore = calculateFreedomScore(user, messageCount);
-        Integer newSecurityScore = calculateSecurityScore(user, messageCount);
-        Integer newReputationScore = calculateReputationScore(user);
-        
-        // Update user scores
-        user.setFreedomScore(newFreedomScore);
-        user.setSecurityScore(newSecurityScore);
-        user.setReputationScore(newReputationScore);
-        
-        userRepository.save(user);
-        
-        // Calculate balance ratio
-        Double balanceRatio = calculateBalanceRatio(newFreedomScore, newSecurityScore);
-        
-        UserBalanceResponse response = new UserBalanceResponse();
-        response.setUserId(userId);
-        response.setUsername(user.getUsername());
-        response.setFreedomScore(newFreedomScore);
-        response.setSecurityScore(newSecurityScore);
-        response.setReputationScore(newReputationScore);
-        response.setBalanceRatio(balanceRatio);
-        response.setLastUpdated(LocalDateTime.now());
-        
-        log.info("Balance calculated for user ID: {}, Freedom: {}, Security: {}", 
-                userId, newFreedomScore, newSecurityScore);
-        
+        // One recalculation for all callers; it never overwrites concurrent atomic score changes
+        UserBalanceResponse response = balanceService.calculateUserBalance(userId);
+        // This endpoint has always reported an unbounded ratio when only security is zero
+        response.setBalanceRatio(calculateBalanceRatio(response.getFreedomScore(), response.getSecurityScore()));
         return response;
     }
     
@@ -212,6 +185,7 @@ public class UserService {
         
         user.setIsActive(false);
         userRepository.save(user);
+        scoreStore.update(user);
         
         log.info("User deactivated successfully: {}", userId);
     }
@@ -224,6 +198,7 @@ public class UserService {
         
         user.setIsActive(true);
         userRepository.save(user);
+        scoreStore.update(user);
         
         log.info("User activated successfully: {}", userId);
     }
@@ -248,54 +223,6 @@ public class UserService {
         return user.getRole() == User.Role.MODERATOR || user.getRole() == User.Role.ADMIN;
     }
 
-    // Private helper methods for balance calculation
-    
-    private Integer calculateFreedomScore(User user, Integer messageCount) {
-        // Dynamic freedom score calculation based on user activity and community rules
-        Integer baseScore = user.getFreedomScore() != null ? user.getFreedomScore() : 50;
-
-        // Increase freedom score based on positive community interaction
-        Integer activityBonus = Math.min(messageCount * 2, 30);
-        
-        // Apply reputation modifier
-        Integer reputationModifier = user.getReputationScore() != null ? 
-            user.getReputationScore() / 10 : 0;
-        
-        Integer newScore = baseScore + activityBonus + reputationModifier;
-        
-        // Ensure score stays within bounds (0-100)
-        return Math.max(0, Math.min(100, newScore));
-    }
-    
-    private Integer calculateSecurityScore(User user, Integer messageCount) {
-        // Dynamic security score calculation
-        Integer baseScore = user.getSecurityScore() != null ? user.getSecurityScore() : 50;
-        
-        // Security score influenced by account age and stability
-        Long daysSinceCreation = user.getCreatedAt() != null ? 
-            java.time.Duration.between(user.getCreatedAt(), LocalDateTime.now()).toDays() : 0;
-        
-        Integer stabilityBonus = Math.min((int) (daysSinceCreation / 7), 20);
-        
-        // Moderate activity increases security
-        Integer activityModifier = messageCount > 0 && messageCount < 100 ? 10 : 0;
-        
-        Integer newScore = baseScore + stabilityBonus + activityModifier;
-        
-        return Math.max(0, Math.min(100, newScore));
-    }
-    
-    private Integer calculateReputationScore(User user) {
-        // Reputation based on community feedback and contribution
-        Integer baseReputation = user.getReputationScore() != null ? user.getReputationScore() : 0;
-        
-        // This would be enhanced with actual community feedback data
-        // For now, simple calculation based on account status
-        Integer statusBonus = user.getIsActive() ? 10 : 0;
-        
-        return Math.max(0, baseReputation + statusBonus);
-    }
-    
     private Double calculateBalanceRatio(Integer freedomScore, Integer securityScore) {
         if (securityScore == 0) {
             return freedomScore > 0 ? Double.MAX_VALUE : 1.0;
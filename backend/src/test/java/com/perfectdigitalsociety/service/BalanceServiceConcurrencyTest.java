@@ -0,0 +1,144 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.dto.response.BalanceEventResponse;
+import com.perfectdigitalsociety.entity.User;
+import com.perfectdigitalsociety.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BalanceServiceConcurrencyTest {
+
+	private static final int PARALLELISM = 100;
+
+	@Autowired
+	private BalanceService balanceService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ScoreStore scoreStore;
+
+	@Autowired
+	private BalanceEventJournal balanceEventJournal;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Adjustments commit on their own threads, so the user is deleted explicitly
+	private Long userId;
+
+	@Test
+	void concurrentAdjustmentsLoseNoUpdates() throws Exception {
+		userId = createUser(0, 100);
+
+		// Start all adjustments at once to maximize contention on the same row
+		ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<BalanceEventResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < PARALLELISM; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return balanceService.adjustBalance(userId, 1, -1, "Concurrency test");
+			}));
+		}
+		start.countDown();
+
+		List<BalanceEventResponse> events = new ArrayList<>();
+		for (Future<BalanceEventResponse> future : futures) {
+			events.add(future.get(60, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+
+		User reloaded = userRepository.findById(userId).orElseThrow();
+		assertThat(reloaded.getFreedomScore()).isEqualTo(PARALLELISM);
+		assertThat(reloaded.getSecurityScore()).isZero();
+
+		// Each adjustment saw a distinct previous value, so none was computed from a stale read
+		assertThat(events)
+			.extracting(BalanceEventResponse::getPreviousFreedomLevel)
+			.containsExactlyInAnyOrderElementsOf(IntStream.range(0, PARALLELISM).boxed().toList());
+		assertThat(events)
+			.allSatisfy(event -> assertThat(event.getNewFreedomLevel()).isEqualTo(event.getPreviousFreedomLevel() + 1));
+
+		// The in-memory copy converges to the same scores regardless of commit order
+		assertThat(scoreStore.get(userId)).hasValueSatisfying(scores -> {
+			assertThat(scores.freedom()).isEqualTo(PARALLELISM);
+			assertThat(scores.security()).isZero();
+		});
+	}
+
+	@Test
+	void scoreStoreMatchesDatabaseAfterAdjustmentsInterleavedWithRecalculations() throws Exception {
+		userId = createUser(20, 80);
+
+		// Relative adjustments and absolute recalculations of the same user commit in any order
+		ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < PARALLELISM; i++) {
+			boolean recalculate = i % 2 == 0;
+			futures.add(executor.submit(() -> {
+				start.await();
+				if (recalculate) {
+					return balanceService.calculateUserBalance(userId);
+				}
+				return balanceService.adjustBalance(userId, 1, -1, "Concurrency test");
+			}));
+		}
+		start.countDown();
+
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		User reloaded = userRepository.findById(userId).orElseThrow();
+		assertThat(scoreStore.get(userId)).hasValue(new ScoreStore.Scores(reloaded.getFreedomScore(),
+			reloaded.getSecurityScore(), reloaded.getReputationScore(), reloaded.getIsActive()));
+	}
+
+	private Long createUser(int freedomScore, int securityScore) {
+		String username = "concurrency-" + System.nanoTime();
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@test.local");
+		user.setPasswordHash("not-a-real-hash");
+		user.setFreedomScore(freedomScore);
+		user.setSecurityScore(securityScore);
+		user = userRepository.save(user);
+		scoreStore.update(user);
+		return user.getId();
+	}
+
+	@AfterEach
+	void deleteUser() throws InterruptedException {
+		if (userId == null) {
+			return;
+		}
+		// The journaled events reference the user, so they are written and deleted first
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (balanceEventJournal.pendingBytes() > 0 && System.nanoTime() < deadline) {
+			if (balanceEventJournal.drain() == 0) {
+				Thread.sleep(10);
+			}
+		}
+		jdbcTemplate.update("DELETE FROM balance_events WHERE triggered_by = ?", userId);
+		userRepository.deleteById(userId);
+	}
+}
@@ -0,0 +1,160 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.dto.request.ModerationDecision;
+import com.perfectdigitalsociety.dto.response.BulkModerationResponse;
+import com.perfectdigitalsociety.dto.response.ModerationOutcomeResponse;
+import com.perfectdigitalsociety.entity.BalanceEvent;
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.entity.User;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import com.perfectdigitalsociety.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@Transactional // users, messages and score changes are rolled back
+class BulkModerationTest {
+
+	@Autowired
+	private MessageService messageService;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@SpyBean
+	private BalanceEventJournal balanceEventJournal;
+
+	private User moderator;
+	private User authorA;
+	private User authorB;
+	private Message a1;
+	private Message a2;
+	private Message b1;
+
+	@BeforeEach
+	void createAuthorsAndMessages() {
+		String prefix = "bulk-moderation-" + System.nanoTime() + "-";
+		moderator = createUser(prefix + "moderator", User.Role.MODERATOR);
+		authorA = createUser(prefix + "a", User.Role.USER);
+		authorB = createUser(prefix + "b", User.Role.USER);
+		a1 = createMessage(authorA, "First message of A");
+		a2 = createMessage(authorA, "Second message of A");
+		b1 = createMessage(authorB, "Message of B");
+		// The moderation update and the score deltas are native statements, so the rows must be written first
+		entityManager.flush();
+		clearInvocations(balanceEventJournal);
+	}
+
+	@Test
+	void eachAuthorGetsOneNetAdjustmentAndOneEvent() {
+		BulkModerationResponse response = messageService.moderateMessages(moderator.getId(), List.of(
+			new ModerationDecision(a1.getId(), Message.ModerationStatus.APPROVED),
+			new ModerationDecision(a2.getId(), Message.ModerationStatus.REJECTED),
+			new ModerationDecision(b1.getId(), Message.ModerationStatus.REJECTED),
+			new ModerationDecision(b1.getId(), Message.ModerationStatus.APPROVED),
+			new ModerationDecision(Long.MAX_VALUE, Message.ModerationStatus.REJECTED)));
+
+		assertThat(response.getApplied()).isEqualTo(3);
+		assertThat(response.getUnchanged()).isZero();
+		assertThat(response.getFailed()).isEqualTo(2);
+		assertThat(response.getAdjustedAuthors()).isEqualTo(2);
+		assertThat(response.getOutcomes())
+			.extracting(ModerationOutcomeResponse::getResult)
+			.containsExactly("APPLIED", "APPLIED", "APPLIED", "DUPLICATE", "NOT_FOUND");
+
+		// A: one approval (+5/0) and one rejection (-10/+10); B: one rejection
+		entityManager.clear();
+		assertScores(authorA.getId(), 45, 60);
+		assertScores(authorB.getId(), 40, 60);
+		assertModeration(a1.getId(), Message.ModerationStatus.APPROVED, true);
+		assertModeration(a2.getId(), Message.ModerationStatus.REJECTED, false);
+		assertModeration(b1.getId(), Message.ModerationStatus.REJECTED, false);
+
+		ArgumentCaptor<BalanceEvent> events = ArgumentCaptor.forClass(BalanceEvent.class);
+		verify(balanceEventJournal, times(2)).record(events.capture());
+		assertThat(events.getAllValues())
+			.extracting(BalanceEvent::getAffectedUsers)
+			.containsExactlyInAnyOrder("[" + authorA.getId() + "]", "[" + authorB.getId() + "]");
+		assertThat(events.getAllValues())
+			.filteredOn(event -> event.getAffectedUsers().equals("[" + authorA.getId() + "]"))
+			.singleElement()
+			.satisfies(event -> {
+				assertThat(event.getPreviousFreedomLevel()).isEqualTo(50);
+				assertThat(event.getNewFreedomLevel()).isEqualTo(45);
+				assertThat(event.getNewSecurityLevel()).isEqualTo(60);
+			});
+	}
+
+	@Test
+	void repeatedDecisionsChangeNothing() {
+		List<ModerationDecision> decisions = List.of(
+			new ModerationDecision(a1.getId(), Message.ModerationStatus.REJECTED),
+			new ModerationDecision(b1.getId(), Message.ModerationStatus.REJECTED));
+		messageService.moderateMessages(moderator.getId(), decisions);
+		clearInvocations(balanceEventJournal);
+
+		BulkModerationResponse retried = messageService.moderateMessages(moderator.getId(), decisions);
+
+		assertThat(retried.getApplied()).isZero();
+		assertThat(retried.getUnchanged()).isEqualTo(2);
+		assertThat(retried.getAdjustedAuthors()).isZero();
+		verify(balanceEventJournal, never()).record(any());
+
+		entityManager.clear();
+		assertScores(authorA.getId(), 40, 60);
+		assertScores(authorB.getId(), 40, 60);
+	}
+
+	// Helper methods
+
+	private User createUser(String username, User.Role role) {
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@test.local");
+		user.setPasswordHash("not-a-real-hash");
+		user.setRole(role);
+		user.setFreedomScore(50);
+		user.setSecurityScore(50);
+		return userRepository.save(user);
+	}
+
+	private Message createMessage(User author, String content) {
+		Message message = new Message();
+		message.setUser(author);
+		message.setContent(content);
+		return messageRepository.save(message);
+	}
+
+	private void assertScores(Long userId, int freedom, int security) {
+		User user = userRepository.findById(userId).orElseThrow();
+		assertThat(user.getFreedomScore()).isEqualTo(freedom);
+		assertThat(user.getSecurityScore()).isEqualTo(security);
+	}
+
+	private void assertModeration(Long messageId, Message.ModerationStatus status, boolean visible) {
+		Message message = messageRepository.findById(messageId).orElseThrow();
+		assertThat(message.getModerationStatus()).isEqualTo(status);
+		assertThat(message.getIsVisible()).isEqualTo(visible);
+	}
+}
@@ -0,0 +1,128 @@
+package com.perfectdigitalsociety.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class FlagAggregatorTest {
+
+	private static final int PARALLELISM = 100;
+
+	private final BalanceService balanceService = mock(BalanceService.class);
+
+	// Without an active transaction, flags are counted for good immediately
+	private final FlagAggregator aggregator = new FlagAggregator(balanceService,
+		mock(JdbcTemplate.class), mock(PlatformTransactionManager.class));
+
+	@Test
+	void concurrentFlagsAreCountedExactly() throws Exception {
+		// Start all flags at once to maximize contention on the same message
+		ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < PARALLELISM; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return aggregator.record(1L, 7L, 0);
+			}));
+		}
+		start.countDown();
+
+		List<Integer> counts = new ArrayList<>();
+		for (Future<Integer> future : futures) {
+			counts.add(future.get(30, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+
+		// Every flag observed a distinct live count, so the threshold is crossed exactly once
+		assertThat(counts).containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, PARALLELISM).boxed().toList());
+	}
+
+	@Test
+	void flushAppliesOneNetPenaltyPerAuthor() {
+		for (int i = 0; i < 3; i++) {
+			aggregator.record(1L, 7L, 0);
+		}
+		aggregator.record(2L, 7L, 4);
+		aggregator.record(2L, 7L, 4);
+		aggregator.record(3L, 8L, 0);
+
+		assertThat(aggregator.flush()).isEqualTo(3);
+		verify(balanceService).adjustBalance(eq(7L), eq(-25), eq(25), anyString());
+		verify(balanceService).adjustBalance(eq(8L), eq(-5), eq(5), anyString());
+
+		// Nothing new within the next window
+		assertThat(aggregator.flush()).isZero();
+		verifyNoMoreInteractions(balanceService);
+	}
+
+	@Test
+	void liveCountContinuesFromThePersistedCount() {
+		assertThat(aggregator.record(1L, 7L, 10)).isEqualTo(11);
+		assertThat(aggregator.record(1L, 7L, 10)).isEqualTo(12);
+
+		// Written, then idle for a whole window: the counter is dropped and the database count takes over
+		aggregator.flush();
+		aggregator.flush();
+		assertThat(aggregator.record(1L, 7L, 12)).isEqualTo(13);
+	}
+
+	@Test
+	void rolledBackFlagsAreNeverWrittenOrPenalized() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertThat(aggregator.record(1L, 7L, 0)).isEqualTo(1);
+
+			// Still open: the flag counts towards the threshold but is not written yet
+			assertThat(aggregator.flush()).isZero();
+			completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(aggregator.flush()).isZero();
+		verifyNoInteractions(balanceService);
+		assertThat(aggregator.record(1L, 7L, 0)).isEqualTo(1);
+	}
+
+	@Test
+	void committedFlagsAreWrittenOnTheNextFlush() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			aggregator.record(1L, 7L, 0);
+			assertThat(aggregator.flush()).isZero();
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+			completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(aggregator.flush()).isEqualTo(1);
+		verify(balanceService).adjustBalance(eq(7L), eq(-5), eq(5), anyString());
+	}
+
+	// Helper methods
+
+	private static void completeTransaction(int status) {
+		TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.perfectdigitalsociety.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Throughput of {@link ImpactMatcher} against the previous lowercase-and-contains scoring,
+ * across message sizes and dictionary sizes. Not a unit test; run its main method from the
+ * test classpath, e.g. after test-compile:
+ * java -cp target/test-classes:target/classes com.perfectdigitalsociety.service.ImpactMatcherBenchmark
+ *
+ * Each case is warmed up for one second and then measured in five one-second rounds;
+ * the median round is reported.
+ */
+public final class ImpactMatcherBenchmark {
+
+	private static final int[] MESSAGE_SIZES = {64, 256, 1024, 4096, 16384};
+	private static final int[] DICTIONARY_SIZES = {12, 200};
+	private static final int MESSAGES = 256;
+	private static final int ROUNDS = 5;
+	private static final long ROUND_NANOS = 1_000_000_000L;
+
+	private static long sink;
+
+	private ImpactMatcherBenchmark() {
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%-10s %-8s %14s %14s %8s%n", "keywords", "chars", "legacy ns/op", "matcher ns/op", "speedup");
+		for (int dictionarySize : DICTIONARY_SIZES) {
+			String[][] keywords = dictionary(dictionarySize);
+			ImpactMatcher matcher = ImpactMatcher.compile(toKeywords(keywords),
+				MessageImpactAnalyzer.IMPACT_CAP, MessageImpactAnalyzer.IMPACT_CAP);
+
+			for (int size : MESSAGE_SIZES) {
+				String[] messages = messages(size, keywords);
+				double legacy = measure(() -> {
+					for (String message : messages) {
+						sink += legacyScore(message, keywords[0]) + legacyScore(message, keywords[1]);
+					}
+				}) / messages.length;
+				double matched = measure(() -> {
+					for (String message : messages) {
+						ImpactMatcher.Impact impact = matcher.score(message);
+						sink += impact.freedom() + impact.security();
+					}
+				}) / messages.length;
+
+				System.out.printf("%-10d %-8d %14.0f %14.0f %7.1fx%n",
+					dictionarySize, size, legacy, matched, legacy / matched);
+			}
+		}
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	// Helper methods
+
+	// Median nanoseconds per run of the given batch
+	private static double measure(Runnable batch) {
+		run(batch, ROUND_NANOS);
+		double[] rounds = new double[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			rounds[i] = run(batch, ROUND_NANOS);
+		}
+		Arrays.sort(rounds);
+		return rounds[ROUNDS / 2];
+	}
+
+	private static double run(Runnable batch, long durationNanos) {
+		long start = System.nanoTime();
+		long end = start + durationNanos;
+		long runs = 0;
+		long now;
+		do {
+			batch.run();
+			runs++;
+			now = System.nanoTime();
+		} while (now < end);
+		return (double) (now - start) / runs;
+	}
+
+	// The scoring previously used by MessageService, per dimension
+	private static int legacyScore(String content, String[] keywords) {
+		String lowercased = content.toLowerCase(Locale.ROOT);
+		int impact = 0;
+		for (String keyword : keywords) {
+			if (lowercased.contains(keyword)) {
+				impact += MessageImpactAnalyzer.KEYWORD_WEIGHT;
+			}
+		}
+		return Math.min(impact, MessageImpactAnalyzer.IMPACT_CAP);
+	}
+
+	// The built-in keywords, padded with generated words to the requested size
+	private static String[][] dictionary(int size) {
+		List<String> freedom = new ArrayList<>(Arrays.asList(MessageImpactAnalyzer.FREEDOM_KEYWORDS));
+		List<String> security = new ArrayList<>(Arrays.asList(MessageImpactAnalyzer.SECURITY_KEYWORDS));
+		Random random = new Random(7);
+		while (freedom.size() + security.size() < size) {
+			(freedom.size() <= security.size() ? freedom : security).add(word(random, 5, 10));
+		}
+		return new String[][] {freedom.toArray(String[]::new), security.toArray(String[]::new)};
+	}
+
+	private static List<ImpactMatcher.Keyword> toKeywords(String[][] keywords) {
+		List<ImpactMatcher.Keyword> result = new ArrayList<>();
+		for (String keyword : keywords[0]) {
+			result.add(new ImpactMatcher.Keyword(keyword, ImpactMatcher.Dimension.FREEDOM, MessageImpactAnalyzer.KEYWORD_WEIGHT));
+		}
+		for (String keyword : keywords[1]) {
+			result.add(new ImpactMatcher.Keyword(keyword, ImpactMatcher.Dimension.SECURITY, MessageImpactAnalyzer.KEYWORD_WEIGHT));
+		}
+		return result;
+	}
+
+	// Mixed-case prose with an occasional keyword
+	private static String[] messages(int size, String[][] keywords) {
+		Random random = new Random(size);
+		String[] messages = new String[MESSAGES];
+		for (int i = 0; i < MESSAGES; i++) {
+			StringBuilder message = new StringBuilder(size + 16);
+			while (message.length() < size) {
+				String word;
+				if (random.nextInt(20) == 0) {
+					String[] dimension = keywords[random.nextInt(2)];
+					word = dimension[random.nextInt(dimension.length)];
+				} else {
+					word = word(random, 2, 9);
+				}
+				if (random.nextInt(8) == 0) {
+					word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+				}
+				message.append(word).append(' ');
+			}
+			message.setLength(size);
+			messages[i] = message.toString();
+		}
+		return messages;
+	}
+
+	private static String word(Random random, int minLength, int maxLength) {
+		int length = minLength + random.nextInt(maxLength - minLength + 1);
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(26)));
+		}
+		return word.toString();
+	}
+}
@@ -0,0 +1,114 @@
+package com.perfectdigitalsociety.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfectdigitalsociety.config.ImpactConfig;
+import com.perfectdigitalsociety.dto.response.ImpactDictionaryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImpactMatcherTest {
+
+	private static final String[] FRAGMENTS = {
+		"freedom", "liberty", "choice", "expression", "open", "transparent",
+		"secure", "safe", "protect", "privacy", "moderation", "guidelines",
+		"free", "sec", "pro", "guide", "x", " ", "\n", "ß"
+	};
+
+	private final MessageImpactAnalyzer analyzer = new MessageImpactAnalyzer(new ImpactConfig(), new ObjectMapper());
+
+	@Test
+	void scoresLikePerKeywordContainsOnLowercasedContent() {
+		Random random = new Random(42);
+		for (int i = 0; i < 50_000; i++) {
+			String content = randomContent(random);
+			ImpactMatcher.Impact impact = analyzer.analyze(content);
+
+			assertThat(impact.freedom())
+				.as(content)
+				.isEqualTo(legacyImpact(content, MessageImpactAnalyzer.FREEDOM_KEYWORDS));
+			assertThat(impact.security())
+				.as(content)
+				.isEqualTo(legacyImpact(content, MessageImpactAnalyzer.SECURITY_KEYWORDS));
+		}
+	}
+
+	@Test
+	void countsEachKeywordOnceAndAppliesCaps() {
+		List<ImpactMatcher.Keyword> keywords = new ArrayList<>();
+		keywords.add(new ImpactMatcher.Keyword("she", ImpactMatcher.Dimension.FREEDOM, 3));
+		keywords.add(new ImpactMatcher.Keyword("he", ImpactMatcher.Dimension.FREEDOM, 4));
+		keywords.add(new ImpactMatcher.Keyword("hers", ImpactMatcher.Dimension.SECURITY, 10));
+		ImpactMatcher matcher = ImpactMatcher.compile(keywords, 5, 100);
+
+		assertThat(matcher.score("SHE he he hers")).isEqualTo(new ImpactMatcher.Impact(5, 10));
+		assertThat(matcher.score("ushers")).isEqualTo(new ImpactMatcher.Impact(5, 10));
+		assertThat(matcher.score("h e r s")).isEqualTo(new ImpactMatcher.Impact(0, 0));
+		assertThat(matcher.score(null)).isEqualTo(new ImpactMatcher.Impact(0, 0));
+	}
+
+	@Test
+	void reloadsDictionaryFileAndFallsBackToBuiltInKeywords(@TempDir Path directory) throws Exception {
+		Path file = directory.resolve("impact-dictionary.json");
+		ImpactConfig config = new ImpactConfig();
+		config.setDictionaryPath(file.toString());
+		MessageImpactAnalyzer fileAnalyzer = new MessageImpactAnalyzer(config, new ObjectMapper());
+
+		Files.writeString(file, """
+			{"freedom": {"cap": 12, "keywords": {"liberty": 7, "Choice": 7}},
+			 "security": {"keywords": {"guard": 3}}}
+			""");
+		ImpactDictionaryResponse loaded = fileAnalyzer.reload();
+
+		assertThat(loaded.getSource()).isEqualTo(file.toString());
+		assertThat(loaded.getFreedomKeywords()).isEqualTo(2);
+		assertThat(loaded.getSecurityKeywords()).isEqualTo(1);
+		assertThat(fileAnalyzer.analyze("Liberty of CHOICE, guarded and secure"))
+			.isEqualTo(new ImpactMatcher.Impact(12, 3));
+
+		Files.delete(file);
+		fileAnalyzer.reloadIfChanged();
+
+		assertThat(fileAnalyzer.getDictionaryInfo().getSource()).isEqualTo("BUILT_IN");
+		assertThat(fileAnalyzer.analyze("Liberty of CHOICE, guarded and secure"))
+			.isEqualTo(new ImpactMatcher.Impact(10, 5));
+	}
+
+	// Helper methods
+
+	private static String randomContent(Random random) {
+		StringBuilder content = new StringBuilder();
+		int words = random.nextInt(20);
+		for (int i = 0; i < words; i++) {
+			String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+			if (random.nextBoolean()) {
+				fragment = fragment.toUpperCase(Locale.ROOT);
+			}
+			if (fragment.length() > 2 && random.nextInt(4) == 0) {
+				fragment = fragment.substring(random.nextInt(fragment.length() / 2));
+			}
+			content.append(fragment);
+		}
+		return content.toString();
+	}
+
+	// The implementation previously used by MessageService
+	private static int legacyImpact(String content, String[] keywords) {
+		String lowercased = content.toLowerCase(Locale.ROOT);
+		int impact = 0;
+		for (String keyword : keywords) {
+			if (lowercased.contains(keyword)) {
+				impact += MessageImpactAnalyzer.KEYWORD_WEIGHT;
+			}
+		}
+		return Math.min(impact, MessageImpactAnalyzer.IMPACT_CAP);
+	}
+}
\ No newline at end of file
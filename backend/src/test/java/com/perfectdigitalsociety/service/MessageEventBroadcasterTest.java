@@ -0,0 +1,156 @@
+package com.perfectdigitalsociety.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfectdigitalsociety.config.MessageConfig;
+import com.perfectdigitalsociety.dto.response.MessageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageEventBroadcasterTest {
+
+	private final MessageConfig config = new MessageConfig();
+
+	// Deliveries are held back until run, like a subscriber that stopped reading
+	private final List<Runnable> deliveries = new ArrayList<>();
+
+	@Test
+	void idleSubscribersCostNoDeliveryTask() {
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		broadcaster.subscribe(null);
+		broadcaster.subscribe(null);
+
+		assertThat(broadcaster.getSubscriberCount()).isEqualTo(2);
+		assertThat(deliveries).isEmpty();
+	}
+
+	@Test
+	void oneDeliveryTaskPerSubscriberWhileEventsQueue() {
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		broadcaster.subscribe(null);
+
+		// Without an active transaction, events are broadcast immediately
+		for (long id = 1; id <= 3; id++) {
+			broadcaster.publish(MessageEventBroadcaster.EventType.CREATED, message(id));
+		}
+
+		assertThat(deliveries).hasSize(1);
+	}
+
+	@Test
+	void slowSubscribersAreEvicted() {
+		config.setStreamBufferSize(2);
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		broadcaster.subscribe(null);
+
+		broadcaster.publish(MessageEventBroadcaster.EventType.CREATED, message(1));
+		broadcaster.publish(MessageEventBroadcaster.EventType.FLAGGED, message(1));
+		assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+
+		broadcaster.publish(MessageEventBroadcaster.EventType.HIDDEN, message(1));
+		assertThat(broadcaster.getSubscriberCount()).isZero();
+	}
+
+	@Test
+	void resumingSubscribersAreReplayedExactlyTheEventsTheyMissed() {
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		RecordingEmitter live = new RecordingEmitter();
+		broadcaster.subscribe(null, live);
+		for (long id = 1; id <= 3; id++) {
+			broadcaster.publish(MessageEventBroadcaster.EventType.CREATED, message(id));
+		}
+		runDeliveries();
+		assertThat(live.ids).hasSize(3);
+
+		RecordingEmitter resumed = new RecordingEmitter();
+		broadcaster.subscribe(live.ids.get(0), resumed);
+		runDeliveries();
+
+		assertThat(resumed.ids).containsExactlyElementsOf(live.ids.subList(1, 3));
+		assertThat(resumed.names).containsOnly("CREATED");
+	}
+
+	@Test
+	void subscribersResumingBeforeTheRingAreReset() {
+		config.setStreamReplaySize(2);
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		RecordingEmitter live = new RecordingEmitter();
+		broadcaster.subscribe(null, live);
+		for (long id = 1; id <= 4; id++) {
+			broadcaster.publish(MessageEventBroadcaster.EventType.CREATED, message(id));
+		}
+		runDeliveries();
+
+		// The ring still holds the last two events, so resuming after the second one is replayable
+		RecordingEmitter recent = new RecordingEmitter();
+		broadcaster.subscribe(live.ids.get(1), recent);
+		RecordingEmitter stale = new RecordingEmitter();
+		broadcaster.subscribe(live.ids.get(0), stale);
+		RecordingEmitter unknown = new RecordingEmitter();
+		broadcaster.subscribe("not-an-id", unknown);
+		runDeliveries();
+
+		assertThat(recent.ids).containsExactlyElementsOf(live.ids.subList(2, 4));
+		assertThat(stale.names).containsExactly("RESET");
+		assertThat(unknown.names).containsExactly("RESET");
+	}
+
+	@Test
+	void hiddenMessagesArePublishedAsTombstones() {
+		MessageEventBroadcaster broadcaster = new MessageEventBroadcaster(config, new ObjectMapper().findAndRegisterModules(), deliveries::add);
+		RecordingEmitter emitter = new RecordingEmitter();
+		broadcaster.subscribe(null, emitter);
+
+		MessageResponse hidden = message(7);
+		hidden.setIsVisible(false);
+		hidden.setModerationStatus("REJECTED");
+		broadcaster.publish(MessageEventBroadcaster.EventType.MODERATED, hidden);
+		runDeliveries();
+
+		assertThat(emitter.data).containsExactly("{\"id\":7,\"moderationStatus\":\"REJECTED\",\"isVisible\":false}");
+	}
+
+	// Helper methods
+
+	private void runDeliveries() {
+		while (!deliveries.isEmpty()) {
+			deliveries.remove(0).run();
+		}
+	}
+
+	private static MessageResponse message(long id) {
+		MessageResponse message = new MessageResponse();
+		message.setId(id);
+		message.setContent("Stream test message " + id);
+		message.setIsVisible(true);
+		return message;
+	}
+
+	/**
+	 * Records the id, name and data of every event sent, as a client would parse them
+	 */
+	private static final class RecordingEmitter extends SseEmitter {
+		private final List<String> ids = new ArrayList<>();
+		private final List<String> names = new ArrayList<>();
+		private final List<String> data = new ArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			StringBuilder text = new StringBuilder();
+			builder.build().forEach(part -> text.append(part.getData()));
+			for (String line : text.toString().split("\n")) {
+				if (line.startsWith("id:")) {
+					ids.add(line.substring(3));
+				} else if (line.startsWith("event:")) {
+					names.add(line.substring(6));
+				} else if (line.startsWith("data:") && line.length() > 5) {
+					data.add(line.substring(5));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.dto.response.CursorPage;
+import com.perfectdigitalsociety.dto.response.MessageResponse;
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.entity.User;
+import com.perfectdigitalsociety.repository.MessageRepository;
+import com.perfectdigitalsociety.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A one-message feed cache window, so the measured feed pages always fall through to the listing query
+@SpringBootTest(properties = {
+	"spring.jpa.properties.hibernate.generate_statistics=true",
+	"app.messages.feed-cache-size=1"
+})
+@Transactional // each test's users and messages are rolled back
+class MessageListingQueryCountTest {
+
+	private static final int AUTHORS = 30;
+
+	@Autowired
+	private MessageService messageService;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void createMessagesFromDistinctAuthors() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// One message per author, so any per-row author lookup would show up as extra statements
+		String prefix = "listing-" + System.nanoTime() + "-";
+		for (int i = 0; i < AUTHORS; i++) {
+			User user = new User();
+			user.setUsername(prefix + i);
+			user.setEmail(prefix + i + "@test.local");
+			user.setPasswordHash("not-a-real-hash");
+			user = userRepository.save(user);
+
+			Message message = new Message();
+			message.setUser(user);
+			message.setContent("Query count test message " + i);
+			messageRepository.save(message);
+		}
+		// Written now, so the inserts are not flushed within the measured statements
+		messageRepository.flush();
+
+		// Loads the cache window up front, so it is not part of the measured statements
+		messageService.getVisibleMessages(null, 1);
+	}
+
+	@Test
+	void listingPagesCostOneStatementRegardlessOfPageSize() {
+		assertThat(statementsFor(5)).isEqualTo(1);
+		assertThat(statementsFor(AUTHORS)).isEqualTo(1);
+	}
+
+	// Helper methods
+
+	private long statementsFor(int pageSize) {
+		statistics.clear();
+		CursorPage<MessageResponse> page = messageService.getVisibleMessages(null, pageSize);
+
+		assertThat(page.getItems()).hasSize(pageSize);
+		assertThat(page.getItems()).allSatisfy(message -> assertThat(message.getUsername()).isNotNull());
+		return statistics.getPrepareStatementCount();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.entity.Message;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageSearchIndexTest {
+
+	// Without an active transaction, updates are applied immediately
+	private final MessageSearchIndex index = new MessageSearchIndex(null);
+
+	@Test
+	void matchesAllTermsCaseInsensitively() {
+		index(1, "Freedom of expression matters");
+		index(2, "freedom and security, in balance");
+		index(3, "Security first.");
+
+		assertThat(index.search("FREEDOM", null, 10).messageIds()).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(index.search("freedom security", null, 10).messageIds()).containsExactly(2L);
+		assertThat(index.search("freedom unknown", null, 10).totalMatches()).isZero();
+		assertThat(index.search("  ,. ", null, 10).messageIds()).isEmpty();
+	}
+
+	@Test
+	void ranksByRelevanceAndPaginates() {
+		index(1, "privacy");
+		index(2, "privacy privacy privacy");
+		index(3, "privacy is one of many long words in this rather long message");
+		index(4, "nothing to see here");
+
+		MessageSearchIndex.SearchResult firstPage = index.search("privacy", null, 2);
+		SearchCursor cursor = SearchCursor.decode(firstPage.matches().get(1).cursor().encode());
+		MessageSearchIndex.SearchResult secondPage = index.search("privacy", cursor, 2);
+
+		assertThat(firstPage.totalMatches()).isEqualTo(3);
+		assertThat(firstPage.messageIds()).containsExactly(2L, 1L);
+		assertThat(firstPage.more()).isTrue();
+		assertThat(secondPage.messageIds()).containsExactly(3L);
+		assertThat(secondPage.more()).isFalse();
+	}
+
+	@Test
+	void reindexesEditedAndDropsHiddenMessages() {
+		index(1, "open discussion");
+		index(2, "open rules");
+
+		index(1, "closed discussion");
+		Message hidden = message(2, "open rules");
+		hidden.setIsVisible(false);
+		index.update(hidden);
+
+		assertThat(index.search("open", null, 10).messageIds()).isEmpty();
+		assertThat(index.search("closed discussion", null, 10).messageIds()).containsExactly(1L);
+		assertThat(index.getStats().documents()).isEqualTo(1);
+	}
+
+	// Helper methods
+
+	private void index(long id, String content) {
+		index.update(message(id, content));
+	}
+
+	private static Message message(long id, String content) {
+		Message message = new Message();
+		message.setId(id);
+		message.setContent(content);
+		message.setIsVisible(true);
+		return message;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.perfectdigitalsociety.service;
+
+import com.perfectdigitalsociety.config.MessageConfig;
+import com.perfectdigitalsociety.entity.Message;
+import com.perfectdigitalsociety.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModerationQueueTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private final MessageConfig config = new MessageConfig();
+
+	// Without an active transaction, updates are applied immediately
+	private final ModerationQueue queue = new ModerationQueue(null, config);
+
+	@Test
+	void claimsByFlagsThenReputationThenAge() {
+		queue.add(message(1, 0, 50, NOW.minusHours(3)));
+		queue.add(message(2, 0, 10, NOW.minusHours(1)));
+		queue.add(message(3, 0, 10, NOW.minusHours(2)));
+		queue.add(message(4, 2, 90, NOW));
+
+		assertThat(queue.claim(100L, 10).messageIds()).containsExactly(4L, 3L, 2L, 1L);
+	}
+
+	@Test
+	void flagsReprioritizeQueuedMessages() {
+		queue.add(message(1, 0, 0, NOW.minusHours(1)));
+		queue.add(message(2, 0, 0, NOW));
+		queue.updateFlagCount(2L, 3);
+		queue.updateFlagCount(5L, 9); // not awaiting moderation
+
+		assertThat(queue.claim(100L, 10).messageIds()).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void moderatorsNeverShareClaimedMessages() {
+		for (long id = 1; id <= 5; id++) {
+			queue.add(message(id, 0, 0, NOW.plusMinutes(id)));
+		}
+
+		ModerationQueue.Claim first = queue.claim(100L, 3);
+		ModerationQueue.Claim second = queue.claim(200L, 3);
+
+		assertThat(first.messageIds()).containsExactly(1L, 2L, 3L);
+		assertThat(second.messageIds()).containsExactly(4L, 5L);
+		assertThat(queue.claim(300L, 3).messageIds()).isEmpty();
+
+		queue.checkNotClaimedByOther(1L, 100L);
+		assertThatThrownBy(() -> queue.checkNotClaimedByOther(1L, 200L))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void expiredLeasesReturnMessagesToTheQueue() {
+		config.setModerationLeaseSeconds(0);
+		queue.add(message(1, 0, 0, NOW));
+
+		assertThat(queue.claim(100L, 1).messageIds()).containsExactly(1L);
+		assertThat(queue.claim(200L, 1).messageIds()).containsExactly(1L);
+	}
+
+	@Test
+	void removedMessagesLeaveQueueAndLease() {
+		queue.add(message(1, 0, 0, NOW));
+		queue.add(message(2, 0, 0, NOW.plusMinutes(1)));
+		queue.claim(100L, 1);
+
+		queue.remove(1L);
+		queue.remove(2L);
+
+		assertThat(queue.claim(200L, 10).messageIds()).isEmpty();
+		queue.checkNotClaimedByOther(1L, 200L);
+	}
+
+	@Test
+	void releasedClaimsReturnToTheQueue() {
+		queue.add(message(1, 0, 0, NOW));
+		queue.add(message(2, 0, 0, NOW.plusMinutes(1)));
+		ModerationQueue.Claim claim = queue.claim(100L, 2);
+
+		// Another moderator's release does not touch the claim
+		queue.release(200L, claim.leaseExpiresAt(), claim.messageIds());
+		assertThat(queue.claim(200L, 10).messageIds()).isEmpty();
+
+		queue.release(100L, claim.leaseExpiresAt(), List.of(2L));
+		assertThat(queue.claim(200L, 10).messageIds()).containsExactly(2L);
+		queue.checkNotClaimedByOther(1L, 100L);
+	}
+
+	private static Message message(long id, int flagCount, int authorReputation, LocalDateTime createdAt) {
+		User author = new User();
+		author.setReputationScore(authorReputation);
+		Message message = new Message();
+		message.setId(id);
+		message.setUser(author);
+		message.setFlagCount(flagCount);
+		message.setCreatedAt(createdAt);
+		return message;
+	}
+}
\ No newline at end of file
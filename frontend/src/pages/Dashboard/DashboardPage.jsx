@@ -47,7 +47,7 @@ const DashboardPage = () => {
       const [balance, metrics, messages, events, userBal] = await Promise.all([
         balanceService.getCurrentBalance(),
         communityService.getMetrics(),
-        messageService.getAllMessages(),
+        messageService.getMessagesPage(null, 5),
         balanceService.getBalanceEvents(),
         balanceService.getMyBalance(),
       ]);
@@ -55,7 +55,7 @@ const DashboardPage = () => {
       setDashboardData({
         systemBalance: balance,
         communityMetrics: metrics,
-        recentMessages: Array.isArray(messages) ? messages.slice(0, 5) : [],
+        recentMessages: Array.isArray(messages?.items) ? messages.items : [],
         balanceEvents: Array.isArray(events) ? events.slice(0, 10) : [],
         userBalance: userBal,
       });
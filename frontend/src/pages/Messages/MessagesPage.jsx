@@ -15,10 +15,29 @@ import { messageService } from '../../services/api';
 import { toast } from 'react-toastify';
 import './MessagesPage.css';
 
+// Apply one message stream event to the loaded feed; both feeds list visible messages only,
+// and the own-messages feed only the current user's
+const applyMessageEvent = (messages, type, message, filter, userId) => {
+  const belongs = message.isVisible && (filter !== 'my-messages' || message.userId === userId);
+  const present = messages.some((item) => item.id === message.id);
+
+  if (type === 'CREATED') {
+    return belongs && !present ? [message, ...messages] : messages;
+  }
+  if (!present) {
+    return messages; // Not loaded yet; it arrives with its page
+  }
+  return belongs
+    ? messages.map((item) => (item.id === message.id ? message : item))
+    : messages.filter((item) => item.id !== message.id);
+};
+
 const MessagesPage = () => {
   const { user } = useAuth();
   const [messages, setMessages] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [showComposer, setShowComposer] = useState(false);
   const [editingMessage, setEditingMessage] = useState(null);
   const [newMessage, setNewMessage] = useState({
@@ -31,16 +50,30 @@ const MessagesPage = () => {
     loadMessages();
   }, [filter]);
 
+  // Keep the loaded feed current; RESET means changes were missed, so start over
+  useEffect(() => {
+    const unsubscribe = messageService.subscribeToMessages((type, message) => {
+      if (type === 'RESET') {
+        loadMessages();
+      } else if (message) {
+        setMessages((current) => applyMessageEvent(current, type, message, filter, user?.id));
+      }
+    });
+    return unsubscribe;
+  }, [filter, user?.id]);
+
+  const fetchPage = (cursor) => (
+    filter === 'my-messages'
+      ? messageService.getMyMessagesPage(cursor)
+      : messageService.getMessagesPage(cursor)
+  );
+
   const loadMessages = async () => {
     try {
       setLoading(true);
-      let data;
-      if (filter === 'my-messages') {
-        data = await messageService.getMyMessages();
-      } else {
-        data = await messageService.getAllMessages();
-      }
-      setMessages(Array.isArray(data) ? data : []);
+      const page = await fetchPage(null);
+      setMessages(Array.isArray(page.items) ? page.items : []);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Failed to load messages:', error);
       toast.error('Failed to load messages');
@@ -49,6 +82,22 @@ const MessagesPage = () => {
     }
   };
 
+  const loadMoreMessages = async () => {
+    if (!nextCursor || loadingMore) return;
+
+    try {
+      setLoadingMore(true);
+      const page = await fetchPage(nextCursor);
+      setMessages((current) => [...current, ...(Array.isArray(page.items) ? page.items : [])]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Failed to load more messages:', error);
+      toast.error('Failed to load more messages');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleCreateMessage = async (e) => {
     e. preventDefault();
     
@@ -221,7 +270,7 @@ const MessagesPage = () => {
               className="card message-card"
               initial={{ opacity: 0, y: 20 }}
               animate={{ opacity: 1, y: 0 }}
-              transition={{ delay: index * 0.05 }}
+              transition={{ delay: (index % 50) * 0.05 }}
             >
               <div className="message-header">
                 <div className="message-author">
@@ -332,6 +381,18 @@ const MessagesPage = () => {
           </div>
         )}
       </div>
+
+      {nextCursor && (
+        <div className="load-more">
+          <button
+            className="btn btn-secondary"
+            onClick={loadMoreMessages}
+            disabled={loadingMore}
+          >
+            {loadingMore ? 'Loading...' : 'Load More'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
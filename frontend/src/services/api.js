@@ -54,6 +54,13 @@ apiClient.interceptors.response.use(
   }
 );
 
+// Keyset-paginated listings return one page per request and the cursor of the
+// next page in the X-Next-Cursor header; views load further pages on demand.
+const getPage = async (path, cursor, limit) => {
+  const response = await apiClient.get(path, { params: { limit, ...(cursor && { cursor }) } });
+  return { items: response.data, nextCursor: response.headers['x-next-cursor'] || null };
+};
+
 // ===========================
 // AUTHENTICATION SERVICE
 // ===========================
@@ -110,20 +117,12 @@ export const userService = {
 // ===========================
 
 export const messageService = {
-  getAllMessages: async () => {
-    const response = await apiClient.get('/messages');
-    return response.data;
-  },
+  // Each listing returns one page; pass the returned nextCursor to get the following page
+  getMessagesPage: (cursor = null, limit = 50) => getPage('/messages', cursor, limit),
 
-  getMyMessages: async () => {
-    const response = await apiClient.get('/messages/my-messages');
-    return response.data;
-  },
+  getMyMessagesPage: (cursor = null, limit = 50) => getPage('/messages/my-messages', cursor, limit),
 
-  getUserMessages: async (userId) => {
-    const response = await apiClient.get(`/messages/user/${userId}`);
-    return response.data;
-  },
+  getUserMessagesPage: (userId, cursor = null, limit = 50) => getPage(`/messages/user/${userId}`, cursor, limit),
 
   getMessageById: async (messageId) => {
     const response = await apiClient.get(`/messages/${messageId}`);
@@ -150,17 +149,88 @@ export const messageService = {
     return response.data;
   },
 
-  getFlaggedMessages: async () => {
-    const response = await apiClient.get('/messages/flagged');
-    return response.data;
-  },
+  getFlaggedMessagesPage: (cursor = null, limit = 50) => getPage('/messages/flagged', cursor, limit),
+
+  getPendingMessagesPage: (cursor = null, limit = 50) => getPage('/messages/pending', cursor, limit),
+
+  // Live message changes from /messages/stream. EventSource cannot send the Authorization
+  // header, so the stream is read with fetch and reconnects with Last-Event-ID.
+  // onEvent receives (type, data); RESET means missed changes are gone and the feed should be reloaded.
+  // Returns a function that closes the stream.
+  subscribeToMessages: (onEvent) => {
+    const controller = new AbortController();
+    let lastEventId = null;
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers = { Accept: 'text/event-stream' };
+          const token = localStorage.getItem('token');
+          if (token) {
+            headers.Authorization = `Bearer ${token}`;
+          }
+          if (lastEventId) {
+            headers['Last-Event-ID'] = lastEventId;
+          }
+
+          const response = await fetch(`${API_BASE_URL}/messages/stream`, { headers, signal: controller.signal });
+          if (response.status === 401 || response.status === 403) {
+            return;
+          }
+          if (!response.ok) {
+            throw new Error(`Message stream failed with status ${response.status}`);
+          }
+
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffered = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+              break;
+            }
+            buffered += value;
+            let end;
+            while ((end = buffered.indexOf('\n\n')) >= 0) {
+              const event = parseStreamEvent(buffered.slice(0, end));
+              buffered = buffered.slice(end + 2);
+              if (event.id) {
+                lastEventId = event.id;
+              }
+              if (event.type) {
+                onEvent(event.type, event.data ? JSON.parse(event.data) : null);
+              }
+            }
+          }
+        } catch (error) {
+          if (controller.signal.aborted) {
+            return;
+          }
+        }
+        // Closed by the server (timeout, slow consumer) or failed: resume after a short pause
+        await new Promise((resolve) => setTimeout(resolve, 3000));
+      }
+    };
 
-  getPendingMessages: async () => {
-    const response = await apiClient.get('/messages/pending');
-    return response.data;
+    connect();
+    return () => controller.abort();
   },
 };
 
+// Parse one Server-Sent Events block; comment lines such as heartbeats are ignored
+const parseStreamEvent = (block) => {
+  const event = { id: null, type: null, data: '' };
+  for (const line of block.split('\n')) {
+    if (line.startsWith('id:')) {
+      event.id = line.slice(3).trim();
+    } else if (line.startsWith('event:')) {
+      event.type = line.slice(6).trim();
+    } else if (line.startsWith('data:')) {
+      event.data += line.slice(5);
+    }
+  }
+  return event;
+};
+
 // ===========================
 // BALANCE SERVICE
 // ===========================